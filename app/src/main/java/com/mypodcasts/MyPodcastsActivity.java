@@ -12,8 +12,12 @@ import android.view.View;
 import android.widget.AdapterView;
 import android.widget.ListView;
 
+import com.mypodcasts.episodes.EpisodeRegistry;
+import com.mypodcasts.episodes.autodownload.AutoDownloadScheduler;
 import com.mypodcasts.episodes.feeds.FeedEpisodesActivity;
+import com.mypodcasts.episodes.feeds.FeedPrefetcher;
 import com.mypodcasts.episodes.feeds.FeedsAdapter;
+import com.mypodcasts.repositories.FeedsRefreshedEvent;
 import com.mypodcasts.repositories.UserFeedsRepository;
 import com.mypodcasts.repositories.models.Feed;
 
@@ -21,6 +25,7 @@ import java.util.List;
 
 import javax.inject.Inject;
 
+import de.greenrobot.event.EventBus;
 import retryable.asynctask.RetryableAsyncTask;
 import roboguice.activity.RoboActionBarActivity;
 import roboguice.inject.ContentView;
@@ -41,9 +46,22 @@ public class MyPodcastsActivity extends RoboActionBarActivity {
   @Inject
   private UserFeedsRepository userFeedsRepository;
 
+  @Inject
+  private EventBus eventBus;
+
+  @Inject
+  private FeedPrefetcher feedPrefetcher;
+
+  @Inject
+  private EpisodeRegistry episodeRegistry;
+
+  @Inject
+  private AutoDownloadScheduler autoDownloadScheduler;
+
   @Override
   protected void onCreate(Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
+    eventBus.register(this);
 
     setSupportActionBar(toolbar);
     setActionBarDrawerToggle(drawerLayout, toolbar);
@@ -53,13 +71,26 @@ public class MyPodcastsActivity extends RoboActionBarActivity {
       public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
         Feed feed = (Feed) leftDrawer.getAdapter().getItem(position);
         Intent intent = new Intent(view.getContext(), FeedEpisodesActivity.class);
-        intent.putExtra(Feed.class.toString(), feed);
+        intent.putExtra(Feed.class.toString(), episodeRegistry.putFeed(feed));
 
         startActivity(intent);
       }
     });
 
     new FeedsAsyncTask().execute();
+
+    if (savedInstanceState == null) { autoDownloadScheduler.schedule(); }
+  }
+
+  @Override
+  protected void onDestroy() {
+    eventBus.unregister(this);
+
+    super.onDestroy();
+  }
+
+  public void onEventMainThread(FeedsRefreshedEvent event) {
+    showFeeds(event.getFeeds());
   }
 
   @Override
@@ -88,6 +119,10 @@ public class MyPodcastsActivity extends RoboActionBarActivity {
     actionBarDrawerToggle.syncState();
   }
 
+  private void showFeeds(List<Feed> feeds) {
+    leftDrawer.setAdapter(new FeedsAdapter(feeds, getLayoutInflater()));
+  }
+
   private class FeedsAsyncTask extends RetryableAsyncTask<Void, Void, List<Feed>> {
 
     public FeedsAsyncTask() {
@@ -101,7 +136,9 @@ public class MyPodcastsActivity extends RoboActionBarActivity {
 
     @Override
     protected void onPostExecute(List<Feed> feeds) {
-      leftDrawer.setAdapter(new FeedsAdapter(feeds, getLayoutInflater()));
+      showFeeds(feeds);
+
+      feedPrefetcher.prefetch(feeds);
     }
   }
 }
@@ -0,0 +1,43 @@
+package com.mypodcasts.episodes;
+
+import android.text.Spanned;
+import android.text.SpannedString;
+import android.util.LruCache;
+
+import com.mypodcasts.repositories.EpisodeStore;
+import com.mypodcasts.repositories.models.Episode;
+
+import javax.inject.Inject;
+
+import static android.text.Html.fromHtml;
+
+public class DescriptionRenderer {
+  private static final int MAX_CACHED_CHARS = 128 * 1024;
+
+  private final EpisodeStore episodeStore;
+
+  private final LruCache<String, Spanned> renderedDescriptions = new LruCache<String, Spanned>(MAX_CACHED_CHARS) {
+    @Override
+    protected int sizeOf(String episodeId, Spanned renderedDescription) {
+      return Math.max(1, renderedDescription.length());
+    }
+  };
+
+  @Inject
+  public DescriptionRenderer(EpisodeStore episodeStore) {
+    this.episodeStore = episodeStore;
+  }
+
+  public Spanned render(Episode episode) {
+    String episodeId = episode.getId();
+
+    Spanned renderedDescription = renderedDescriptions.get(episodeId);
+    if (renderedDescription != null) { return renderedDescription; }
+
+    String description = episodeStore.getDescription(episodeId);
+    renderedDescription = description == null ? new SpannedString(episode.getSummary()) : fromHtml(description);
+    renderedDescriptions.put(episodeId, renderedDescription);
+
+    return renderedDescription;
+  }
+}
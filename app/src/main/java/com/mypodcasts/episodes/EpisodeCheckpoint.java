@@ -10,9 +10,12 @@ import javax.inject.Inject;
 
 import static android.content.Context.MODE_PRIVATE;
 import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
 
 public class EpisodeCheckpoint {
   public static final String STATE = EpisodeCheckpoint.class.toString();
+  private static final int FINISHED_MARGIN_IN_MILLIS = 30 * 1000;
+
   private final Context context;
 
   @Inject
@@ -25,17 +28,39 @@ public class EpisodeCheckpoint {
 
     Log.i("[mypodcasts]", "Mark playing episode checkpoint: " + episode);
 
-    editor.putInt(episodeKey(episode), currentPosition).apply();
+    editor.putInt(episodeKey(episode), currentPosition)
+        .putLong(playedAtKey(episode), currentTimeMillis())
+        .apply();
 
     return currentPosition;
   }
 
+  public Integer markCheckpoint(Episode episode, Integer currentPosition, Integer duration) {
+    if (duration > 0 && currentPosition >= duration - FINISHED_MARGIN_IN_MILLIS) { markFinished(episode); }
+
+    return markCheckpoint(episode, currentPosition);
+  }
+
+  public void markFinished(Episode episode) {
+    Log.i("[mypodcasts]", "Mark finished episode: " + episode);
+
+    getSharedPreferences().edit().putBoolean(finishedKey(episode), true).apply();
+  }
+
   public Integer getLastCheckpointPosition(Episode episode, Integer defaultPosition) {
     SharedPreferences sharedPreferences = getSharedPreferences();
 
     return sharedPreferences.getInt(episodeKey(episode), defaultPosition);
   }
 
+  public boolean isFinished(Episode episode) {
+    return getSharedPreferences().getBoolean(finishedKey(episode), false);
+  }
+
+  public long getLastPlayedAt(Episode episode) {
+    return getSharedPreferences().getLong(playedAtKey(episode), 0);
+  }
+
   private SharedPreferences getSharedPreferences() {
     return context.getSharedPreferences(STATE, MODE_PRIVATE);
   }
@@ -48,6 +73,14 @@ public class EpisodeCheckpoint {
     );
   }
 
+  private String playedAtKey(Episode episode) {
+    return episodeKey(episode) + "#played_at";
+  }
+
+  private String finishedKey(Episode episode) {
+    return episodeKey(episode) + "#finished";
+  }
+
   private String replaceFromSpaceToUnderscore(String value) {
     return value.toLowerCase().replace(" ", "_");
   }
@@ -1,28 +1,58 @@
 package com.mypodcasts.episodes;
 
+import com.mypodcasts.episodes.storage.EpisodeStorage;
 import com.mypodcasts.repositories.models.Episode;
-import com.mypodcasts.support.FileDownloadManager;
+import com.mypodcasts.support.Download;
+import com.mypodcasts.support.DownloadEngine;
+import com.mypodcasts.support.DownloadProgressTracker;
 
 import javax.inject.Inject;
 
-import static android.net.Uri.parse;
+import static com.google.common.base.Strings.isNullOrEmpty;
 
 public class EpisodeDownloader {
-  private final FileDownloadManager fileDownloadManager;
+  private static final int SEGMENTS = 4;
+
+  private final DownloadEngine downloadEngine;
   private final EpisodeFile episodeFile;
+  private final DownloadProgressTracker downloadProgressTracker;
+  private final EpisodeStorage episodeStorage;
 
   @Inject
-  public EpisodeDownloader(FileDownloadManager fileDownloadManager, EpisodeFile episodeFile) {
-    this.fileDownloadManager = fileDownloadManager;
+  public EpisodeDownloader(DownloadEngine downloadEngine, EpisodeFile episodeFile,
+                           DownloadProgressTracker downloadProgressTracker,
+                           EpisodeStorage episodeStorage) {
+    this.downloadEngine = downloadEngine;
     this.episodeFile = episodeFile;
+    this.downloadProgressTracker = downloadProgressTracker;
+    this.episodeStorage = episodeStorage;
+  }
+
+  public Download download(Episode episode) {
+    return download(episode, Download.PRIORITY_HIGH);
   }
 
-  public void download(Episode episode) {
-    fileDownloadManager.enqueue(
-        parse(episode.getAudioUrl()),
-        episodeFile.getPodcastsDirectory(),
-        episode.getAudioFilePath()
+  public Download download(Episode episode, int priority) {
+    if (isNullOrEmpty(episode.getAudioUrl())) { return null; }
+
+    episodeStorage.expect(episode);
+    Download download = downloadEngine.enqueue(
+        episode.getAudioUrl(),
+        episode.getAudioUrl(),
+        episodeFile.getFile(episode),
+        priority,
+        SEGMENTS,
+        episodeFile.getExpectedBytes(episode)
     );
+    downloadProgressTracker.track();
+
+    return download;
+  }
+
+  public boolean isDownloading(Episode episode) {
+    if (isNullOrEmpty(episode.getAudioUrl())) { return false; }
+
+    return downloadEngine.isDownloading(episode.getAudioUrl());
   }
 
   public boolean isAlreadyDownloaded(Episode episode) {
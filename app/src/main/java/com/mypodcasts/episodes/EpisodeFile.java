@@ -1,20 +1,33 @@
 package com.mypodcasts.episodes;
 
+import android.util.Log;
+
+import com.mypodcasts.repositories.DownloadedEpisode;
+import com.mypodcasts.repositories.EpisodeStore;
 import com.mypodcasts.repositories.models.Episode;
 import com.mypodcasts.support.ExternalPublicFileLookup;
 
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import javax.inject.Inject;
 
 import static android.os.Environment.DIRECTORY_PODCASTS;
 import static android.os.Environment.getExternalStoragePublicDirectory;
+import static java.util.Collections.newSetFromMap;
+import static java.lang.Long.parseLong;
 import static java.lang.String.format;
 
 public class EpisodeFile {
   private final ExternalPublicFileLookup externalPublicFileLookup;
+  private final EpisodeStore episodeStore;
+  private final Set<String> completeFiles = newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
   @Inject
-  public EpisodeFile(ExternalPublicFileLookup externalPublicFileLookup) {
+  public EpisodeFile(ExternalPublicFileLookup externalPublicFileLookup, EpisodeStore episodeStore) {
     this.externalPublicFileLookup = externalPublicFileLookup;
+    this.episodeStore = episodeStore;
   }
 
   public boolean exists(Episode episode) {
@@ -24,8 +37,23 @@ public class EpisodeFile {
     );
   }
 
+  public File getFile(Episode episode) {
+    return new File(
+        getExternalStoragePublicDirectory(getPodcastsDirectory()),
+        episode.getAudioFilePath()
+    );
+  }
+
+  public long getExpectedBytes(Episode episode) {
+    try {
+      return parseLong(episode.getAudioLength());
+    } catch (NumberFormatException ex) {
+      return -1;
+    }
+  }
+
   public String getAudioFilePath(Episode episode) {
-    if (exists(episode)) {
+    if (exists(episode) && isComplete(episode)) {
       return format(
           "%s/%s",
           getExternalStoragePublicDirectory(getPodcastsDirectory()),
@@ -39,4 +67,21 @@ public class EpisodeFile {
   public String getPodcastsDirectory() {
     return DIRECTORY_PODCASTS;
   }
+
+  private boolean isComplete(Episode episode) {
+    File file = getFile(episode);
+    if (completeFiles.contains(file.getPath())) { return true; }
+
+    DownloadedEpisode downloadedEpisode = episodeStore.getDownloadedEpisode(episode.getAudioUrl());
+    if ((downloadedEpisode != null && file.length() == downloadedEpisode.getBytes())
+        || (downloadedEpisode == null && file.length() >= getExpectedBytes(episode))) {
+      // Downloads only ever move a verified file into place, so a complete file stays complete until deleted
+      completeFiles.add(file.getPath());
+      return true;
+    }
+
+    Log.w("[mypodcasts]", "Partial episode file, streaming it instead: " + file);
+
+    return false;
+  }
 }
@@ -1,20 +1,47 @@
 package com.mypodcasts.episodes;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
 import com.mypodcasts.repositories.models.Episode;
 
-import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.mypodcasts.repositories.Api.PAGE_SIZE;
 import static java.util.Collections.emptyList;
 
-public class EpisodeList implements Serializable {
+public class EpisodeList implements Parcelable {
   public static final String HEADER = "EpisodeList#header";
   public static final String LIST = "EpisodeList#list";
 
+  public static final Creator<EpisodeList> CREATOR = new Creator<EpisodeList>() {
+    @Override
+    public EpisodeList createFromParcel(Parcel in) {
+      return new EpisodeList(in);
+    }
+
+    @Override
+    public EpisodeList[] newArray(int size) {
+      return new EpisodeList[size];
+    }
+  };
+
   private final List<Episode> episodes;
+  private final String feedId;
+
+  protected EpisodeList(Parcel in) {
+    episodes = in.createTypedArrayList(Episode.CREATOR);
+    feedId = in.readString();
+  }
 
   public EpisodeList(List<Episode> episodes) {
+    this(episodes, null);
+  }
+
+  public EpisodeList(List<Episode> episodes, String feedId) {
     this.episodes = episodes;
+    this.feedId = feedId;
   }
 
   public List<Episode> getEpisodes() {
@@ -24,4 +51,50 @@ public class EpisodeList implements Serializable {
       return episodes;
     }
   }
+
+  public String getFeedId() {
+    return feedId;
+  }
+
+  public EpisodeList append(List<Episode> page) {
+    List<Episode> allEpisodes = new ArrayList<>(getEpisodes());
+    allEpisodes.addAll(page);
+
+    return new EpisodeList(allEpisodes, feedId);
+  }
+
+  public EpisodeList withFirstPage(EpisodeList firstPage) {
+    List<Episode> firstPageEpisodes = firstPage.getEpisodes();
+    List<Episode> loadedEpisodes = getEpisodes();
+    if (firstPageEpisodes.size() < PAGE_SIZE || loadedEpisodes.size() <= firstPageEpisodes.size()) {
+      return firstPage;
+    }
+
+    int lastPosition = indexOf(loadedEpisodes, firstPageEpisodes.get(firstPageEpisodes.size() - 1));
+    if (lastPosition < 0) { return firstPage; }
+
+    return firstPage.append(loadedEpisodes.subList(lastPosition + 1, loadedEpisodes.size()));
+  }
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+
+  @Override
+  public void writeToParcel(Parcel out, int flags) {
+    out.writeTypedList(episodes);
+    out.writeString(feedId);
+  }
+
+  private int indexOf(List<Episode> episodes, Episode episode) {
+    String audioUrl = episode.getAudioUrl();
+    if (audioUrl == null || audioUrl.isEmpty()) { return -1; }
+
+    for (int position = 0; position < episodes.size(); position++) {
+      if (audioUrl.equals(episodes.get(position).getAudioUrl())) { return position; }
+    }
+
+    return -1;
+  }
 }
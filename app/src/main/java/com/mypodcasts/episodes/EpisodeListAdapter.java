@@ -1,42 +1,92 @@
 package com.mypodcasts.episodes;
 
-import android.view.View;
+import android.support.v7.widget.RecyclerView;
 import android.view.ViewGroup;
-import android.widget.BaseAdapter;
 
 import com.mypodcasts.repositories.models.Episode;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-public class EpisodeListAdapter extends BaseAdapter {
+public class EpisodeListAdapter extends RecyclerView.Adapter<EpisodeViewInflater.EpisodeViewHolder> {
 
-  private final List<Episode> episodes;
+  private List<EpisodeRow> episodeRows;
   private final EpisodeViewInflater episodeViewInflater;
+  private final Map<String, Long> itemIds = new HashMap<>();
 
-  public EpisodeListAdapter(List<Episode> episodes, EpisodeViewInflater episodeViewInflater) {
-    this.episodes = episodes;
+  public EpisodeListAdapter(List<EpisodeRow> episodeRows, EpisodeViewInflater episodeViewInflater) {
+    this.episodeRows = episodeRows;
     this.episodeViewInflater = episodeViewInflater;
+
+    setHasStableIds(true);
   }
 
-  @Override
-  public int getCount() {
-    return episodes.size();
+  public List<EpisodeRow> getEpisodeRows() {
+    return episodeRows;
+  }
+
+  public void setEpisodeRows(List<EpisodeRow> episodeRows) {
+    this.episodeRows = episodeRows;
+
+    notifyDataSetChanged();
+  }
+
+  public void addEpisodeRows(List<EpisodeRow> moreEpisodeRows) {
+    List<EpisodeRow> episodeRows = new ArrayList<>(this.episodeRows);
+    episodeRows.addAll(moreEpisodeRows);
+
+    int positionStart = this.episodeRows.size();
+    this.episodeRows = episodeRows;
+
+    notifyItemRangeInserted(positionStart, moreEpisodeRows.size());
+  }
+
+  public void applyDiff(EpisodeRowsDiff episodeRowsDiff) {
+    if (episodeRowsDiff.getOldRows() != episodeRows) {
+      setEpisodeRows(episodeRowsDiff.getNewRows());
+      return;
+    }
+
+    episodeRows = episodeRowsDiff.getNewRows();
+    episodeRowsDiff.dispatchTo(this);
+  }
+
+  public boolean isEmpty() {
+    return episodeRows.isEmpty();
   }
 
   @Override
+  public int getItemCount() {
+    return episodeRows.size();
+  }
+
   public Episode getItem(int position) {
-    return episodes.get(position);
+    return episodeRows.get(position).getEpisode();
   }
 
   @Override
   public long getItemId(int position) {
-    return position;
+    String id = episodeRows.get(position).getId();
+    if (id == null) { return RecyclerView.NO_ID; }
+
+    Long itemId = itemIds.get(id);
+    if (itemId == null) {
+      itemId = (long) itemIds.size();
+      itemIds.put(id, itemId);
+    }
+
+    return itemId;
   }
 
   @Override
-  public View getView(int position, View recycledView, ViewGroup parent) {
-    final Episode episode = getItem(position);
+  public EpisodeViewInflater.EpisodeViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+    return episodeViewInflater.createViewHolder(parent);
+  }
 
-    return episodeViewInflater.inflate(recycledView).with(episode).from(parent);
+  @Override
+  public void onBindViewHolder(EpisodeViewInflater.EpisodeViewHolder episodeViewHolder, int position) {
+    episodeViewHolder.bind(episodeRows.get(position));
   }
 }
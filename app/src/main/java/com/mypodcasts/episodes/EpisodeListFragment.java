@@ -1,29 +1,40 @@
 package com.mypodcasts.episodes;
 
 import android.app.Activity;
-import android.content.Intent;
+import android.content.Context;
+import android.os.AsyncTask;
 import android.os.Bundle;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.AdapterView;
-import android.widget.ListView;
 import android.widget.TextView;
 
 import com.android.volley.toolbox.ImageLoader;
 import com.android.volley.toolbox.NetworkImageView;
 import com.mypodcasts.R;
-import com.mypodcasts.player.AudioPlayerActivity;
+import com.mypodcasts.repositories.UserFeedsRepository;
+import com.mypodcasts.repositories.UserLatestEpisodesRepository;
 import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.support.DownloadFinishedEvent;
+import com.mypodcasts.support.DownloadProgress;
+import com.mypodcasts.support.DownloadProgressEvent;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.inject.Inject;
 
+import de.greenrobot.event.EventBus;
+import retryable.asynctask.RetryableAsyncTask;
 import roboguice.fragment.provided.RoboFragment;
 import roboguice.inject.InjectView;
 
+import static com.mypodcasts.repositories.Api.PAGE_SIZE;
+
 public class EpisodeListFragment extends RoboFragment {
+  private static final int NEXT_PAGE_THRESHOLD = 5;
 
   @InjectView(R.id.episode_list_thumbnail)
   private NetworkImageView episodeListImageView;
@@ -32,7 +43,7 @@ public class EpisodeListFragment extends RoboFragment {
   private TextView episodesListTitle;
 
   @InjectView(R.id.episodes_list_view)
-  private ListView episodesListView;
+  private RecyclerView episodesListView;
 
   @Inject
   private ImageLoader imageLoader;
@@ -40,6 +51,24 @@ public class EpisodeListFragment extends RoboFragment {
   @Inject
   private EpisodeViewInflater episodeViewInflater;
 
+  @Inject
+  private UserLatestEpisodesRepository userLatestEpisodesRepository;
+
+  @Inject
+  private UserFeedsRepository userFeedsRepository;
+
+  @Inject
+  private EpisodeRegistry episodeRegistry;
+
+  @Inject
+  private EventBus eventBus;
+
+  private EpisodeList episodeList;
+  private EpisodeListAdapter episodeListAdapter;
+  private LinearLayoutManager layoutManager;
+  private boolean loadingNextPage;
+  private boolean hasNextPage;
+
   @Override
   public View onCreateView(LayoutInflater inflater, final ViewGroup container, Bundle savedInstanceState) {
     return inflater.inflate(R.layout.episode_list, container, false);
@@ -53,30 +82,209 @@ public class EpisodeListFragment extends RoboFragment {
 
     episodeListImageView.setImageUrl(headerInfo.getImageUrl(), imageLoader);
     episodesListTitle.setText(headerInfo.getTitle());
-    episodesListView.setOnItemClickListener(new AdapterView.OnItemClickListener() {
+
+    layoutManager = new LinearLayoutManager(getActivity());
+    episodesListView.setLayoutManager(layoutManager);
+    episodesListView.setOnScrollListener(new RecyclerView.OnScrollListener() {
       @Override
-      public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-        Episode episode = (Episode) episodesListView.getAdapter().getItem(position);
-        Intent intent = new Intent(view.getContext(), AudioPlayerActivity.class);
-        intent.putExtra(Episode.class.toString(), episode);
+      public void onScrollStateChanged(int scrollState) {
+      }
 
-        startActivity(intent);
+      @Override
+      public void onScrolled(int dx, int dy) {
+        int lastVisibleItem = layoutManager.findLastVisibleItemPosition();
+        if (lastVisibleItem + 1 >= episodeListAdapter.getItemCount() - NEXT_PAGE_THRESHOLD) {
+          loadNextPage();
+        }
       }
     });
 
-    List<Episode> latestEpisodes = getEpisodeList().getEpisodes();
-    episodesListView.setAdapter(new EpisodeListAdapter(latestEpisodes, episodeViewInflater));
+    episodeList = getEpisodeList();
+
+    List<Episode> latestEpisodes = episodeList.getEpisodes();
+    hasNextPage = latestEpisodes.size() >= PAGE_SIZE;
+    episodeListAdapter = new EpisodeListAdapter(new ArrayList<EpisodeRow>(), episodeViewInflater);
+    episodesListView.setAdapter(episodeListAdapter);
+
+    new EpisodeRowsDiffAsyncTask(latestEpisodes).execute();
+  }
+
+  @Override
+  public void onResume() {
+    super.onResume();
+
+    eventBus.register(this);
+  }
+
+  @Override
+  public void onPause() {
+    eventBus.unregister(this);
+
+    super.onPause();
+  }
+
+  public void onEventMainThread(DownloadProgressEvent event) {
+    for (EpisodeViewInflater.EpisodeViewHolder episodeViewHolder : getVisibleViewHolders()) {
+      DownloadProgress downloadProgress = event.getProgress(episodeViewHolder.getEpisode().getAudioUrl());
+      if (downloadProgress != null) { episodeViewHolder.showDownloadProgress(downloadProgress); }
+    }
+  }
+
+  public void onEventMainThread(DownloadFinishedEvent event) {
+    String key = event.getDownload().getKey();
+
+    for (EpisodeViewInflater.EpisodeViewHolder episodeViewHolder : getVisibleViewHolders()) {
+      if (key.equals(episodeViewHolder.getEpisode().getAudioUrl())) {
+        episodeListAdapter.notifyItemChanged(episodeViewHolder.getPosition());
+      }
+    }
+  }
+
+  public void refresh(EpisodeList firstPage) {
+    episodeList = getEpisodeList().withFirstPage(firstPage);
+    getArguments().putString(EpisodeList.LIST, episodeRegistry.putEpisodeList(episodeList));
+
+    if (episodeListAdapter != null) {
+      if (episodeList == firstPage) { hasNextPage = firstPage.getEpisodes().size() >= PAGE_SIZE; }
+      new EpisodeRowsDiffAsyncTask(episodeList.getEpisodes()).execute();
+    }
+  }
+
+  public void append(List<Episode> episodes) {
+    episodeList = getEpisodeList().append(episodes);
+    getArguments().putString(EpisodeList.LIST, episodeRegistry.putEpisodeList(episodeList));
+
+    if (episodeListAdapter != null) {
+      new EpisodeRowsAsyncTask(episodes).execute();
+    }
+  }
+
+  private void loadNextPage() {
+    if (loadingNextPage || !hasNextPage || episodeListAdapter.isEmpty()) { return; }
+
+    loadingNextPage = true;
+    Episode lastEpisode = episodeListAdapter.getItem(episodeListAdapter.getItemCount() - 1);
+
+    new NextPageAsyncTask(episodeList.getFeedId(), lastEpisode).execute();
   }
 
   private EpisodeList getEpisodeList() {
-    return (EpisodeList) getArguments().getSerializable(EpisodeList.LIST);
+    if (episodeList != null) { return episodeList; }
+
+    EpisodeList registeredList = episodeRegistry.getEpisodeList(getArguments().getString(EpisodeList.LIST));
+    if (registeredList == null) { return new EpisodeList(new ArrayList<Episode>()); }
+
+    return registeredList;
+  }
+
+  private List<EpisodeViewInflater.EpisodeViewHolder> getVisibleViewHolders() {
+    List<EpisodeViewInflater.EpisodeViewHolder> viewHolders = new ArrayList<>();
+    if (layoutManager == null) { return viewHolders; }
+
+    int firstVisiblePosition = layoutManager.findFirstVisibleItemPosition();
+    int lastVisiblePosition = layoutManager.findLastVisibleItemPosition();
+    if (firstVisiblePosition < 0) { return viewHolders; }
+
+    for (int position = firstVisiblePosition; position <= lastVisiblePosition; position++) {
+      RecyclerView.ViewHolder viewHolder = episodesListView.findViewHolderForPosition(position);
+      if (viewHolder != null) { viewHolders.add((EpisodeViewInflater.EpisodeViewHolder) viewHolder); }
+    }
+
+    return viewHolders;
   }
 
   private EpisodeListHeaderInfo getHeaderInfo() {
-    return (EpisodeListHeaderInfo) getArguments().getSerializable(EpisodeList.HEADER);
+    return (EpisodeListHeaderInfo) getArguments().getParcelable(EpisodeList.HEADER);
   }
 
   private LayoutInflater getLayoutInflater(View view) {
     return ((Activity) view.getContext()).getLayoutInflater();
   }
+
+  class EpisodeRowsAsyncTask extends AsyncTask<Void, Void, List<EpisodeRow>> {
+    private final Context context;
+    private final List<Episode> episodes;
+
+    public EpisodeRowsAsyncTask(List<Episode> episodes) {
+      this.context = getActivity().getApplicationContext();
+      this.episodes = episodes;
+    }
+
+    @Override
+    protected List<EpisodeRow> doInBackground(Void... params) {
+      return EpisodeRow.from(context, episodes);
+    }
+
+    @Override
+    protected void onPostExecute(List<EpisodeRow> episodeRows) {
+      episodeListAdapter.addEpisodeRows(episodeRows);
+    }
+  }
+
+  class EpisodeRowsDiffAsyncTask extends AsyncTask<Void, Void, EpisodeRowsDiff> {
+    private final Context context;
+    private final List<Episode> episodes;
+    private final List<EpisodeRow> currentRows;
+
+    public EpisodeRowsDiffAsyncTask(List<Episode> episodes) {
+      this.context = getActivity().getApplicationContext();
+      this.episodes = episodes;
+      this.currentRows = episodeListAdapter.getEpisodeRows();
+    }
+
+    @Override
+    protected EpisodeRowsDiff doInBackground(Void... params) {
+      return EpisodeRowsDiff.between(currentRows, EpisodeRow.from(context, episodes));
+    }
+
+    @Override
+    protected void onPostExecute(EpisodeRowsDiff episodeRowsDiff) {
+      episodeListAdapter.applyDiff(episodeRowsDiff);
+    }
+  }
+
+  class NextPageAsyncTask extends RetryableAsyncTask<Void, Void, List<EpisodeRow>> {
+    private final Context context;
+    private final String feedId;
+    private final Episode lastEpisode;
+
+    public NextPageAsyncTask(String feedId, Episode lastEpisode) {
+      super(getActivity());
+      this.context = getActivity().getApplicationContext();
+      this.feedId = feedId;
+      this.lastEpisode = lastEpisode;
+    }
+
+    @Override
+    protected List<EpisodeRow> doInBackground(Void... params) {
+      return EpisodeRow.from(context, nextPage());
+    }
+
+    @Override
+    protected void onPostExecute(List<EpisodeRow> episodeRows) {
+      loadingNextPage = false;
+      if (episodeListAdapter.isEmpty()) { return; }
+      if (episodeListAdapter.getItem(episodeListAdapter.getItemCount() - 1) != lastEpisode) { return; }
+
+      hasNextPage = episodeRows.size() >= PAGE_SIZE;
+      appendPage(episodeRows);
+      episodeListAdapter.addEpisodeRows(episodeRows);
+    }
+
+    private void appendPage(List<EpisodeRow> episodeRows) {
+      List<Episode> page = new ArrayList<>(episodeRows.size());
+      for (EpisodeRow episodeRow : episodeRows) {
+        page.add(episodeRow.getEpisode());
+      }
+
+      episodeList = getEpisodeList().append(page);
+      getArguments().putString(EpisodeList.LIST, episodeRegistry.putEpisodeList(episodeList));
+    }
+
+    private List<Episode> nextPage() {
+      if (feedId == null) { return userLatestEpisodesRepository.getLatestEpisodesAfter(lastEpisode); }
+
+      return userFeedsRepository.getFeedEpisodesAfter(feedId, lastEpisode);
+    }
+  }
 }
@@ -1,13 +1,31 @@
 package com.mypodcasts.episodes;
 
+import android.os.Parcel;
+import android.os.Parcelable;
+
 import com.mypodcasts.repositories.models.Image;
 
-import java.io.Serializable;
+public class EpisodeListHeaderInfo implements Parcelable {
+  public static final Creator<EpisodeListHeaderInfo> CREATOR = new Creator<EpisodeListHeaderInfo>() {
+    @Override
+    public EpisodeListHeaderInfo createFromParcel(Parcel in) {
+      return new EpisodeListHeaderInfo(in);
+    }
+
+    @Override
+    public EpisodeListHeaderInfo[] newArray(int size) {
+      return new EpisodeListHeaderInfo[size];
+    }
+  };
 
-public class EpisodeListHeaderInfo implements Serializable {
   private String title;
   private String imageUrl;
 
+  protected EpisodeListHeaderInfo(Parcel in) {
+    title = in.readString();
+    imageUrl = in.readString();
+  }
+
   public EpisodeListHeaderInfo(String title, String imageUrl) {
     this.title = title;
     this.imageUrl = imageUrl;
@@ -29,4 +47,15 @@ public class EpisodeListHeaderInfo implements Serializable {
   public String getImageUrl() {
     return imageUrl;
   }
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+
+  @Override
+  public void writeToParcel(Parcel out, int flags) {
+    out.writeString(title);
+    out.writeString(imageUrl);
+  }
 }
@@ -0,0 +1,106 @@
+package com.mypodcasts.episodes;
+
+import android.util.Log;
+import android.util.LruCache;
+
+import com.mypodcasts.repositories.EpisodeStore;
+import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.repositories.models.Feed;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+public class EpisodeRegistry {
+  private static final int MAX_EPISODE_LISTS = 8;
+  private static final int MAX_FEEDS = 32;
+  private static final int MAX_EPISODES = 32;
+
+  private final EpisodeStore episodeStore;
+
+  private final LruCache<String, EpisodeList> episodeLists = new LruCache<>(MAX_EPISODE_LISTS);
+  private final LruCache<String, Feed> feeds = new LruCache<>(MAX_FEEDS);
+  private final LruCache<String, Episode> episodes = new LruCache<>(MAX_EPISODES);
+
+  @Inject
+  public EpisodeRegistry(EpisodeStore episodeStore) {
+    this.episodeStore = episodeStore;
+  }
+
+  public String putEpisodeList(EpisodeList episodeList) {
+    String key = episodeListKey(episodeList.getFeedId());
+    episodeLists.put(key, episodeList);
+
+    return key;
+  }
+
+  public String refreshEpisodeList(EpisodeList firstPage) {
+    EpisodeList registeredList = episodeLists.get(episodeListKey(firstPage.getFeedId()));
+    if (registeredList == null) { return putEpisodeList(firstPage); }
+
+    return putEpisodeList(registeredList.withFirstPage(firstPage));
+  }
+
+  public EpisodeList getEpisodeList(String key) {
+    if (key == null) { return null; }
+
+    return episodeLists.get(key);
+  }
+
+  public String putFeed(Feed feed) {
+    if (feed.getId() != null) { feeds.put(feed.getId(), feed); }
+
+    return feed.getId();
+  }
+
+  public Feed getFeed(String id) {
+    if (id == null) { return null; }
+
+    return feeds.get(id);
+  }
+
+  public Feed loadFeed(String id) {
+    Feed feed = getFeed(id);
+    if (feed != null || id == null) { return feed; }
+
+    Log.i("[mypodcasts]", "Feed is not registered, reloading it from store: " + id);
+
+    List<Feed> storedFeeds = episodeStore.getFeeds();
+    if (storedFeeds == null) { return null; }
+
+    for (Feed storedFeed : storedFeeds) {
+      if (id.equals(storedFeed.getId())) { return storedFeed; }
+    }
+
+    return null;
+  }
+
+  public String putEpisode(Episode episode) {
+    String id = episode.getId();
+    episodes.put(id, episode);
+
+    return id;
+  }
+
+  public Episode getEpisode(String id) {
+    if (id == null) { return null; }
+
+    return episodes.get(id);
+  }
+
+  public Episode loadEpisode(String id) {
+    Episode episode = getEpisode(id);
+    if (episode != null || id == null) { return episode; }
+
+    Log.i("[mypodcasts]", "Episode is not registered, reloading it from store: " + id);
+
+    episode = episodeStore.getEpisode(id);
+    if (episode != null) { episodes.put(id, episode); }
+
+    return episode;
+  }
+
+  private String episodeListKey(String feedId) {
+    return feedId == null ? "latest_episodes" : "feed/" + feedId;
+  }
+}
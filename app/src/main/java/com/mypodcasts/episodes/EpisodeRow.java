@@ -0,0 +1,115 @@
+package com.mypodcasts.episodes;
+
+import android.content.Context;
+
+import com.mypodcasts.R;
+import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.repositories.models.Image;
+
+import org.joda.time.DateTime;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static android.text.format.Formatter.formatShortFileSize;
+import static com.google.common.base.Objects.equal;
+import static java.lang.Long.parseLong;
+import static org.joda.time.format.DateTimeFormat.forPattern;
+
+public class EpisodeRow {
+  private final Episode episode;
+  private final String title;
+  private final String summary;
+  private final String publishedDate;
+  private final String duration;
+  private final String audioLength;
+  private final String imageUrl;
+
+  private EpisodeRow(Context context, Episode episode) {
+    this.episode = episode;
+    this.title = episode.getTitle();
+    this.summary = episode.getSummary();
+    this.publishedDate = formatPublishedDate(episode.getPublishedDate());
+    this.duration = episode.getDuration();
+    this.audioLength = formatAudioLength(context, episode.getAudioLength());
+    this.imageUrl = imageUrl(context, episode.getImage());
+  }
+
+  public static EpisodeRow from(Context context, Episode episode) {
+    return new EpisodeRow(context, episode);
+  }
+
+  public static List<EpisodeRow> from(Context context, List<Episode> episodes) {
+    List<EpisodeRow> rows = new ArrayList<>(episodes.size());
+    for (Episode episode : episodes) {
+      rows.add(from(context, episode));
+    }
+
+    return rows;
+  }
+
+  public String getId() {
+    String audioUrl = episode.getAudioUrl();
+    if (audioUrl == null || audioUrl.isEmpty()) { return null; }
+
+    return audioUrl;
+  }
+
+  public boolean hasSameContentAs(EpisodeRow other) {
+    return equal(title, other.title)
+        && equal(summary, other.summary)
+        && equal(publishedDate, other.publishedDate)
+        && equal(duration, other.duration)
+        && equal(audioLength, other.audioLength)
+        && equal(imageUrl, other.imageUrl);
+  }
+
+  public Episode getEpisode() {
+    return episode;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public String getSummary() {
+    return summary;
+  }
+
+  public String getPublishedDate() {
+    return publishedDate;
+  }
+
+  public String getDuration() {
+    return duration;
+  }
+
+  public String getAudioLength() {
+    return audioLength;
+  }
+
+  public String getImageUrl() {
+    return imageUrl;
+  }
+
+  private static String formatPublishedDate(Date publishedDate) {
+    if (publishedDate == null) { return null; }
+
+    return new DateTime(publishedDate).toString(forPattern("MMM dd, yyyy")).toUpperCase();
+  }
+
+  private static String formatAudioLength(Context context, String audioLength) {
+    try {
+      return formatShortFileSize(context, parseLong(audioLength));
+    } catch (NumberFormatException ex) {
+      return "";
+    }
+  }
+
+  private static String imageUrl(Context context, Image image) {
+    if (image == null) { return context.getResources().getString(R.string.episode_default_image); }
+
+    return image.getUrl();
+  }
+}
@@ -0,0 +1,118 @@
+package com.mypodcasts.episodes;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class EpisodeRowsDiff {
+  private static final int REMOVE = 0;
+  private static final int INSERT = 1;
+  private static final int MOVE = 2;
+  private static final int CHANGE = 3;
+
+  private final List<EpisodeRow> oldRows;
+  private final List<EpisodeRow> newRows;
+  private final List<int[]> updates = new ArrayList<>();
+
+  private EpisodeRowsDiff(List<EpisodeRow> oldRows, List<EpisodeRow> newRows) {
+    this.oldRows = oldRows;
+    this.newRows = newRows;
+  }
+
+  public static EpisodeRowsDiff between(List<EpisodeRow> oldRows, List<EpisodeRow> newRows) {
+    EpisodeRowsDiff diff = new EpisodeRowsDiff(oldRows, newRows);
+    diff.compute();
+
+    return diff;
+  }
+
+  public List<EpisodeRow> getOldRows() {
+    return oldRows;
+  }
+
+  public List<EpisodeRow> getNewRows() {
+    return newRows;
+  }
+
+  public void dispatchTo(RecyclerView.Adapter adapter) {
+    for (int[] update : updates) {
+      switch (update[0]) {
+        case REMOVE: adapter.notifyItemRangeRemoved(update[1], update[2]); break;
+        case INSERT: adapter.notifyItemRangeInserted(update[1], update[2]); break;
+        case MOVE: adapter.notifyItemMoved(update[1], update[2]); break;
+        case CHANGE: adapter.notifyItemRangeChanged(update[1], update[2]); break;
+      }
+    }
+  }
+
+  private void compute() {
+    Map<String, EpisodeRow> newRowsById = new HashMap<>();
+    for (EpisodeRow newRow : newRows) {
+      String id = newRow.getId();
+      if (id != null && !newRowsById.containsKey(id)) { newRowsById.put(id, newRow); }
+    }
+
+    Set<String> keptIds = new HashSet<>();
+    boolean[] kept = new boolean[oldRows.size()];
+    for (int i = 0; i < oldRows.size(); i++) {
+      String id = oldRows.get(i).getId();
+      kept[i] = id != null && newRowsById.containsKey(id) && keptIds.add(id);
+    }
+
+    List<EpisodeRow> rows = new ArrayList<>(oldRows);
+    for (int i = oldRows.size() - 1; i >= 0; i--) {
+      if (!kept[i]) {
+        rows.remove(i);
+        add(REMOVE, i, 1);
+      }
+    }
+
+    for (int i = 0; i < newRows.size(); i++) {
+      EpisodeRow newRow = newRows.get(i);
+      int position = indexOf(rows, newRow.getId(), i);
+
+      if (position < 0 || newRowsById.get(newRow.getId()) != newRow) {
+        rows.add(i, newRow);
+        add(INSERT, i, 1);
+        continue;
+      }
+
+      EpisodeRow oldRow = rows.remove(position);
+      rows.add(i, newRow);
+      if (position != i) { add(MOVE, position, i); }
+      if (!newRow.hasSameContentAs(oldRow)) { add(CHANGE, i, 1); }
+    }
+  }
+
+  private int indexOf(List<EpisodeRow> rows, String id, int from) {
+    if (id == null) { return -1; }
+
+    for (int i = from; i < rows.size(); i++) {
+      if (id.equals(rows.get(i).getId())) { return i; }
+    }
+
+    return -1;
+  }
+
+  private void add(int type, int position, int value) {
+    int[] last = updates.isEmpty() ? null : updates.get(updates.size() - 1);
+    if (last != null && last[0] == type && type != MOVE) {
+      if (type == REMOVE && last[1] == position + 1) {
+        last[1] = position;
+        last[2]++;
+        return;
+      }
+      if (type != REMOVE && last[1] + last[2] == position) {
+        last[2]++;
+        return;
+      }
+    }
+
+    updates.add(new int[]{type, position, value});
+  }
+}
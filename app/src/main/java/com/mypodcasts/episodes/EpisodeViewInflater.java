@@ -3,11 +3,12 @@ package com.mypodcasts.episodes;
 import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
-import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageButton;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import com.android.volley.toolbox.ImageLoader;
@@ -15,186 +16,161 @@ import com.android.volley.toolbox.NetworkImageView;
 import com.mypodcasts.R;
 import com.mypodcasts.player.AudioPlayerActivity;
 import com.mypodcasts.repositories.models.Episode;
-import com.mypodcasts.repositories.models.Image;
-
-import org.joda.time.DateTime;
-
-import java.util.Date;
+import com.mypodcasts.support.DownloadProgress;
 
 import javax.inject.Inject;
 
-import static android.text.Html.fromHtml;
-import static android.text.format.Formatter.formatShortFileSize;
+import static android.view.View.GONE;
 import static android.view.View.INVISIBLE;
-import static java.lang.Long.valueOf;
-import static org.joda.time.format.DateTimeFormat.forPattern;
+import static android.view.View.VISIBLE;
 
 public class EpisodeViewInflater {
+  private final Activity activity;
   private final LayoutInflater layoutInflater;
   private final ImageLoader imageLoader;
   private final EpisodeDownloader episodeDownloader;
+  private final EpisodeRegistry episodeRegistry;
 
   @Inject
-  public EpisodeViewInflater(Activity activity, ImageLoader imageLoader, EpisodeDownloader episodeDownloader) {
+  public EpisodeViewInflater(Activity activity, ImageLoader imageLoader,
+                             EpisodeDownloader episodeDownloader, EpisodeRegistry episodeRegistry) {
+    this.activity = activity;
     this.layoutInflater = activity.getLayoutInflater();
     this.imageLoader = imageLoader;
     this.episodeDownloader = episodeDownloader;
+    this.episodeRegistry = episodeRegistry;
   }
 
-  protected InflaterWith inflate(View view) {
-    return new InflaterWith(view);
+  protected EpisodeViewHolder createViewHolder(ViewGroup parent) {
+    View view = layoutInflater.inflate(R.layout.episode_list_item, parent, false);
+    EpisodeViewHolder episodeViewHolder = new EpisodeViewHolder(view);
+    view.setTag(episodeViewHolder);
+
+    return episodeViewHolder;
   }
 
-  protected class InflaterWith {
-    private final View view;
-    public InflaterWith(View view) {
-      this.view = view;
-    }
+  private void openPlayer(Context context, Episode episode) {
+    Intent intent = new Intent(context, AudioPlayerActivity.class);
+    intent.putExtra(Episode.class.toString(), episodeRegistry.putEpisode(episode));
 
-    public InflaterFrom with(Episode episode) {
-      return new InflaterFrom(view, episode);
-    }
+    context.startActivity(intent);
   }
-  protected class InflaterFrom {
-    private final View view;
-    private final Episode episode;
-    public InflaterFrom(View view, Episode episode) {
-      this.view = view;
-      this.episode = episode;
-    }
 
-    public View from(ViewGroup parent) {
-      return inflate(view, parent, episode);
+  private final View.OnClickListener rowClickListener = new View.OnClickListener() {
+    @Override
+    public void onClick(View view) {
+      openPlayer(view.getContext(), ((EpisodeViewHolder) view.getTag()).episode);
     }
-  }
+  };
 
-  private View inflate(View recycledView, ViewGroup parent, Episode episode) {
-    View view;
-    if (recycledView == null) {
-      view = layoutInflater.inflate(R.layout.episode_list_item, parent, false);
-    } else {
-      view = recycledView;
+  private final View.OnClickListener mediaPlayClickListener = new View.OnClickListener() {
+    @Override
+    public void onClick(View view) {
+      openPlayer(view.getContext(), (Episode) view.getTag());
     }
+  };
 
-    return new EpisodeView(view, episode).getView();
-  }
-
-  private class EpisodeView {
-    private final View view;
+  private final View.OnClickListener downloadClickListener = new View.OnClickListener() {
+    @Override
+    public void onClick(View view) {
+      episodeDownloader.download((Episode) view.getTag());
+    }
+  };
 
-    private TextView titleTextView;
-    private TextView descriptionTextView;
-    private TextView publishedDateTextView;
-    private TextView durationTextView;
-    private TextView audioLengthTextView;
+  protected class EpisodeViewHolder extends RecyclerView.ViewHolder {
+    private final TextView titleTextView;
+    private final TextView descriptionTextView;
+    private final TextView publishedDateTextView;
+    private final TextView durationTextView;
+    private final TextView audioLengthTextView;
 
-    private NetworkImageView networkImageView;
-    private ImageButton mediaPlayButton;
-    private ImageButton downloadButton;
+    private final NetworkImageView networkImageView;
+    private final ImageButton mediaPlayButton;
+    private final ViewGroup downloadLayout;
+    private final ImageButton downloadButton;
+    private final ProgressBar downloadProgressBar;
 
-    protected EpisodeView(View view, Episode episode) {
-      this.view = view;
+    private Episode episode;
 
-      this.setTitle(episode.getTitle());
-      this.setDescription(episode.getDescription());
-      this.setPublishedDate(episode.getPublishedDate());
-      this.setDuration(episode.getDuration());
-      this.setAudioLength(episode.getAudioLength());
+    protected EpisodeViewHolder(View view) {
+      super(view);
+      view.setOnClickListener(rowClickListener);
 
-      this.setImageUrl(episode.getImage());
+      titleTextView = (TextView) view.findViewById(R.id.episode_title);
+      descriptionTextView = (TextView) view.findViewById(R.id.episode_description);
+      publishedDateTextView = (TextView) view.findViewById(R.id.episode_published_date);
+      durationTextView = (TextView) view.findViewById(R.id.episode_duration);
+      audioLengthTextView = (TextView) view.findViewById(R.id.episode_length);
 
-      this.setMediaPlayButtonLayout(episode);
-      this.setDownloadButtonLayout(episode);
-    }
+      networkImageView = (NetworkImageView) view.findViewById(R.id.episode_thumbnail);
 
-    protected View getView() {
-      return view;
-    }
+      mediaPlayButton = (ImageButton) view.findViewById(R.id.media_play_button);
+      mediaPlayButton.setFocusable(false);
+      mediaPlayButton.setOnClickListener(mediaPlayClickListener);
 
-    private void setTitle(String title) {
-      titleTextView = (TextView) view.findViewById(R.id.episode_title);
-      titleTextView.setText(title);
+      downloadLayout = (ViewGroup) view.findViewById(R.id.episode_download_layout);
+      downloadButton = (ImageButton) view.findViewById(R.id.episode_download_button);
+      downloadButton.setFocusable(false);
+      downloadButton.setOnClickListener(downloadClickListener);
+      downloadProgressBar = (ProgressBar) view.findViewById(R.id.episode_download_progress);
     }
 
-    private void setDescription(String description) {
-      descriptionTextView = (TextView) view.findViewById(R.id.episode_description);
-      descriptionTextView.setText(fromHtml(description));
+    protected Episode getEpisode() {
+      return episode;
     }
 
-    public void setPublishedDate(Date publishedDate) {
-      publishedDateTextView = (TextView) view.findViewById(R.id.episode_published_date);
+    protected void showDownloadProgress(DownloadProgress downloadProgress) {
+      downloadButton.setVisibility(GONE);
+      downloadProgressBar.setVisibility(VISIBLE);
 
-      if (publishedDate == null) {
-        publishedDateTextView.setVisibility(INVISIBLE);
-        publishedDateTextView.setText("");
+      if (downloadProgress == null || downloadProgress.getPercent() < 0) {
+        downloadProgressBar.setIndeterminate(true);
       } else {
-        String formattedDateTime = new DateTime(publishedDate).toString(forPattern("MMM dd, yyyy"));
-        publishedDateTextView.setText(formattedDateTime.toUpperCase());
+        downloadProgressBar.setIndeterminate(false);
+        downloadProgressBar.setProgress(downloadProgress.getPercent());
       }
     }
 
-    private void setDuration(String duration) {
-      durationTextView = (TextView) view.findViewById(R.id.episode_duration);
-      durationTextView.setText(duration);
-    }
+    protected void bind(EpisodeRow episodeRow) {
+      episode = episodeRow.getEpisode();
 
-    private void setAudioLength(String audioLength) {
-      audioLengthTextView = (TextView) view.findViewById(R.id.episode_length);
+      titleTextView.setText(episodeRow.getTitle());
+      descriptionTextView.setText(episodeRow.getSummary());
+      setPublishedDate(episodeRow.getPublishedDate());
+      durationTextView.setText(episodeRow.getDuration());
+      audioLengthTextView.setText(episodeRow.getAudioLength());
 
-      try {
-        String formattedShortFileSize = formatShortFileSize(view.getContext(), valueOf(audioLength));
-        audioLengthTextView.setText(formattedShortFileSize);
-      } catch (NumberFormatException ex) {
-        audioLengthTextView.setText("");
-      }
-    }
+      networkImageView.setImageUrl(episodeRow.getImageUrl(), imageLoader);
 
-    private void setImageUrl(Image image) {
-      networkImageView = (NetworkImageView) view.findViewById(R.id.episode_thumbnail);
-      String imageUrl = image == null ? episodeDefaultImageUrl() : image.getUrl();
-
-      networkImageView.setImageUrl(imageUrl, imageLoader);
+      mediaPlayButton.setTag(episode);
+      setDownloadButton(episode);
     }
 
-    private void setMediaPlayButtonLayout(final Episode episode) {
-      mediaPlayButton = (ImageButton) view.findViewById(R.id.media_play_button);
-      mediaPlayButton.setFocusable(false);
-
-      mediaPlayButton.setOnClickListener(new View.OnClickListener() {
-        @Override
-        public void onClick(View view) {
-          Context context = view.getContext();
-          Intent intent = new Intent(context, AudioPlayerActivity.class);
-          intent.putExtra(Episode.class.toString(), episode);
-
-          context.startActivity(intent);
-        }
-      });
+    private void setPublishedDate(String publishedDate) {
+      if (publishedDate == null) {
+        publishedDateTextView.setVisibility(INVISIBLE);
+        publishedDateTextView.setText("");
+      } else {
+        publishedDateTextView.setVisibility(VISIBLE);
+        publishedDateTextView.setText(publishedDate);
+      }
     }
 
-    private void setDownloadButtonLayout(final Episode episode) {
-      ViewGroup downloadLayout = (ViewGroup) view.findViewById(R.id.episode_download_layout);
+    private void setDownloadButton(Episode episode) {
+      downloadButton.setTag(episode);
+
       if (episodeDownloader.isAlreadyDownloaded(episode)) {
         downloadLayout.setVisibility(INVISIBLE);
-        return;
       } else {
-        downloadLayout.setVisibility(View.VISIBLE);
+        downloadLayout.setVisibility(VISIBLE);
       }
 
-      downloadButton = (ImageButton) view.findViewById(R.id.episode_download_button);
-      downloadButton.setFocusable(false);
-
-      downloadButton.setOnClickListener(new View.OnClickListener() {
-        @Override
-        public void onClick(View view) {
-          episodeDownloader.download(episode);
-        }
-      });
-    }
-
-    @NonNull
-    private String episodeDefaultImageUrl() {
-      return view.getContext().getResources().getString(R.string.episode_default_image);
+      if (episodeDownloader.isDownloading(episode)) {
+        showDownloadProgress(null);
+      } else {
+        downloadProgressBar.setVisibility(GONE);
+        downloadButton.setVisibility(VISIBLE);
+      }
     }
   }
 }
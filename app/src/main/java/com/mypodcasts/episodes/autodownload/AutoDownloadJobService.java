@@ -0,0 +1,113 @@
+package com.mypodcasts.episodes.autodownload;
+
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+import android.util.Log;
+
+import com.mypodcasts.support.Download;
+import com.mypodcasts.support.DownloadEngine;
+import com.mypodcasts.support.DownloadFinishedEvent;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import javax.inject.Inject;
+
+import de.greenrobot.event.EventBus;
+import retrofit.RetrofitError;
+import roboguice.RoboGuice;
+
+public class AutoDownloadJobService extends JobService {
+
+  @Inject
+  private AutoDownloader autoDownloader;
+
+  @Inject
+  private DownloadEngine downloadEngine;
+
+  @Inject
+  private EventBus eventBus;
+
+  @Inject
+  private Executor executor;
+
+  private final Set<Download> pendingDownloads = new HashSet<>();
+  private JobParameters runningJob;
+
+  @Override
+  public void onCreate() {
+    super.onCreate();
+    RoboGuice.getInjector(this).injectMembers(this);
+    eventBus.register(this);
+  }
+
+  @Override
+  public void onDestroy() {
+    eventBus.unregister(this);
+    super.onDestroy();
+  }
+
+  @Override
+  public boolean onStartJob(final JobParameters params) {
+    synchronized (this) {
+      runningJob = params;
+    }
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          List<Download> enqueued = autoDownloader.downloadNewEpisodes();
+          Log.i("[mypodcasts]", "Auto download enqueued new episodes: " + enqueued.size());
+
+          waitFor(params, enqueued);
+        } catch (RetrofitError e) {
+          Log.w("[mypodcasts]", "Could not auto download new episodes", e);
+
+          finish(params, true);
+        }
+      }
+    });
+
+    return true;
+  }
+
+  @Override
+  public synchronized boolean onStopJob(JobParameters params) {
+    for (Download download : pendingDownloads) {
+      if (download.getPriority() == Download.PRIORITY_LOW) { downloadEngine.cancel(download.getKey()); }
+    }
+    pendingDownloads.clear();
+    runningJob = null;
+
+    return true;
+  }
+
+  public synchronized void onEventBackgroundThread(DownloadFinishedEvent event) {
+    if (pendingDownloads.remove(event.getDownload()) && pendingDownloads.isEmpty()) {
+      finish(runningJob, false);
+    }
+  }
+
+  private synchronized void waitFor(JobParameters params, List<Download> downloads) {
+    if (runningJob != params) { return; }
+
+    pendingDownloads.addAll(downloads);
+    for (Iterator<Download> pending = pendingDownloads.iterator(); pending.hasNext(); ) {
+      Download download = pending.next();
+      if (downloadEngine.getDownload(download.getKey()) != download) { pending.remove(); }
+    }
+
+    if (pendingDownloads.isEmpty()) { finish(params, false); }
+  }
+
+  private synchronized void finish(JobParameters params, boolean needsReschedule) {
+    if (runningJob != params) { return; }
+
+    runningJob = null;
+    jobFinished(params, needsReschedule);
+  }
+}
@@ -0,0 +1,40 @@
+package com.mypodcasts.episodes.autodownload;
+
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+
+import javax.inject.Inject;
+
+import static android.app.job.JobInfo.NETWORK_TYPE_UNMETERED;
+import static android.content.Context.JOB_SCHEDULER_SERVICE;
+import static java.util.concurrent.TimeUnit.HOURS;
+
+public class AutoDownloadScheduler {
+  public static final int JOB_ID = 1;
+  private static final long INTERVAL_IN_MILLIS = HOURS.toMillis(6);
+
+  private final Context context;
+
+  @Inject
+  public AutoDownloadScheduler(Context context) {
+    this.context = context;
+  }
+
+  public void schedule() {
+    JobScheduler jobScheduler = (JobScheduler) context.getSystemService(JOB_SCHEDULER_SERVICE);
+    for (JobInfo job : jobScheduler.getAllPendingJobs()) {
+      if (job.getId() == JOB_ID) { return; }
+    }
+
+    jobScheduler.schedule(
+        new JobInfo.Builder(JOB_ID, new ComponentName(context, AutoDownloadJobService.class))
+            .setRequiredNetworkType(NETWORK_TYPE_UNMETERED)
+            .setRequiresCharging(true)
+            .setPeriodic(INTERVAL_IN_MILLIS)
+            .setPersisted(true)
+            .build()
+    );
+  }
+}
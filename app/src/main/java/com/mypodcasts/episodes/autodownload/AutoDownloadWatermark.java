@@ -0,0 +1,36 @@
+package com.mypodcasts.episodes.autodownload;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.mypodcasts.repositories.models.Feed;
+
+import javax.inject.Inject;
+
+import static android.content.Context.MODE_PRIVATE;
+
+public class AutoDownloadWatermark {
+  public static final String STATE = AutoDownloadWatermark.class.toString();
+  private final Context context;
+
+  @Inject
+  public AutoDownloadWatermark(Context context) {
+    this.context = context;
+  }
+
+  public String get(Feed feed) {
+    return getSharedPreferences().getString(feedKey(feed), null);
+  }
+
+  public void mark(Feed feed, String cursor) {
+    getSharedPreferences().edit().putString(feedKey(feed), cursor).apply();
+  }
+
+  private SharedPreferences getSharedPreferences() {
+    return context.getSharedPreferences(STATE, MODE_PRIVATE);
+  }
+
+  private String feedKey(Feed feed) {
+    return "feed_" + feed.getId();
+  }
+}
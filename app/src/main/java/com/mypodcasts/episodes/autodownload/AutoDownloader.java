@@ -0,0 +1,78 @@
+package com.mypodcasts.episodes.autodownload;
+
+import android.util.Log;
+
+import com.mypodcasts.episodes.EpisodeDownloader;
+import com.mypodcasts.repositories.EpisodeCursor;
+import com.mypodcasts.repositories.UserFeedsRepository;
+import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.repositories.models.Feed;
+import com.mypodcasts.support.Download;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import retrofit.RetrofitError;
+
+public class AutoDownloader {
+  private static final int MAX_EPISODES_PER_FEED = 3;
+
+  private final UserFeedsRepository userFeedsRepository;
+  private final EpisodeDownloader episodeDownloader;
+  private final AutoDownloadWatermark autoDownloadWatermark;
+
+  @Inject
+  public AutoDownloader(UserFeedsRepository userFeedsRepository,
+                        EpisodeDownloader episodeDownloader,
+                        AutoDownloadWatermark autoDownloadWatermark) {
+    this.userFeedsRepository = userFeedsRepository;
+    this.episodeDownloader = episodeDownloader;
+    this.autoDownloadWatermark = autoDownloadWatermark;
+  }
+
+  public List<Download> downloadNewEpisodes() {
+    List<Download> enqueued = new ArrayList<>();
+    for (Feed feed : userFeedsRepository.syncFeeds()) {
+      try {
+        enqueued.addAll(downloadNewEpisodes(userFeedsRepository.syncFeed(feed.getId())));
+      } catch (RetrofitError e) {
+        Log.w("[mypodcasts]", "Could not look for new episodes of feed " + feed.getId(), e);
+      }
+    }
+
+    return enqueued;
+  }
+
+  private List<Download> downloadNewEpisodes(Feed feed) {
+    List<Download> enqueued = new ArrayList<>();
+    if (feed == null || feed.getEpisodes() == null || feed.getEpisodes().isEmpty()) { return enqueued; }
+
+    for (Episode episode : newEpisodesOf(feed)) {
+      Download download = episodeDownloader.download(episode, Download.PRIORITY_LOW);
+      if (download != null) { enqueued.add(download); }
+    }
+
+    String newestCursor = EpisodeCursor.of(feed.getEpisodes().get(0));
+    if (newestCursor != null) { autoDownloadWatermark.mark(feed, newestCursor); }
+
+    return enqueued;
+  }
+
+  private List<Episode> newEpisodesOf(Feed feed) {
+    String watermark = autoDownloadWatermark.get(feed);
+    int limit = watermark == null ? 1 : MAX_EPISODES_PER_FEED;
+
+    List<Episode> newEpisodes = new ArrayList<>();
+    for (Episode episode : feed.getEpisodes()) {
+      String cursor = EpisodeCursor.of(episode);
+      if (cursor == null || newEpisodes.size() == limit) { break; }
+      if (watermark != null && cursor.compareTo(watermark) <= 0) { break; }
+
+      if (!episodeDownloader.isAlreadyDownloaded(episode)) { newEpisodes.add(episode); }
+    }
+
+    return newEpisodes;
+  }
+}
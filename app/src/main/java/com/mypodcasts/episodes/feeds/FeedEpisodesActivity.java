@@ -9,9 +9,15 @@ import com.mypodcasts.R;
 import com.mypodcasts.episodes.EpisodeList;
 import com.mypodcasts.episodes.EpisodeListFragment;
 import com.mypodcasts.episodes.EpisodeListHeaderInfo;
+import com.mypodcasts.episodes.EpisodeRegistry;
+import com.mypodcasts.repositories.EpisodeBatchListener;
+import com.mypodcasts.repositories.FeedRefreshedEvent;
 import com.mypodcasts.repositories.UserFeedsRepository;
+import com.mypodcasts.repositories.models.Episode;
 import com.mypodcasts.repositories.models.Feed;
 
+import java.util.List;
+
 import javax.inject.Inject;
 
 import retryable.asynctask.RetryableAsyncTask;
@@ -32,38 +38,101 @@ public class FeedEpisodesActivity extends MyPodcastsActivity {
   @Inject
   private ProgressDialog progressDialog;
 
+  @Inject
+  private EpisodeRegistry episodeRegistry;
+
   @Inject
   private UserFeedsRepository userFeedsRepository;
 
+  @Inject
+  private FeedOpenFrequency feedOpenFrequency;
+
+  private Feed feed;
+  private boolean episodeListShown;
+
   @Override
   protected void onCreate(Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
 
-    Feed feed = (Feed) getIntent().getSerializableExtra(Feed.class.toString());
+    String feedId = getIntent().getStringExtra(Feed.class.toString());
+    feed = episodeRegistry.getFeed(feedId);
+    if (feed == null) { feed = new Feed(feedId); }
+    feedOpenFrequency.markOpened(feed);
 
-    new FeedEpisodesAsyncTask(feed).execute();
+    new FeedEpisodesAsyncTask().execute();
   }
 
-  class FeedEpisodesAsyncTask extends RetryableAsyncTask<Void, Void, Feed> {
-    private final Feed feed;
+  public void onEventMainThread(FeedRefreshedEvent event) {
+    if (event.getFeed().getId().equals(feed.getId())) {
+      showFeed(event.getFeed());
+    }
+  }
 
-    public FeedEpisodesAsyncTask(Feed feed) {
-      super(FeedEpisodesActivity.this);
+  private void showFeed(Feed feed) {
+    EpisodeList episodeList = new EpisodeList(feed.getEpisodes(), feed.getId());
+
+    if (episodeListShown) {
+      episodeListFragment.refresh(episodeList);
+      return;
+    }
+
+    arguments.putParcelable(
+        EpisodeList.HEADER,
+        new EpisodeListHeaderInfo(feed.getTitle(), feed.getImage())
+    );
+    arguments.putString(EpisodeList.LIST, episodeRegistry.refreshEpisodeList(episodeList));
+
+    episodeListFragment.setArguments(arguments);
 
-      this.feed = feed;
+    fragmentManager.beginTransaction()
+        .replace(R.id.content_frame, episodeListFragment)
+        .commitAllowingStateLoss();
+    episodeListShown = true;
+  }
+
+  private void appendEpisodes(List<Episode> episodes) {
+    if (episodeListShown) {
+      episodeListFragment.append(episodes);
+      return;
+    }
+
+    if (progressDialog.isShowing()) { progressDialog.dismiss(); }
+    showFeed(feed.withEpisodes(episodes));
+  }
+
+  class FeedEpisodesAsyncTask extends RetryableAsyncTask<Void, Void, Feed> {
+    public FeedEpisodesAsyncTask() {
+      super(FeedEpisodesActivity.this);
     }
 
     @Override
     protected void onPreExecute() {
+      String feedTitle = feed.getTitle() == null ? "" : feed.getTitle();
+
       progressDialog.show();
       progressDialog.setMessage(format(
-          getResources().getString(R.string.loading_feed_episodes), feed.getTitle()
+          getResources().getString(R.string.loading_feed_episodes), feedTitle
       ));
     }
 
     @Override
     protected Feed doInBackground(Void... params) {
-      return userFeedsRepository.getFeed(feed.getId());
+      if (feed.getTitle() == null) {
+        Feed storedFeed = episodeRegistry.loadFeed(feed.getId());
+        if (storedFeed != null) { feed = storedFeed; }
+      }
+
+      return userFeedsRepository.getFeed(feed.getId(), new EpisodeBatchListener() {
+        @Override
+        public void onEpisodes(final List<Episode> episodes) {
+          runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+              appendEpisodes(episodes);
+            }
+          });
+        }
+      });
     }
 
     @Override
@@ -72,21 +141,7 @@ public class FeedEpisodesActivity extends MyPodcastsActivity {
         progressDialog.dismiss();
       }
 
-      arguments.putSerializable(
-          EpisodeList.HEADER,
-          new EpisodeListHeaderInfo(feed.getTitle(), feed.getImage())
-      );
-
-      arguments.putSerializable(
-          EpisodeList.LIST,
-          new EpisodeList(feed.getEpisodes())
-      );
-
-      episodeListFragment.setArguments(arguments);
-
-      fragmentManager.beginTransaction()
-          .replace(R.id.content_frame, episodeListFragment)
-          .commitAllowingStateLoss();
+      showFeed(feed);
     }
   }
 }
@@ -0,0 +1,62 @@
+package com.mypodcasts.episodes.feeds;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.mypodcasts.repositories.models.Feed;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import static android.content.Context.MODE_PRIVATE;
+
+public class FeedOpenFrequency {
+  public static final String STATE = FeedOpenFrequency.class.toString();
+  private final Context context;
+
+  @Inject
+  public FeedOpenFrequency(Context context) {
+    this.context = context;
+  }
+
+  public int markOpened(Feed feed) {
+    int openCount = getOpenCount(feed) + 1;
+
+    getSharedPreferences().edit().putInt(feedKey(feed), openCount).apply();
+
+    return openCount;
+  }
+
+  public int getOpenCount(Feed feed) {
+    return getSharedPreferences().getInt(feedKey(feed), 0);
+  }
+
+  public List<Feed> mostOpenedFirst(List<Feed> feeds) {
+    final SharedPreferences sharedPreferences = getSharedPreferences();
+    List<Feed> sortedFeeds = new ArrayList<>(feeds);
+
+    Collections.sort(sortedFeeds, new Comparator<Feed>() {
+      @Override
+      public int compare(Feed feed, Feed anotherFeed) {
+        int openCount = sharedPreferences.getInt(feedKey(feed), 0);
+        int anotherOpenCount = sharedPreferences.getInt(feedKey(anotherFeed), 0);
+
+        return anotherOpenCount < openCount ? -1 : (anotherOpenCount == openCount ? 0 : 1);
+      }
+    });
+
+    return sortedFeeds;
+  }
+
+  private SharedPreferences getSharedPreferences() {
+    return context.getSharedPreferences(STATE, MODE_PRIVATE);
+  }
+
+  private String feedKey(Feed feed) {
+    return "feed_" + feed.getId();
+  }
+}
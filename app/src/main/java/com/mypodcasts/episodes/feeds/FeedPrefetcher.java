@@ -0,0 +1,76 @@
+package com.mypodcasts.episodes.feeds;
+
+import android.util.Log;
+
+import com.mypodcasts.repositories.UserFeedsRepository;
+import com.mypodcasts.repositories.models.Feed;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import retrofit.RetrofitError;
+
+import static java.lang.System.currentTimeMillis;
+
+public class FeedPrefetcher {
+  private static final int MAX_CONCURRENT_FETCHES = 2;
+  private static final long MIN_REVALIDATION_INTERVAL_IN_MILLIS = 15 * 60 * 1000;
+
+  private final UserFeedsRepository userFeedsRepository;
+  private final FeedOpenFrequency feedOpenFrequency;
+  private final Executor executor;
+
+  private final Queue<Feed> pendingFeeds = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger runningWorkers = new AtomicInteger();
+
+  @Inject
+  public FeedPrefetcher(UserFeedsRepository userFeedsRepository,
+                        FeedOpenFrequency feedOpenFrequency,
+                        Executor executor) {
+    this.userFeedsRepository = userFeedsRepository;
+    this.feedOpenFrequency = feedOpenFrequency;
+    this.executor = executor;
+  }
+
+  public void prefetch(List<Feed> feeds) {
+    if (runningWorkers.get() > 0) { return; }
+
+    pendingFeeds.addAll(feedOpenFrequency.mostOpenedFirst(feeds));
+
+    int workers = Math.min(MAX_CONCURRENT_FETCHES, pendingFeeds.size());
+    for (int i = 0; i < workers; i++) {
+      runningWorkers.incrementAndGet();
+      executor.execute(new Worker());
+    }
+  }
+
+  private class Worker implements Runnable {
+    @Override
+    public void run() {
+      try {
+        Feed feed;
+        while ((feed = pendingFeeds.poll()) != null) {
+          prefetch(feed);
+        }
+      } finally {
+        runningWorkers.decrementAndGet();
+      }
+    }
+
+    private void prefetch(Feed feed) {
+      long syncedAt = userFeedsRepository.getFeedSyncedAt(feed.getId());
+      if (syncedAt >= 0 && currentTimeMillis() - syncedAt < MIN_REVALIDATION_INTERVAL_IN_MILLIS) { return; }
+
+      try {
+        userFeedsRepository.syncFeed(feed.getId());
+      } catch (RetrofitError e) {
+        Log.w("[mypodcasts]", "Could not prefetch feed " + feed.getId(), e);
+      }
+    }
+  }
+}
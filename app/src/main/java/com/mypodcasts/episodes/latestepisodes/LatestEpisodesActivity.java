@@ -9,6 +9,9 @@ import com.mypodcasts.R;
 import com.mypodcasts.episodes.EpisodeList;
 import com.mypodcasts.episodes.EpisodeListFragment;
 import com.mypodcasts.episodes.EpisodeListHeaderInfo;
+import com.mypodcasts.episodes.EpisodeRegistry;
+import com.mypodcasts.repositories.EpisodeBatchListener;
+import com.mypodcasts.repositories.LatestEpisodesRefreshedEvent;
 import com.mypodcasts.repositories.UserLatestEpisodesRepository;
 import com.mypodcasts.repositories.models.Episode;
 
@@ -32,9 +35,14 @@ public class LatestEpisodesActivity extends MyPodcastsActivity {
   @Inject
   private ProgressDialog progressDialog;
 
+  @Inject
+  private EpisodeRegistry episodeRegistry;
+
   @Inject
   private UserLatestEpisodesRepository userLatestEpisodesRepository;
 
+  private boolean episodeListShown;
+
   @Override
   protected void onCreate(Bundle savedInstanceState) {
     super.onCreate(savedInstanceState);
@@ -42,6 +50,42 @@ public class LatestEpisodesActivity extends MyPodcastsActivity {
     new LatestEpisodesAsyncTask().execute();
   }
 
+  public void onEventMainThread(LatestEpisodesRefreshedEvent event) {
+    showLatestEpisodes(event.getEpisodes());
+  }
+
+  private void showLatestEpisodes(List<Episode> latestEpisodes) {
+    EpisodeList episodeList = new EpisodeList(latestEpisodes);
+
+    if (episodeListShown) {
+      episodeListFragment.refresh(episodeList);
+      return;
+    }
+
+    arguments.putParcelable(
+        EpisodeList.HEADER,
+        new EpisodeListHeaderInfo(getResources().getString(R.string.latest_episodes))
+    );
+    arguments.putString(EpisodeList.LIST, episodeRegistry.refreshEpisodeList(episodeList));
+
+    episodeListFragment.setArguments(arguments);
+
+    fragmentManager.beginTransaction()
+        .replace(R.id.content_frame, episodeListFragment)
+        .commitAllowingStateLoss();
+    episodeListShown = true;
+  }
+
+  private void appendLatestEpisodes(List<Episode> latestEpisodes) {
+    if (episodeListShown) {
+      episodeListFragment.append(latestEpisodes);
+      return;
+    }
+
+    if (progressDialog.isShowing()) { progressDialog.dismiss(); }
+    showLatestEpisodes(latestEpisodes);
+  }
+
   class LatestEpisodesAsyncTask extends RetryableAsyncTask<Void, Void, List<Episode>> {
     public LatestEpisodesAsyncTask() {
       super(LatestEpisodesActivity.this);
@@ -55,7 +99,17 @@ public class LatestEpisodesActivity extends MyPodcastsActivity {
 
     @Override
     protected List<Episode> doInBackground(Void... params) {
-      return userLatestEpisodesRepository.getLatestEpisodes();
+      return userLatestEpisodesRepository.getLatestEpisodes(new EpisodeBatchListener() {
+        @Override
+        public void onEpisodes(final List<Episode> episodes) {
+          runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+              appendLatestEpisodes(episodes);
+            }
+          });
+        }
+      });
     }
 
     @Override
@@ -64,20 +118,7 @@ public class LatestEpisodesActivity extends MyPodcastsActivity {
         progressDialog.dismiss();
       }
 
-      arguments.putSerializable(
-          EpisodeList.HEADER,
-          new EpisodeListHeaderInfo(getResources().getString(R.string.latest_episodes))
-      );
-      arguments.putSerializable(
-          EpisodeList.LIST,
-          new EpisodeList(latestEpisodes)
-      );
-
-      episodeListFragment.setArguments(arguments);
-
-      fragmentManager.beginTransaction()
-          .replace(R.id.content_frame, episodeListFragment)
-          .commitAllowingStateLoss();
+      showLatestEpisodes(latestEpisodes);
     }
   }
 }
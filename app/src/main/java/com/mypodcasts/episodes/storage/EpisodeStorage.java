@@ -0,0 +1,258 @@
+package com.mypodcasts.episodes.storage;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.mypodcasts.episodes.EpisodeCheckpoint;
+import com.mypodcasts.episodes.EpisodeFile;
+import com.mypodcasts.repositories.DownloadedEpisode;
+import com.mypodcasts.repositories.EpisodeStore;
+import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.repositories.models.Feed;
+import com.mypodcasts.support.Download;
+import com.mypodcasts.support.DownloadFinishedEvent;
+import com.mypodcasts.support.ExternalPublicFileLookup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+
+import de.greenrobot.event.EventBus;
+
+import static android.content.Context.MODE_PRIVATE;
+import static com.google.common.base.Objects.equal;
+import static java.lang.System.currentTimeMillis;
+
+public class EpisodeStorage {
+  public static final String STATE = EpisodeStorage.class.toString();
+  private static final String SEEDED_FROM_FILES = "seeded_from_files";
+  private static final long MAX_TOTAL_BYTES = 2L * 1024 * 1024 * 1024;
+  private static final int KEEP_LATEST_PER_PODCAST = 5;
+
+  private final Context context;
+  private final EpisodeStore episodeStore;
+  private final EpisodeCheckpoint episodeCheckpoint;
+  private final EpisodeFile episodeFile;
+  private final ExternalPublicFileLookup externalPublicFileLookup;
+  private final EventBus eventBus;
+  private final long maxTotalBytes;
+  private final int keepLatestPerPodcast;
+
+  private final Map<String, Episode> expectedEpisodes = new ConcurrentHashMap<>();
+  private final Map<String, Long> podcastBytes = new HashMap<>();
+  private Map<String, DownloadedEpisode> downloadedEpisodes;
+  private long totalBytes;
+  private String playingAudioUrl;
+
+  @Inject
+  public EpisodeStorage(Context context, EpisodeStore episodeStore, EpisodeCheckpoint episodeCheckpoint,
+                        EpisodeFile episodeFile, ExternalPublicFileLookup externalPublicFileLookup,
+                        EventBus eventBus) {
+    this(context, episodeStore, episodeCheckpoint, episodeFile, externalPublicFileLookup, eventBus,
+        MAX_TOTAL_BYTES, KEEP_LATEST_PER_PODCAST);
+  }
+
+  public EpisodeStorage(Context context, EpisodeStore episodeStore, EpisodeCheckpoint episodeCheckpoint,
+                        EpisodeFile episodeFile, ExternalPublicFileLookup externalPublicFileLookup,
+                        EventBus eventBus, long maxTotalBytes, int keepLatestPerPodcast) {
+    this.context = context;
+    this.episodeStore = episodeStore;
+    this.episodeCheckpoint = episodeCheckpoint;
+    this.episodeFile = episodeFile;
+    this.externalPublicFileLookup = externalPublicFileLookup;
+    this.eventBus = eventBus;
+    this.maxTotalBytes = maxTotalBytes;
+    this.keepLatestPerPodcast = keepLatestPerPodcast;
+  }
+
+  public synchronized void expect(Episode episode) {
+    expectedEpisodes.put(episode.getAudioUrl(), episode);
+
+    if (!eventBus.isRegistered(this)) { eventBus.register(this); }
+  }
+
+  public void onEventBackgroundThread(DownloadFinishedEvent event) {
+    Download download = event.getDownload();
+    Episode episode = expectedEpisodes.remove(download.getKey());
+    if (episode == null || !download.isSuccessful()) { return; }
+
+    record(new DownloadedEpisode(episode, download.getFile(), download.getFile().length(), currentTimeMillis()));
+  }
+
+  public synchronized void markPlaying(Episode episode) {
+    playingAudioUrl = episode.getAudioUrl();
+  }
+
+  public synchronized void clearPlaying(Episode episode) {
+    if (equal(playingAudioUrl, episode.getAudioUrl())) { playingAudioUrl = null; }
+  }
+
+  public synchronized long getTotalBytes() {
+    load();
+
+    return totalBytes;
+  }
+
+  public synchronized long getPodcastBytes(String podcastId) {
+    load();
+
+    return getPodcastBytesOrZero(podcastId);
+  }
+
+  synchronized void record(DownloadedEpisode downloadedEpisode) {
+    load();
+
+    DownloadedEpisode replacedEpisode = downloadedEpisodes.get(downloadedEpisode.getAudioUrl());
+    if (replacedEpisode != null) { untrack(replacedEpisode); }
+
+    episodeStore.saveDownloadedEpisode(downloadedEpisode);
+    track(downloadedEpisode);
+
+    keepLatestOf(downloadedEpisode.getPodcastId());
+    evictUntilUnderCap(downloadedEpisode);
+  }
+
+  private void keepLatestOf(String podcastId) {
+    List<DownloadedEpisode> podcastEpisodes = new ArrayList<>();
+    for (DownloadedEpisode downloadedEpisode : downloadedEpisodes.values()) {
+      if (equal(podcastId, downloadedEpisode.getPodcastId())) { podcastEpisodes.add(downloadedEpisode); }
+    }
+    if (podcastEpisodes.size() <= keepLatestPerPodcast) { return; }
+
+    Collections.sort(podcastEpisodes, new Comparator<DownloadedEpisode>() {
+      @Override
+      public int compare(DownloadedEpisode episode, DownloadedEpisode anotherEpisode) {
+        long downloadedAt = episode.getDownloadedAt();
+        long anotherDownloadedAt = anotherEpisode.getDownloadedAt();
+
+        return anotherDownloadedAt < downloadedAt ? -1 : (anotherDownloadedAt == downloadedAt ? 0 : 1);
+      }
+    });
+
+    for (DownloadedEpisode downloadedEpisode : podcastEpisodes.subList(keepLatestPerPodcast, podcastEpisodes.size())) {
+      if (!isPlaying(downloadedEpisode)) { evict(downloadedEpisode); }
+    }
+  }
+
+  private void evictUntilUnderCap(DownloadedEpisode justDownloaded) {
+    while (totalBytes > maxTotalBytes) {
+      DownloadedEpisode candidate = nextEvictionCandidate(justDownloaded);
+      if (candidate == null) { return; }
+
+      evict(candidate);
+    }
+  }
+
+  private DownloadedEpisode nextEvictionCandidate(DownloadedEpisode justDownloaded) {
+    DownloadedEpisode candidate = null;
+    boolean candidateFinished = false;
+    long candidateUsedAt = 0;
+
+    for (DownloadedEpisode downloadedEpisode : downloadedEpisodes.values()) {
+      if (downloadedEpisode == justDownloaded || isPlaying(downloadedEpisode)) { continue; }
+
+      boolean finished = episodeCheckpoint.isFinished(downloadedEpisode.getEpisode());
+      long usedAt = Math.max(
+          episodeCheckpoint.getLastPlayedAt(downloadedEpisode.getEpisode()),
+          downloadedEpisode.getDownloadedAt()
+      );
+
+      boolean evictsFirst = finished != candidateFinished ? finished : usedAt < candidateUsedAt;
+      if (candidate == null || evictsFirst) {
+        candidate = downloadedEpisode;
+        candidateFinished = finished;
+        candidateUsedAt = usedAt;
+      }
+    }
+
+    return candidate;
+  }
+
+  private boolean isPlaying(DownloadedEpisode downloadedEpisode) {
+    return equal(playingAudioUrl, downloadedEpisode.getAudioUrl());
+  }
+
+  private void evict(DownloadedEpisode downloadedEpisode) {
+    if (downloadedEpisode.getFile().exists() && !downloadedEpisode.getFile().delete()) {
+      Log.w("[mypodcasts]", "Could not delete evicted episode " + downloadedEpisode.getFile());
+    }
+    externalPublicFileLookup.remove(downloadedEpisode.getFile());
+    episodeStore.removeDownloadedEpisode(downloadedEpisode);
+    untrack(downloadedEpisode);
+
+    Log.i("[mypodcasts]", "Evicted downloaded episode " + downloadedEpisode.getEpisode());
+  }
+
+  private void load() {
+    if (downloadedEpisodes != null) { return; }
+
+    downloadedEpisodes = new HashMap<>();
+    for (DownloadedEpisode downloadedEpisode : episodeStore.getDownloadedEpisodes()) {
+      track(downloadedEpisode);
+    }
+
+    if (!getSharedPreferences().getBoolean(SEEDED_FROM_FILES, false)) { seedFromFiles(); }
+  }
+
+  private void seedFromFiles() {
+    List<Feed> feeds = episodeStore.getFeeds();
+    if (feeds == null) { return; }
+
+    int seeded = 0;
+    boolean allFeedsStored = true;
+    for (Feed feed : feeds) {
+      Feed storedFeed = episodeStore.getFeed(feed.getId());
+      if (storedFeed == null || storedFeed.getEpisodes() == null) {
+        allFeedsStored = false;
+        continue;
+      }
+
+      for (Episode episode : storedFeed.getEpisodes()) {
+        if (downloadedEpisodes.containsKey(episode.getAudioUrl()) || !episodeFile.exists(episode)) { continue; }
+
+        File file = episodeFile.getFile(episode);
+        if (file.length() < episodeFile.getExpectedBytes(episode)) { continue; }
+
+        DownloadedEpisode downloadedEpisode = new DownloadedEpisode(episode, file, file.length(), file.lastModified());
+        episodeStore.saveDownloadedEpisode(downloadedEpisode);
+        track(downloadedEpisode);
+        seeded++;
+      }
+    }
+
+    if (allFeedsStored) { getSharedPreferences().edit().putBoolean(SEEDED_FROM_FILES, true).apply(); }
+    Log.i("[mypodcasts]", "Started tracking previously downloaded episodes: " + seeded);
+  }
+
+  private void track(DownloadedEpisode downloadedEpisode) {
+    downloadedEpisodes.put(downloadedEpisode.getAudioUrl(), downloadedEpisode);
+    addBytes(downloadedEpisode.getPodcastId(), downloadedEpisode.getBytes());
+  }
+
+  private void untrack(DownloadedEpisode downloadedEpisode) {
+    downloadedEpisodes.remove(downloadedEpisode.getAudioUrl());
+    addBytes(downloadedEpisode.getPodcastId(), -downloadedEpisode.getBytes());
+  }
+
+  private void addBytes(String podcastId, long bytes) {
+    totalBytes += bytes;
+    podcastBytes.put(podcastId, getPodcastBytesOrZero(podcastId) + bytes);
+  }
+
+  private SharedPreferences getSharedPreferences() {
+    return context.getSharedPreferences(STATE, MODE_PRIVATE);
+  }
+
+  private long getPodcastBytesOrZero(String podcastId) {
+    Long bytes = podcastBytes.get(podcastId);
+    return bytes == null ? 0 : bytes;
+  }
+}
@@ -1,11 +1,15 @@
 package com.mypodcasts.player;
 
 import android.media.MediaPlayer;
+import android.media.MediaPlayer.OnCompletionListener;
 import android.media.MediaPlayer.OnPreparedListener;
 import android.widget.MediaController.MediaPlayerControl;
 
+import com.mypodcasts.episodes.EpisodeCheckpoint;
 import com.mypodcasts.episodes.EpisodeFile;
+import com.mypodcasts.episodes.storage.EpisodeStorage;
 import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.support.StreamCacheProxy;
 
 import java.io.IOException;
 
@@ -14,30 +18,47 @@ import javax.inject.Inject;
 import de.greenrobot.event.EventBus;
 
 import static android.media.AudioManager.STREAM_MUSIC;
+import static com.google.common.base.Strings.isNullOrEmpty;
 
-public class AudioPlayer implements MediaPlayerControl, OnPreparedListener {
+public class AudioPlayer implements MediaPlayerControl, OnPreparedListener, OnCompletionListener {
 
   private final MediaPlayer mediaPlayer;
   private final EventBus eventBus;
   private final EpisodeFile episodeFile;
+  private final StreamCacheProxy streamCacheProxy;
+  private final EpisodeStorage episodeStorage;
+  private final EpisodeCheckpoint episodeCheckpoint;
+
+  private Episode episode;
 
   @Inject
-  public AudioPlayer(MediaPlayer mediaPlayer, EventBus eventBus, EpisodeFile episodeFile) {
+  public AudioPlayer(MediaPlayer mediaPlayer, EventBus eventBus, EpisodeFile episodeFile,
+                     StreamCacheProxy streamCacheProxy, EpisodeStorage episodeStorage,
+                     EpisodeCheckpoint episodeCheckpoint) {
     this.mediaPlayer = mediaPlayer;
     this.eventBus = eventBus;
     this.episodeFile = episodeFile;
+    this.streamCacheProxy = streamCacheProxy;
+    this.episodeStorage = episodeStorage;
+    this.episodeCheckpoint = episodeCheckpoint;
   }
 
   public MediaPlayer play(Episode episode) throws IOException {
+    this.episode = episode;
+    episodeStorage.markPlaying(episode);
+
     mediaPlayer.setAudioStreamType(STREAM_MUSIC);
-    mediaPlayer.setDataSource(episodeFile.getAudioFilePath(episode));
+    mediaPlayer.setDataSource(getDataSource(episode));
     mediaPlayer.setOnPreparedListener(this);
+    mediaPlayer.setOnCompletionListener(this);
 
     mediaPlayer.prepareAsync();
     return mediaPlayer;
   }
 
   public void release() {
+    if (episode != null) { episodeStorage.clearPlaying(episode); }
+
     mediaPlayer.reset();
     mediaPlayer.release();
   }
@@ -103,4 +124,16 @@ public class AudioPlayer implements MediaPlayerControl, OnPreparedListener {
 
     eventBus.post(new AudioPlayingEvent(this));
   }
+
+  @Override
+  public void onCompletion(MediaPlayer mediaPlayer) {
+    if (episode != null) { episodeCheckpoint.markFinished(episode); }
+  }
+
+  private String getDataSource(Episode episode) throws IOException {
+    String audioFilePath = episodeFile.getAudioFilePath(episode);
+    if (isNullOrEmpty(audioFilePath) || !audioFilePath.equals(episode.getAudioUrl())) { return audioFilePath; }
+
+    return streamCacheProxy.proxy(audioFilePath);
+  }
 }
@@ -4,13 +4,16 @@ import android.app.ProgressDialog;
 import android.content.Intent;
 import android.os.Bundle;
 import android.support.v7.widget.Toolbar;
+import android.text.Spanned;
 import android.util.Log;
 import android.view.MenuItem;
 import android.view.MotionEvent;
 import android.widget.TextView;
 
 import com.mypodcasts.R;
+import com.mypodcasts.episodes.DescriptionRenderer;
 import com.mypodcasts.episodes.EpisodeCheckpoint;
+import com.mypodcasts.episodes.EpisodeRegistry;
 import com.mypodcasts.repositories.models.Episode;
 
 import javax.inject.Inject;
@@ -21,7 +24,6 @@ import roboguice.activity.RoboActionBarActivity;
 import roboguice.inject.ContentView;
 import roboguice.inject.InjectView;
 
-import static android.text.Html.fromHtml;
 import static java.lang.String.format;
 
 @ContentView(R.layout.audio_player)
@@ -43,6 +45,12 @@ public class AudioPlayerActivity extends RoboActionBarActivity {
   @Inject
   private EpisodeCheckpoint episodeCheckpoint;
 
+  @Inject
+  private EpisodeRegistry episodeRegistry;
+
+  @Inject
+  private DescriptionRenderer descriptionRenderer;
+
   @InjectView(R.id.episode_description)
   private TextView episodeDescription;
 
@@ -117,7 +125,7 @@ public class AudioPlayerActivity extends RoboActionBarActivity {
 
   private void setPlayerCurrentPosition(Integer newPosition) {
     playerCurrentPosition = newPosition;
-    episodeCheckpoint.markCheckpoint(episode, audioPlayer.getCurrentPosition());
+    episodeCheckpoint.markCheckpoint(episode, audioPlayer.getCurrentPosition(), audioPlayer.getDuration());
   }
 
   private void dismissProgressDialog() {
@@ -126,7 +134,7 @@ public class AudioPlayerActivity extends RoboActionBarActivity {
     }
   }
 
-  private class PlayAudioAsyncTask extends RetryableAsyncTask<Void, Void, Episode> {
+  private class PlayAudioAsyncTask extends RetryableAsyncTask<Void, Void, Spanned> {
     public PlayAudioAsyncTask() {
       super(AudioPlayerActivity.this);
     }
@@ -137,19 +145,23 @@ public class AudioPlayerActivity extends RoboActionBarActivity {
     }
 
     @Override
-    protected Episode doInBackground(Void... params) {
-      return playAudio();
+    protected Spanned doInBackground(Void... params) {
+      Episode episode = playAudio();
+      if (episode == null) { return null; }
+
+      return descriptionRenderer.render(episode);
     }
 
     @Override
-    protected void onPostExecute(Episode episode) {
-      if (episode == null) { return; }
+    protected void onPostExecute(Spanned description) {
+      if (description == null) { return; }
 
-      episodeDescription.setText(fromHtml(episode.getDescription()));
+      episodeDescription.setText(description);
     }
 
     private void showProgressDialog() {
-      String episodeTitle = getEpisode() == null ? "" : getEpisode().getTitle();
+      Episode registeredEpisode = episodeRegistry.getEpisode(getEpisodeId());
+      String episodeTitle = registeredEpisode == null ? "" : registeredEpisode.getTitle();
 
       progressDialog.show();
       progressDialog.setMessage(
@@ -164,7 +176,9 @@ public class AudioPlayerActivity extends RoboActionBarActivity {
       );
 
       Episode episode = getEpisode();
-      intent.putExtra(Episode.class.toString(), episode);
+      if (episode == null) { return null; }
+
+      intent.putExtra(Episode.class.toString(), episodeRegistry.putEpisode(episode));
 
       Log.i("[mypodcasts]", "playing episode: " + episode);
 
@@ -176,10 +190,14 @@ public class AudioPlayerActivity extends RoboActionBarActivity {
 
     private Episode getEpisode() {
       if (episode == null) {
-        episode = (Episode) getIntent().getSerializableExtra(Episode.class.toString());
+        episode = episodeRegistry.loadEpisode(getEpisodeId());
       }
 
       return episode;
     }
+
+    private String getEpisodeId() {
+      return getIntent().getStringExtra(Episode.class.toString());
+    }
   }
 }
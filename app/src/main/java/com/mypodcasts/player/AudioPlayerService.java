@@ -9,6 +9,7 @@ import android.os.AsyncTask;
 import android.os.IBinder;
 
 import com.mypodcasts.R;
+import com.mypodcasts.episodes.EpisodeRegistry;
 import com.mypodcasts.repositories.models.Episode;
 
 import java.io.IOException;
@@ -30,6 +31,9 @@ public class AudioPlayerService extends RoboService {
   @Inject
   private Notification.Builder notificationBuilder;
 
+  @Inject
+  private EpisodeRegistry episodeRegistry;
+
   @Override
   public IBinder onBind(Intent intent) {
     return null;
@@ -37,10 +41,10 @@ public class AudioPlayerService extends RoboService {
 
   @Override
   public int onStartCommand(Intent intent, int flags, int startId) {
-    final Episode episode = (Episode) intent.getSerializableExtra(Episode.class.toString());
+    String episodeId = intent.getStringExtra(Episode.class.toString());
     startForeground(ONGOING_NOTIFICATION_ID, buildNotification());
 
-    new Player(episode).execute();
+    new Player(episodeId).execute();
 
     return START_NOT_STICKY;
   }
@@ -77,14 +81,17 @@ public class AudioPlayerService extends RoboService {
   }
 
   class Player extends AsyncTask<Void, Void, MediaPlayer> {
-    private final Episode episode;
+    private final String episodeId;
 
-    Player(Episode episode) {
-      this.episode = episode;
+    Player(String episodeId) {
+      this.episodeId = episodeId;
     }
 
     @Override
     protected MediaPlayer doInBackground(Void... params) {
+      Episode episode = episodeRegistry.loadEpisode(episodeId);
+      if (episode == null) { return null; }
+
       try {
         return audioPlayer.play(episode);
       } catch (IOException e) {
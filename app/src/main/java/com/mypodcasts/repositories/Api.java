@@ -5,16 +5,32 @@ import com.mypodcasts.repositories.models.Feed;
 
 import java.util.List;
 
+import retrofit.client.Response;
 import retrofit.http.GET;
 import retrofit.http.Path;
+import retrofit.http.Query;
+import retrofit.http.Streaming;
 
 public interface Api {
+  int PAGE_SIZE = 20;
+
   @GET("/api/user/johndoe/latest_episodes")
-  List<Episode> getLatestEpisodes();
+  List<Episode> getLatestEpisodes(@Query("cursor") String cursor, @Query("limit") int limit);
 
   @GET("/api/user/johndoe/feeds")
   List<Feed> getUserFeeds();
 
   @GET("/api/user/johndoe/feeds/{id}/episodes")
-  Feed getFeed(@Path("id") String id);
+  Feed getFeed(@Path("id") String id, @Query("cursor") String cursor, @Query("limit") int limit);
+
+  @GET("/api/user/johndoe/feeds/{id}/episodes")
+  Feed getFeedSince(@Path("id") String id, @Query("since") String since);
+
+  @Streaming
+  @GET("/api/user/johndoe/latest_episodes")
+  Response streamLatestEpisodes(@Query("cursor") String cursor, @Query("limit") int limit);
+
+  @Streaming
+  @GET("/api/user/johndoe/feeds/{id}/episodes")
+  Response streamFeed(@Path("id") String id, @Query("cursor") String cursor, @Query("limit") int limit);
 }
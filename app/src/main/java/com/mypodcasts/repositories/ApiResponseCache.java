@@ -0,0 +1,226 @@
+package com.mypodcasts.repositories;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.io.Files;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import javax.inject.Inject;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.hash.Hashing.md5;
+
+public class ApiResponseCache {
+  private static final String DIRECTORY = "api_responses";
+  private static final String ETAG = "etag";
+  private static final String LAST_MODIFIED = "lastModified";
+  private static final int MAX_PARSED_RESPONSES = 32;
+  private static final int MAX_STORED_RESPONSES = 64;
+  private static final Pattern UNCACHEABLE_QUERY = Pattern.compile("[?&](cursor|since)=");
+
+  private final File directory;
+  private final Cache<String, Object> parsedResponses = CacheBuilder.newBuilder()
+      .maximumSize(MAX_PARSED_RESPONSES)
+      .build();
+
+  @Inject
+  public ApiResponseCache(Context context) {
+    this(new File(context.getCacheDir(), DIRECTORY));
+  }
+
+  public ApiResponseCache(File directory) {
+    this.directory = directory;
+  }
+
+  public boolean isCacheable(String url) {
+    return !UNCACHEABLE_QUERY.matcher(url).find();
+  }
+
+  public CachedResponse get(String url) {
+    if (!isCacheable(url)) { return null; }
+
+    File metadataFile = metadataFile(url);
+    File bodyFile = bodyFile(url);
+    if (!metadataFile.exists() || !bodyFile.exists()) { return null; }
+
+    try {
+      Properties metadata = new Properties();
+      InputStream inputStream = new FileInputStream(metadataFile);
+      try {
+        metadata.load(inputStream);
+      } finally {
+        inputStream.close();
+      }
+      bodyFile.setLastModified(System.currentTimeMillis());
+
+      return new CachedResponse(
+          metadata.getProperty(ETAG),
+          metadata.getProperty(LAST_MODIFIED),
+          Files.toByteArray(bodyFile)
+      );
+    } catch (IOException e) {
+      Log.w("[mypodcasts]", "Could not read cached response of " + url, e);
+      return null;
+    }
+  }
+
+  public void put(String url, String etag, String lastModified, byte[] body) {
+    Editor editor = edit(url, etag, lastModified);
+    if (editor == null) { return; }
+
+    try {
+      editor.write(body, 0, body.length);
+      editor.commit();
+    } catch (IOException e) {
+      Log.w("[mypodcasts]", "Could not cache response of " + url, e);
+      editor.abort();
+    }
+  }
+
+  public Editor edit(String url, String etag, String lastModified) {
+    if (!isCacheable(url)) { return null; }
+
+    directory.mkdirs();
+    try {
+      return new Editor(url, etag, lastModified);
+    } catch (IOException e) {
+      Log.w("[mypodcasts]", "Could not cache response of " + url, e);
+      return null;
+    }
+  }
+
+  public Object getParsed(String bodyKey) {
+    return parsedResponses.getIfPresent(bodyKey);
+  }
+
+  public void putParsed(String bodyKey, Object parsed) {
+    parsedResponses.put(bodyKey, parsed);
+  }
+
+  private synchronized void trim() {
+    File[] bodyFiles = directory.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File directory, String name) {
+        return name.endsWith(".body");
+      }
+    });
+    if (bodyFiles == null || bodyFiles.length <= MAX_STORED_RESPONSES) { return; }
+
+    Arrays.sort(bodyFiles, new Comparator<File>() {
+      @Override
+      public int compare(File file, File anotherFile) {
+        long modified = file.lastModified();
+        long anotherModified = anotherFile.lastModified();
+
+        return anotherModified < modified ? -1 : (anotherModified == modified ? 0 : 1);
+      }
+    });
+
+    for (int i = MAX_STORED_RESPONSES; i < bodyFiles.length; i++) {
+      String key = bodyFiles[i].getName().substring(0, bodyFiles[i].getName().length() - ".body".length());
+      bodyFiles[i].delete();
+      new File(directory, key + ".meta").delete();
+    }
+  }
+
+  private File bodyFile(String url) {
+    return new File(directory, key(url) + ".body");
+  }
+
+  private File metadataFile(String url) {
+    return new File(directory, key(url) + ".meta");
+  }
+
+  private String key(String url) {
+    return md5().hashString(url, UTF_8).toString();
+  }
+
+  public class Editor {
+    private final String url;
+    private final String etag;
+    private final String lastModified;
+    private final File partialBodyFile;
+    private final OutputStream outputStream;
+
+    private Editor(String url, String etag, String lastModified) throws IOException {
+      this.url = url;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.partialBodyFile = File.createTempFile(key(url), ".part", directory);
+      this.outputStream = new BufferedOutputStream(new FileOutputStream(partialBodyFile));
+    }
+
+    public void write(byte[] buffer, int offset, int count) throws IOException {
+      outputStream.write(buffer, offset, count);
+    }
+
+    public void commit() throws IOException {
+      outputStream.close();
+
+      Properties metadata = new Properties();
+      if (etag != null) { metadata.setProperty(ETAG, etag); }
+      if (lastModified != null) { metadata.setProperty(LAST_MODIFIED, lastModified); }
+
+      metadataFile(url).delete();
+      if (!partialBodyFile.renameTo(bodyFile(url))) {
+        throw new IOException("Could not move " + partialBodyFile + " into place");
+      }
+
+      OutputStream metadataStream = new FileOutputStream(metadataFile(url));
+      try {
+        metadata.store(metadataStream, url);
+      } finally {
+        metadataStream.close();
+      }
+
+      trim();
+    }
+
+    public void abort() {
+      try {
+        outputStream.close();
+      } catch (IOException ignored) {
+      }
+      partialBodyFile.delete();
+    }
+  }
+
+  public static class CachedResponse {
+    private final String etag;
+    private final String lastModified;
+    private final byte[] body;
+
+    public CachedResponse(String etag, String lastModified, byte[] body) {
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.body = body;
+    }
+
+    public String getEtag() {
+      return etag;
+    }
+
+    public String getLastModified() {
+      return lastModified;
+    }
+
+    public byte[] getBody() {
+      return body;
+    }
+  }
+}
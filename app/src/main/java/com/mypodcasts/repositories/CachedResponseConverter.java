@@ -0,0 +1,76 @@
+package com.mypodcasts.repositories;
+
+import com.google.common.io.ByteStreams;
+import com.mypodcasts.repositories.models.Feed;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import retrofit.converter.ConversionException;
+import retrofit.converter.Converter;
+import retrofit.mime.TypedByteArray;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+import static com.google.common.hash.Hashing.md5;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Reuses the result parsed from an identical body, which is what a 304 answered from
+ * {@link ConditionalRequestClient} turns into. Results are shared between callers, so they are handed out
+ * as read-only views. Streamed endpoints return the raw response and never reach a converter: they
+ * save the transfer on a 304 but are parsed again every time.
+ */
+public class CachedResponseConverter implements Converter {
+  private final Converter converter;
+  private final ApiResponseCache apiResponseCache;
+
+  public CachedResponseConverter(Converter converter, ApiResponseCache apiResponseCache) {
+    this.converter = converter;
+    this.apiResponseCache = apiResponseCache;
+  }
+
+  @Override
+  public Object fromBody(TypedInput body, Type type) throws ConversionException {
+    byte[] bytes = readBody(body);
+    String bodyKey = md5().hashBytes(bytes).toString() + "#" + type;
+
+    Object parsed = apiResponseCache.getParsed(bodyKey);
+    if (parsed == null) {
+      parsed = converter.fromBody(new TypedByteArray(body.mimeType(), bytes), type);
+      apiResponseCache.putParsed(bodyKey, parsed);
+    }
+
+    return readOnly(parsed);
+  }
+
+  @Override
+  public TypedOutput toBody(Object object) {
+    return converter.toBody(object);
+  }
+
+  private Object readOnly(Object parsed) {
+    if (parsed instanceof List) { return unmodifiableList((List<?>) parsed); }
+    if (parsed instanceof Feed) {
+      Feed feed = (Feed) parsed;
+      return feed.withEpisodes(feed.getEpisodes() == null ? null : unmodifiableList(feed.getEpisodes()));
+    }
+
+    return parsed;
+  }
+
+  private byte[] readBody(TypedInput body) throws ConversionException {
+    try {
+      InputStream inputStream = body.in();
+      try {
+        return ByteStreams.toByteArray(inputStream);
+      } finally {
+        inputStream.close();
+      }
+    } catch (IOException e) {
+      throw new ConversionException(e);
+    }
+  }
+}
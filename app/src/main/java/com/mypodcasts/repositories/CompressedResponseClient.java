@@ -0,0 +1,139 @@
+package com.mypodcasts.repositories;
+
+import com.google.common.io.CountingInputStream;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+
+public class CompressedResponseClient implements Client {
+  private static final String GZIP = "gzip";
+
+  private final Client client;
+  private final PayloadStats payloadStats;
+
+  public CompressedResponseClient(Client client, PayloadStats payloadStats) {
+    this.client = client;
+    this.payloadStats = payloadStats;
+  }
+
+  @Override
+  public Response execute(Request request) throws IOException {
+    Response response = client.execute(withAcceptEncoding(request));
+    if (response.getBody() == null) { return response; }
+
+    boolean gzipped = GZIP.equalsIgnoreCase(header(response.getHeaders(), "Content-Encoding"));
+
+    return new Response(
+        response.getUrl(), response.getStatus(), response.getReason(),
+        gzipped ? withoutEncodingHeaders(response.getHeaders()) : response.getHeaders(),
+        new DecodingTypedInput(response.getBody(), gzipped, endpoint(request.getUrl()))
+    );
+  }
+
+  private Request withAcceptEncoding(Request request) {
+    if (header(request.getHeaders(), "Accept-Encoding") != null) { return request; }
+
+    List<Header> headers = new ArrayList<>(request.getHeaders());
+    headers.add(new Header("Accept-Encoding", GZIP));
+
+    return new Request(request.getMethod(), request.getUrl(), headers, request.getBody());
+  }
+
+  private List<Header> withoutEncodingHeaders(List<Header> headers) {
+    List<Header> decodedHeaders = new ArrayList<>();
+    for (Header header : headers) {
+      if ("Content-Encoding".equalsIgnoreCase(header.getName())) { continue; }
+      if ("Content-Length".equalsIgnoreCase(header.getName())) { continue; }
+
+      decodedHeaders.add(header);
+    }
+
+    return decodedHeaders;
+  }
+
+  private String header(List<Header> headers, String name) {
+    for (Header header : headers) {
+      if (name.equalsIgnoreCase(header.getName())) { return header.getValue(); }
+    }
+
+    return null;
+  }
+
+  private String endpoint(String url) {
+    return URI.create(url).getPath();
+  }
+
+  private class DecodingTypedInput implements TypedInput {
+    private final TypedInput body;
+    private final boolean gzipped;
+    private final String endpoint;
+
+    public DecodingTypedInput(TypedInput body, boolean gzipped, String endpoint) {
+      this.body = body;
+      this.gzipped = gzipped;
+      this.endpoint = endpoint;
+    }
+
+    @Override
+    public String mimeType() {
+      return body.mimeType();
+    }
+
+    @Override
+    public long length() {
+      return gzipped ? -1 : body.length();
+    }
+
+    @Override
+    public InputStream in() throws IOException {
+      final CountingInputStream transferred = new CountingInputStream(body.in());
+      final CountingInputStream decoded = new CountingInputStream(
+          gzipped ? new GZIPInputStream(transferred) : transferred
+      );
+
+      return new FilterInputStream(decoded) {
+        private boolean recorded;
+
+        @Override
+        public int read() throws IOException {
+          int b = super.read();
+          if (b == -1) { record(); }
+
+          return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+          int read = super.read(buffer, offset, count);
+          if (read == -1) { record(); }
+
+          return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+          record();
+          super.close();
+        }
+
+        private void record() {
+          if (recorded) { return; }
+
+          recorded = true;
+          payloadStats.record(endpoint, transferred.getCount(), decoded.getCount());
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.mypodcasts.repositories;
+
+import android.util.Log;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+import retrofit.mime.TypedInput;
+
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_OK;
+
+public class ConditionalRequestClient implements Client {
+  private static final String JSON = "application/json; charset=UTF-8";
+  private static final int DRAIN_BUFFER_SIZE = 8 * 1024;
+
+  private final Client client;
+  private final ApiResponseCache apiResponseCache;
+
+  public ConditionalRequestClient(Client client, ApiResponseCache apiResponseCache) {
+    this.client = client;
+    this.apiResponseCache = apiResponseCache;
+  }
+
+  @Override
+  public Response execute(Request request) throws IOException {
+    String url = request.getUrl();
+    if (!"GET".equals(request.getMethod()) || !apiResponseCache.isCacheable(url)) {
+      return client.execute(request);
+    }
+
+    ApiResponseCache.CachedResponse cachedResponse = apiResponseCache.get(url);
+
+    Response response = client.execute(withValidators(request, cachedResponse));
+
+    if (response.getStatus() == HTTP_NOT_MODIFIED && cachedResponse != null) {
+      return new Response(
+          url, HTTP_OK, response.getReason(), response.getHeaders(),
+          new TypedByteArray(JSON, cachedResponse.getBody())
+      );
+    }
+
+    String etag = header(response, "ETag");
+    String lastModified = header(response, "Last-Modified");
+
+    if (response.getStatus() == HTTP_OK && response.getBody() != null
+        && (etag != null || lastModified != null)) {
+      return new Response(
+          url, response.getStatus(), response.getReason(), response.getHeaders(),
+          new CachingTypedInput(response.getBody(), url, etag, lastModified)
+      );
+    }
+
+    return response;
+  }
+
+  private Request withValidators(Request request, ApiResponseCache.CachedResponse cachedResponse) {
+    if (cachedResponse == null) { return request; }
+
+    List<Header> headers = new ArrayList<>(request.getHeaders());
+    if (cachedResponse.getEtag() != null) {
+      headers.add(new Header("If-None-Match", cachedResponse.getEtag()));
+    }
+    if (cachedResponse.getLastModified() != null) {
+      headers.add(new Header("If-Modified-Since", cachedResponse.getLastModified()));
+    }
+
+    return new Request(request.getMethod(), request.getUrl(), headers, request.getBody());
+  }
+
+  private String header(Response response, String name) {
+    for (Header header : response.getHeaders()) {
+      if (name.equalsIgnoreCase(header.getName())) { return header.getValue(); }
+    }
+
+    return null;
+  }
+
+  private class CachingTypedInput implements TypedInput {
+    private final TypedInput body;
+    private final String url;
+    private final String etag;
+    private final String lastModified;
+
+    public CachingTypedInput(TypedInput body, String url, String etag, String lastModified) {
+      this.body = body;
+      this.url = url;
+      this.etag = etag;
+      this.lastModified = lastModified;
+    }
+
+    @Override
+    public String mimeType() {
+      return body.mimeType();
+    }
+
+    @Override
+    public long length() {
+      return body.length();
+    }
+
+    @Override
+    public InputStream in() throws IOException {
+      return new FilterInputStream(body.in()) {
+        private ApiResponseCache.Editor editor = apiResponseCache.edit(url, etag, lastModified);
+
+        @Override
+        public int read() throws IOException {
+          byte[] buffer = new byte[1];
+          int read = read(buffer, 0, 1);
+
+          return read == -1 ? -1 : buffer[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+          int read = super.read(buffer, offset, count);
+
+          if (read == -1) {
+            commit();
+          } else {
+            writeThrough(buffer, offset, read);
+          }
+
+          return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+          try {
+            byte[] buffer = new byte[DRAIN_BUFFER_SIZE];
+            while (editor != null && read(buffer, 0, buffer.length) != -1) {
+              // Keep reading so a body the caller stopped short of still gets cached.
+            }
+          } finally {
+            if (editor != null) { editor.abort(); }
+            super.close();
+          }
+        }
+
+        private void writeThrough(byte[] buffer, int offset, int count) {
+          if (editor == null) { return; }
+
+          try {
+            editor.write(buffer, offset, count);
+          } catch (IOException e) {
+            Log.w("[mypodcasts]", "Could not cache response of " + url, e);
+            editor.abort();
+            editor = null;
+          }
+        }
+
+        private void commit() {
+          if (editor == null) { return; }
+
+          try {
+            editor.commit();
+          } catch (IOException e) {
+            Log.w("[mypodcasts]", "Could not cache response of " + url, e);
+            editor.abort();
+          }
+          editor = null;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.mypodcasts.repositories;
+
+import com.mypodcasts.repositories.models.Episode;
+
+import java.io.File;
+
+public class DownloadedEpisode {
+  private final Episode episode;
+  private final File file;
+  private final long bytes;
+  private final long downloadedAt;
+
+  public DownloadedEpisode(Episode episode, File file, long bytes, long downloadedAt) {
+    this.episode = episode;
+    this.file = file;
+    this.bytes = bytes;
+    this.downloadedAt = downloadedAt;
+  }
+
+  public Episode getEpisode() {
+    return episode;
+  }
+
+  public String getAudioUrl() {
+    return episode.getAudioUrl();
+  }
+
+  public String getPodcastId() {
+    if (episode == null || episode.getPodcast() == null) { return null; }
+
+    return episode.getPodcast().getId();
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  public long getBytes() {
+    return bytes;
+  }
+
+  public long getDownloadedAt() {
+    return downloadedAt;
+  }
+}
@@ -0,0 +1,9 @@
+package com.mypodcasts.repositories;
+
+import com.mypodcasts.repositories.models.Episode;
+
+import java.util.List;
+
+public interface EpisodeBatchListener {
+  void onEpisodes(List<Episode> episodes);
+}
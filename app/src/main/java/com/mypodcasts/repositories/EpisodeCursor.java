@@ -0,0 +1,16 @@
+package com.mypodcasts.repositories;
+
+import com.mypodcasts.repositories.models.Episode;
+
+import java.util.Date;
+
+import static org.joda.time.format.ISODateTimeFormat.dateTime;
+
+public class EpisodeCursor {
+  public static String of(Episode episode) {
+    Date publishedDate = episode.getPublishedDate();
+    if (publishedDate == null) { return null; }
+
+    return dateTime().withZoneUTC().print(publishedDate.getTime());
+  }
+}
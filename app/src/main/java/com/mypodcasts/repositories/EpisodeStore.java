@@ -0,0 +1,452 @@
+package com.mypodcasts.repositories;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.google.gson.Gson;
+import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.repositories.models.Feed;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_REPLACE;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.emptyList;
+
+public class EpisodeStore {
+  private static final String FEEDS = "feeds";
+  private static final String LATEST_EPISODES = "latest_episodes";
+
+  private final EpisodeStoreHelper episodeStoreHelper;
+  private final Gson gson = new Gson();
+
+  @Inject
+  public EpisodeStore(Context context) {
+    this.episodeStoreHelper = new EpisodeStoreHelper(context.getApplicationContext());
+  }
+
+  public List<Feed> getFeeds() {
+    SQLiteDatabase db = episodeStoreHelper.getReadableDatabase();
+    if (!isSynced(db, FEEDS)) { return null; }
+
+    List<Feed> feeds = new ArrayList<>();
+    for (String json : readFeedsJson(db)) {
+      feeds.add(gson.fromJson(json, Feed.class));
+    }
+
+    return feeds;
+  }
+
+  public boolean saveFeeds(List<Feed> feeds) {
+    List<String> rows = new ArrayList<>();
+    for (Feed feed : feeds) {
+      rows.add(gson.toJson(feed.withEpisodes(null)));
+    }
+
+    SQLiteDatabase db = episodeStoreHelper.getWritableDatabase();
+    db.beginTransaction();
+    try {
+      boolean changed = !rows.equals(readFeedsJson(db));
+
+      db.execSQL("UPDATE feeds SET position = NULL");
+      for (int position = 0; position < feeds.size(); position++) {
+        ContentValues values = new ContentValues();
+        values.put("position", position);
+        values.put("json", rows.get(position));
+
+        upsertFeed(db, feeds.get(position).getId(), values);
+      }
+      markSynced(db, FEEDS);
+
+      db.setTransactionSuccessful();
+      return changed;
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  public Feed getFeed(String id) {
+    SQLiteDatabase db = episodeStoreHelper.getReadableDatabase();
+    if (!isSynced(db, feedKey(id))) { return null; }
+
+    String json = readFeedJson(db, id);
+    if (json == null) { return null; }
+
+    return gson.fromJson(json, Feed.class).withEpisodes(readEpisodes(db, feedKey(id)));
+  }
+
+  public boolean saveFeed(Feed feed) {
+    String json = gson.toJson(feed.withEpisodes(null));
+
+    SQLiteDatabase db = episodeStoreHelper.getWritableDatabase();
+    db.beginTransaction();
+    try {
+      boolean changed = !json.equals(readFeedJson(db, feed.getId()));
+
+      ContentValues values = new ContentValues();
+      values.put("json", json);
+      upsertFeed(db, feed.getId(), values);
+
+      changed |= replaceEpisodes(db, feedKey(feed.getId()), feed.getEpisodes());
+      saveDescriptions(db, feed.getEpisodes());
+      markSynced(db, feedKey(feed.getId()), newestCursor(feed.getEpisodes(), null));
+
+      db.setTransactionSuccessful();
+      return changed;
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  public String getFeedWatermark(String id) {
+    SQLiteDatabase db = episodeStoreHelper.getReadableDatabase();
+    Cursor cursor = db.query(
+        "syncs", new String[]{"watermark"}, "list_key = ?", new String[]{feedKey(id)}, null, null, null
+    );
+
+    List<String> rows = readJson(cursor);
+    return rows.isEmpty() ? null : rows.get(0);
+  }
+
+  public long getFeedSyncedAt(String id) {
+    SQLiteDatabase db = episodeStoreHelper.getReadableDatabase();
+    Cursor cursor = db.query(
+        "syncs", new String[]{"synced_at"}, "list_key = ?", new String[]{feedKey(id)}, null, null, null
+    );
+
+    try {
+      return cursor.moveToFirst() ? cursor.getLong(0) : -1;
+    } finally {
+      cursor.close();
+    }
+  }
+
+  /**
+   * Prepends the episodes published since the feed's watermark. Episodes published at the watermark itself
+   * are included and de-duplicated by id, so siblings sharing that timestamp are not lost. The stored feed
+   * only ever holds its first page plus these deltas; older pages are fetched on demand and not stored.
+   */
+  public boolean mergeFeed(Feed feed) {
+    String watermark = getFeedWatermark(feed.getId());
+
+    List<Episode> episodes = feed.getEpisodes();
+    if (episodes == null) { episodes = emptyList(); }
+
+    String json = gson.toJson(feed.withEpisodes(null));
+
+    SQLiteDatabase db = episodeStoreHelper.getWritableDatabase();
+    db.beginTransaction();
+    try {
+      boolean changed = !json.equals(readFeedJson(db, feed.getId()));
+
+      ContentValues values = new ContentValues();
+      values.put("json", json);
+      upsertFeed(db, feed.getId(), values);
+
+      Set<String> storedIds = readEpisodeIds(db, feedKey(feed.getId()));
+      List<Episode> newEpisodes = new ArrayList<>();
+      for (Episode episode : episodes) {
+        String cursor = EpisodeCursor.of(episode);
+        if (cursor == null || (watermark != null && cursor.compareTo(watermark) < 0)) { continue; }
+
+        if (storedIds.add(episode.getId())) { newEpisodes.add(episode); }
+      }
+
+      changed |= prependEpisodes(db, feedKey(feed.getId()), newEpisodes);
+      saveDescriptions(db, episodes);
+      markSynced(db, feedKey(feed.getId()), newestCursor(newEpisodes, watermark));
+
+      db.setTransactionSuccessful();
+      return changed;
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  public List<Episode> getLatestEpisodes() {
+    SQLiteDatabase db = episodeStoreHelper.getReadableDatabase();
+    if (!isSynced(db, LATEST_EPISODES)) { return null; }
+
+    return readEpisodes(db, LATEST_EPISODES);
+  }
+
+  public boolean saveLatestEpisodes(List<Episode> episodes) {
+    SQLiteDatabase db = episodeStoreHelper.getWritableDatabase();
+    db.beginTransaction();
+    try {
+      boolean changed = replaceEpisodes(db, LATEST_EPISODES, episodes);
+      saveDescriptions(db, episodes);
+      markSynced(db, LATEST_EPISODES);
+
+      db.setTransactionSuccessful();
+      return changed;
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  public Episode getEpisode(String id) {
+    SQLiteDatabase db = episodeStoreHelper.getReadableDatabase();
+    Cursor cursor = db.query(
+        "episodes", new String[]{"json"}, "episode_id = ?", new String[]{id}, null, null, null, "1"
+    );
+
+    List<String> rows = readJson(cursor);
+    return rows.isEmpty() ? null : gson.fromJson(rows.get(0), Episode.class);
+  }
+
+  public String getDescription(String episodeId) {
+    SQLiteDatabase db = episodeStoreHelper.getReadableDatabase();
+    Cursor cursor = db.query(
+        "descriptions", new String[]{"html"}, "episode_id = ?", new String[]{episodeId}, null, null, null
+    );
+
+    List<String> rows = readJson(cursor);
+    return rows.isEmpty() ? null : rows.get(0);
+  }
+
+  public void saveDescriptions(List<Episode> episodes) {
+    SQLiteDatabase db = episodeStoreHelper.getWritableDatabase();
+    db.beginTransaction();
+    try {
+      saveDescriptions(db, episodes);
+
+      db.setTransactionSuccessful();
+    } finally {
+      db.endTransaction();
+    }
+  }
+
+  public List<DownloadedEpisode> getDownloadedEpisodes() {
+    SQLiteDatabase db = episodeStoreHelper.getReadableDatabase();
+    Cursor cursor = db.query(
+        "downloads", new String[]{"file_path", "bytes", "downloaded_at", "json"}, null, null, null, null, null
+    );
+
+    return readDownloadedEpisodes(cursor);
+  }
+
+  public DownloadedEpisode getDownloadedEpisode(String audioUrl) {
+    SQLiteDatabase db = episodeStoreHelper.getReadableDatabase();
+    Cursor cursor = db.query(
+        "downloads", new String[]{"file_path", "bytes", "downloaded_at", "json"},
+        "audio_url = ?", new String[]{audioUrl}, null, null, null, "1"
+    );
+
+    List<DownloadedEpisode> downloadedEpisodes = readDownloadedEpisodes(cursor);
+    return downloadedEpisodes.isEmpty() ? null : downloadedEpisodes.get(0);
+  }
+
+  public void saveDownloadedEpisode(DownloadedEpisode downloadedEpisode) {
+    ContentValues values = new ContentValues();
+    values.put("audio_url", downloadedEpisode.getAudioUrl());
+    values.put("file_path", downloadedEpisode.getFile().getAbsolutePath());
+    values.put("bytes", downloadedEpisode.getBytes());
+    values.put("downloaded_at", downloadedEpisode.getDownloadedAt());
+    values.put("json", gson.toJson(downloadedEpisode.getEpisode()));
+
+    episodeStoreHelper.getWritableDatabase().insertWithOnConflict("downloads", null, values, CONFLICT_REPLACE);
+  }
+
+  public void removeDownloadedEpisode(DownloadedEpisode downloadedEpisode) {
+    episodeStoreHelper.getWritableDatabase().delete(
+        "downloads", "audio_url = ?", new String[]{downloadedEpisode.getAudioUrl()}
+    );
+  }
+
+  private List<String> readFeedsJson(SQLiteDatabase db) {
+    Cursor cursor = db.query(
+        "feeds", new String[]{"json"}, "position IS NOT NULL", null, null, null, "position"
+    );
+
+    return readJson(cursor);
+  }
+
+  private List<DownloadedEpisode> readDownloadedEpisodes(Cursor cursor) {
+    List<DownloadedEpisode> downloadedEpisodes = new ArrayList<>();
+    try {
+      while (cursor.moveToNext()) {
+        downloadedEpisodes.add(new DownloadedEpisode(
+            gson.fromJson(cursor.getString(3), Episode.class),
+            new File(cursor.getString(0)),
+            cursor.getLong(1),
+            cursor.getLong(2)
+        ));
+      }
+    } finally {
+      cursor.close();
+    }
+
+    return downloadedEpisodes;
+  }
+
+  private String readFeedJson(SQLiteDatabase db, String id) {
+    List<String> rows = readJson(
+        db.query("feeds", new String[]{"json"}, "id = ?", new String[]{id}, null, null, null)
+    );
+
+    return rows.isEmpty() ? null : rows.get(0);
+  }
+
+  private void upsertFeed(SQLiteDatabase db, String id, ContentValues values) {
+    int updatedRows = db.update("feeds", values, "id = ?", new String[]{id});
+
+    if (updatedRows == 0) {
+      values.put("id", id);
+      db.insertOrThrow("feeds", null, values);
+    }
+  }
+
+  private List<Episode> readEpisodes(SQLiteDatabase db, String listKey) {
+    List<Episode> episodes = new ArrayList<>();
+    for (String json : readEpisodesJson(db, listKey)) {
+      episodes.add(gson.fromJson(json, Episode.class));
+    }
+
+    return episodes;
+  }
+
+  private List<String> readEpisodesJson(SQLiteDatabase db, String listKey) {
+    Cursor cursor = db.query(
+        "episodes", new String[]{"json"}, "list_key = ?", new String[]{listKey}, null, null, "position"
+    );
+
+    return readJson(cursor);
+  }
+
+  private Set<String> readEpisodeIds(SQLiteDatabase db, String listKey) {
+    Cursor cursor = db.query(
+        "episodes", new String[]{"episode_id"}, "list_key = ?", new String[]{listKey}, null, null, null
+    );
+
+    return new HashSet<>(readJson(cursor));
+  }
+
+  private boolean replaceEpisodes(SQLiteDatabase db, String listKey, List<Episode> episodes) {
+    if (episodes == null) { episodes = emptyList(); }
+
+    List<String> rows = new ArrayList<>();
+    for (Episode episode : episodes) {
+      rows.add(gson.toJson(episode));
+    }
+
+    if (rows.equals(readEpisodesJson(db, listKey))) { return false; }
+
+    db.delete("episodes", "list_key = ?", new String[]{listKey});
+    for (int position = 0; position < rows.size(); position++) {
+      ContentValues values = new ContentValues();
+      values.put("list_key", listKey);
+      values.put("position", position);
+      values.put("episode_id", episodes.get(position).getId());
+      values.put("json", rows.get(position));
+
+      db.insertOrThrow("episodes", null, values);
+    }
+
+    return true;
+  }
+
+  private boolean prependEpisodes(SQLiteDatabase db, String listKey, List<Episode> episodes) {
+    if (episodes.isEmpty()) { return false; }
+
+    Cursor cursor = db.rawQuery(
+        "SELECT MIN(position) FROM episodes WHERE list_key = ?", new String[]{listKey}
+    );
+    int firstPosition;
+    try {
+      firstPosition = cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getInt(0) : 0;
+    } finally {
+      cursor.close();
+    }
+
+    int position = firstPosition - episodes.size();
+    for (Episode episode : episodes) {
+      ContentValues values = new ContentValues();
+      values.put("list_key", listKey);
+      values.put("position", position++);
+      values.put("episode_id", episode.getId());
+      values.put("json", gson.toJson(episode));
+
+      db.insertOrThrow("episodes", null, values);
+    }
+
+    return true;
+  }
+
+  private void saveDescriptions(SQLiteDatabase db, List<Episode> episodes) {
+    if (episodes == null) { return; }
+
+    for (Episode episode : episodes) {
+      String html = episode.releaseDescription();
+      if (html == null) { continue; }
+
+      ContentValues values = new ContentValues();
+      values.put("episode_id", episode.getId());
+      values.put("html", html);
+
+      db.insertWithOnConflict("descriptions", null, values, CONFLICT_REPLACE);
+    }
+  }
+
+  private String newestCursor(List<Episode> episodes, String watermark) {
+    String newest = watermark;
+    if (episodes == null) { return newest; }
+
+    for (Episode episode : episodes) {
+      String cursor = EpisodeCursor.of(episode);
+      if (cursor != null && (newest == null || cursor.compareTo(newest) > 0)) { newest = cursor; }
+    }
+
+    return newest;
+  }
+
+  private boolean isSynced(SQLiteDatabase db, String listKey) {
+    Cursor cursor = db.query(
+        "syncs", new String[]{"synced_at"}, "list_key = ?", new String[]{listKey}, null, null, null
+    );
+
+    try {
+      return cursor.moveToFirst();
+    } finally {
+      cursor.close();
+    }
+  }
+
+  private void markSynced(SQLiteDatabase db, String listKey) {
+    markSynced(db, listKey, null);
+  }
+
+  private void markSynced(SQLiteDatabase db, String listKey, String watermark) {
+    ContentValues values = new ContentValues();
+    values.put("list_key", listKey);
+    values.put("synced_at", currentTimeMillis());
+    values.put("watermark", watermark);
+
+    db.insertWithOnConflict("syncs", null, values, CONFLICT_REPLACE);
+  }
+
+  private List<String> readJson(Cursor cursor) {
+    List<String> rows = new ArrayList<>();
+    try {
+      while (cursor.moveToNext()) {
+        rows.add(cursor.getString(0));
+      }
+    } finally {
+      cursor.close();
+    }
+
+    return rows;
+  }
+
+  private String feedKey(String id) {
+    return "feed/" + id;
+  }
+}
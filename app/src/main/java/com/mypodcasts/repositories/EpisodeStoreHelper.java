@@ -0,0 +1,68 @@
+package com.mypodcasts.repositories;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+public class EpisodeStoreHelper extends SQLiteOpenHelper {
+  private static final String DATABASE_NAME = "mypodcasts.db";
+  private static final int DATABASE_VERSION = 6;
+
+  public EpisodeStoreHelper(Context context) {
+    super(context, DATABASE_NAME, null, DATABASE_VERSION);
+  }
+
+  @Override
+  public void onCreate(SQLiteDatabase db) {
+    db.execSQL(
+        "CREATE TABLE feeds (" +
+            "id TEXT PRIMARY KEY, " +
+            "position INTEGER, " +
+            "json TEXT NOT NULL" +
+        ")"
+    );
+    db.execSQL(
+        "CREATE TABLE episodes (" +
+            "list_key TEXT NOT NULL, " +
+            "position INTEGER NOT NULL, " +
+            "episode_id TEXT NOT NULL, " +
+            "json TEXT NOT NULL, " +
+            "PRIMARY KEY (list_key, position)" +
+        ")"
+    );
+    db.execSQL("CREATE INDEX episodes_episode_id ON episodes (episode_id)");
+    db.execSQL(
+        "CREATE TABLE descriptions (" +
+            "episode_id TEXT PRIMARY KEY, " +
+            "html TEXT NOT NULL" +
+        ")"
+    );
+    db.execSQL(
+        "CREATE TABLE syncs (" +
+            "list_key TEXT PRIMARY KEY, " +
+            "synced_at INTEGER NOT NULL, " +
+            "watermark TEXT" +
+        ")"
+    );
+    db.execSQL(
+        "CREATE TABLE IF NOT EXISTS downloads (" +
+            "audio_url TEXT PRIMARY KEY, " +
+            "file_path TEXT NOT NULL, " +
+            "bytes INTEGER NOT NULL, " +
+            "downloaded_at INTEGER NOT NULL, " +
+            "json TEXT NOT NULL" +
+        ")"
+    );
+  }
+
+  @Override
+  public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+    db.execSQL("DROP TABLE IF EXISTS feeds");
+    db.execSQL("DROP TABLE IF EXISTS episodes");
+    db.execSQL("DROP TABLE IF EXISTS descriptions");
+    db.execSQL("DROP TABLE IF EXISTS syncs");
+    // downloads describe files on disk rather than cached responses, so they are kept
+
+    onCreate(db);
+  }
+}
@@ -0,0 +1,108 @@
+package com.mypodcasts.repositories;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.repositories.models.Feed;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit.RetrofitError;
+import retrofit.client.Response;
+
+import static com.google.gson.stream.JsonToken.BEGIN_ARRAY;
+import static java.util.Collections.emptyList;
+
+public class EpisodeStreamReader {
+  private static final int BATCH_SIZE = 10;
+
+  private final Gson gson = new Gson();
+  private final JsonParser jsonParser = new JsonParser();
+
+  public List<Episode> readEpisodes(Response response, EpisodeBatchListener listener) {
+    JsonReader reader = open(response);
+    try {
+      return readEpisodeArray(reader, listener);
+    } catch (IOException e) {
+      throw RetrofitError.networkError(response.getUrl(), e);
+    } catch (JsonParseException e) {
+      throw RetrofitError.unexpectedError(response.getUrl(), e);
+    } finally {
+      close(reader);
+    }
+  }
+
+  public Feed readFeed(Response response, EpisodeBatchListener listener) {
+    JsonReader reader = open(response);
+    try {
+      JsonObject feedJson = new JsonObject();
+      List<Episode> episodes = emptyList();
+
+      reader.beginObject();
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+
+        if ("episodes".equals(name) && reader.peek() == BEGIN_ARRAY) {
+          episodes = readEpisodeArray(reader, listener);
+        } else {
+          feedJson.add(name, jsonParser.parse(reader));
+        }
+      }
+      reader.endObject();
+
+      return gson.fromJson(feedJson, Feed.class).withEpisodes(episodes);
+    } catch (IOException e) {
+      throw RetrofitError.networkError(response.getUrl(), e);
+    } catch (JsonParseException e) {
+      throw RetrofitError.unexpectedError(response.getUrl(), e);
+    } finally {
+      close(reader);
+    }
+  }
+
+  private List<Episode> readEpisodeArray(JsonReader reader, EpisodeBatchListener listener) throws IOException {
+    List<Episode> episodes = new ArrayList<>();
+    List<Episode> batch = new ArrayList<>();
+
+    reader.beginArray();
+    while (reader.hasNext()) {
+      Episode episode = gson.fromJson(reader, Episode.class);
+      episodes.add(episode);
+      batch.add(episode);
+
+      if (batch.size() == BATCH_SIZE) {
+        publish(batch, listener);
+        batch = new ArrayList<>();
+      }
+    }
+    reader.endArray();
+    publish(batch, listener);
+
+    return episodes;
+  }
+
+  private void publish(List<Episode> batch, EpisodeBatchListener listener) {
+    if (listener != null && !batch.isEmpty()) { listener.onEpisodes(batch); }
+  }
+
+  private JsonReader open(Response response) {
+    try {
+      return new JsonReader(new InputStreamReader(response.getBody().in(), "UTF-8"));
+    } catch (IOException e) {
+      throw RetrofitError.networkError(response.getUrl(), e);
+    }
+  }
+
+  private void close(JsonReader reader) {
+    try {
+      reader.close();
+    } catch (IOException ignored) {
+    }
+  }
+}
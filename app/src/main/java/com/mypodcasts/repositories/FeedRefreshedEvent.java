@@ -0,0 +1,15 @@
+package com.mypodcasts.repositories;
+
+import com.mypodcasts.repositories.models.Feed;
+
+public class FeedRefreshedEvent {
+  private final Feed feed;
+
+  public FeedRefreshedEvent(Feed feed) {
+    this.feed = feed;
+  }
+
+  public Feed getFeed() {
+    return feed;
+  }
+}
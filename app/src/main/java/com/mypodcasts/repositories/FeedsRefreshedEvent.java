@@ -0,0 +1,17 @@
+package com.mypodcasts.repositories;
+
+import com.mypodcasts.repositories.models.Feed;
+
+import java.util.List;
+
+public class FeedsRefreshedEvent {
+  private final List<Feed> feeds;
+
+  public FeedsRefreshedEvent(List<Feed> feeds) {
+    this.feeds = feeds;
+  }
+
+  public List<Feed> getFeeds() {
+    return feeds;
+  }
+}
@@ -13,17 +13,23 @@ public class HttpClient {
   private final Resources resources;
   private final RestAdapter.Builder restAdapterBuilder;
 
+  private Api api;
+
   @Inject
   public HttpClient(Resources resources, RestAdapter.Builder restAdapterBuilder) {
     this.resources = resources;
     this.restAdapterBuilder = restAdapterBuilder;
   }
 
-  public Api getApi() {
-    String endPoint = resources.getString(R.string.base_url);
-    return restAdapterBuilder
-        .setEndpoint(endPoint)
-        .build()
-        .create(Api.class);
+  public synchronized Api getApi() {
+    if (api == null) {
+      String endPoint = resources.getString(R.string.base_url);
+      api = restAdapterBuilder
+          .setEndpoint(endPoint)
+          .build()
+          .create(Api.class);
+    }
+
+    return api;
   }
 }
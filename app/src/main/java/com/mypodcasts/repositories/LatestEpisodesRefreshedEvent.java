@@ -0,0 +1,17 @@
+package com.mypodcasts.repositories;
+
+import com.mypodcasts.repositories.models.Episode;
+
+import java.util.List;
+
+public class LatestEpisodesRefreshedEvent {
+  private final List<Episode> episodes;
+
+  public LatestEpisodesRefreshedEvent(List<Episode> episodes) {
+    this.episodes = episodes;
+  }
+
+  public List<Episode> getEpisodes() {
+    return episodes;
+  }
+}
@@ -0,0 +1,40 @@
+package com.mypodcasts.repositories;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class PayloadStats {
+  private final Map<String, long[]> bytesByEndpoint = new HashMap<>();
+
+  public synchronized void record(String endpoint, long compressedBytes, long decompressedBytes) {
+    long[] bytes = bytesByEndpoint.get(endpoint);
+    if (bytes == null) {
+      bytes = new long[2];
+      bytesByEndpoint.put(endpoint, bytes);
+    }
+
+    bytes[0] += compressedBytes;
+    bytes[1] += decompressedBytes;
+  }
+
+  public synchronized long getCompressedBytes(String endpoint) {
+    long[] bytes = bytesByEndpoint.get(endpoint);
+
+    return bytes == null ? 0 : bytes[0];
+  }
+
+  public synchronized long getDecompressedBytes(String endpoint) {
+    long[] bytes = bytesByEndpoint.get(endpoint);
+
+    return bytes == null ? 0 : bytes[1];
+  }
+
+  public synchronized long getSavedBytes() {
+    long savedBytes = 0;
+    for (long[] bytes : bytesByEndpoint.values()) {
+      savedBytes += bytes[1] - bytes[0];
+    }
+
+    return savedBytes;
+  }
+}
@@ -0,0 +1,62 @@
+package com.mypodcasts.repositories;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlight {
+  private final Map<String, FutureTask<?>> inFlightCalls = new HashMap<>();
+  private final AtomicInteger callCount = new AtomicInteger();
+  private final AtomicInteger coalescedCount = new AtomicInteger();
+
+  @SuppressWarnings("unchecked")
+  public <V> V execute(String key, Callable<V> call) {
+    FutureTask<V> task;
+    boolean leader = false;
+
+    synchronized (inFlightCalls) {
+      task = (FutureTask<V>) inFlightCalls.get(key);
+
+      if (task == null) {
+        task = new FutureTask<>(call);
+        inFlightCalls.put(key, task);
+        leader = true;
+      }
+    }
+
+    callCount.incrementAndGet();
+    if (!leader) { coalescedCount.incrementAndGet(); }
+
+    try {
+      if (leader) { task.run(); }
+
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+      if (cause instanceof Error) { throw (Error) cause; }
+
+      throw new RuntimeException(cause);
+    } finally {
+      if (leader) {
+        synchronized (inFlightCalls) {
+          inFlightCalls.remove(key);
+        }
+      }
+    }
+  }
+
+  public int getCallCount() {
+    return callCount.get();
+  }
+
+  public int getCoalescedCount() {
+    return coalescedCount.get();
+  }
+}
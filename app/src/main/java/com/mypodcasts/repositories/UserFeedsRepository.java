@@ -1,25 +1,175 @@
 package com.mypodcasts.repositories;
 
+import android.util.Log;
+
+import com.mypodcasts.repositories.models.Episode;
 import com.mypodcasts.repositories.models.Feed;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import javax.inject.Inject;
 
+import de.greenrobot.event.EventBus;
+import retrofit.RetrofitError;
+import retrofit.client.Response;
+
+import static com.mypodcasts.repositories.Api.PAGE_SIZE;
+import static java.util.Collections.emptyList;
+
 public class UserFeedsRepository {
 
   private final HttpClient httpClient;
+  private final EpisodeStore episodeStore;
+  private final Executor executor;
+  private final EventBus eventBus;
+  private final SingleFlight singleFlight;
+  private final EpisodeStreamReader episodeStreamReader = new EpisodeStreamReader();
 
   @Inject
-  public UserFeedsRepository(HttpClient httpClient) {
+  public UserFeedsRepository(HttpClient httpClient, EpisodeStore episodeStore,
+                             Executor executor, EventBus eventBus, SingleFlight singleFlight) {
     this.httpClient = httpClient;
+    this.episodeStore = episodeStore;
+    this.executor = executor;
+    this.eventBus = eventBus;
+    this.singleFlight = singleFlight;
   }
 
   public List<Feed> getFeeds() {
-    return httpClient.getApi().getUserFeeds();
+    List<Feed> storedFeeds = episodeStore.getFeeds();
+    if (storedFeeds == null) { return fetchFeeds(); }
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          List<Feed> feeds = requestFeeds();
+          if (episodeStore.saveFeeds(feeds)) { eventBus.post(new FeedsRefreshedEvent(feeds)); }
+        } catch (RetrofitError e) {
+          Log.w("[mypodcasts]", "Could not refresh user feeds", e);
+        }
+      }
+    });
+
+    return storedFeeds;
   }
 
   public Feed getFeed(String id) {
-    return httpClient.getApi().getFeed(id);
+    return getFeed(id, null);
+  }
+
+  public Feed getFeed(final String id, EpisodeBatchListener listener) {
+    Feed storedFeed = episodeStore.getFeed(id);
+    if (storedFeed == null) { return fetchFeed(id, listener); }
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          refreshFeed(id);
+        } catch (RetrofitError e) {
+          Log.w("[mypodcasts]", "Could not refresh feed " + id, e);
+        }
+      }
+    });
+
+    return storedFeed;
+  }
+
+  public List<Feed> syncFeeds() {
+    List<Feed> feeds = requestFeeds();
+    if (episodeStore.saveFeeds(feeds)) { eventBus.post(new FeedsRefreshedEvent(feeds)); }
+
+    return feeds;
+  }
+
+  public Feed syncFeed(String id) {
+    if (episodeStore.getFeed(id) == null) { return fetchFeed(id, null); }
+
+    refreshFeed(id);
+
+    return episodeStore.getFeed(id);
+  }
+
+  public long getFeedSyncedAt(String id) {
+    return episodeStore.getFeedSyncedAt(id);
+  }
+
+  public List<Episode> getFeedEpisodesAfter(final String id, Episode lastEpisode) {
+    final String cursor = EpisodeCursor.of(lastEpisode);
+    if (cursor == null) { return emptyList(); }
+
+    String key = "feed/" + id + "?cursor=" + cursor;
+    List<Episode> episodes = singleFlight.execute(key, new Callable<List<Episode>>() {
+      @Override
+      public List<Episode> call() {
+        return httpClient.getApi().getFeed(id, cursor, PAGE_SIZE).getEpisodes();
+      }
+    });
+    if (episodes == null) { return emptyList(); }
+    episodeStore.saveDescriptions(episodes);
+
+    return episodes;
+  }
+
+  private void refreshFeed(final String id) {
+    final String watermark = episodeStore.getFeedWatermark(id);
+
+    if (watermark == null) {
+      Feed feed = requestFeed(id, null);
+      if (episodeStore.saveFeed(feed)) { eventBus.post(new FeedRefreshedEvent(feed)); }
+      return;
+    }
+
+    String key = "feed/" + id + "?since=" + watermark;
+    Feed newEpisodes = singleFlight.execute(key, new Callable<Feed>() {
+      @Override
+      public Feed call() {
+        return httpClient.getApi().getFeedSince(id, watermark);
+      }
+    });
+    if (episodeStore.mergeFeed(newEpisodes)) { eventBus.post(new FeedRefreshedEvent(episodeStore.getFeed(id))); }
+  }
+
+  private List<Feed> fetchFeeds() {
+    List<Feed> feeds = requestFeeds();
+    episodeStore.saveFeeds(feeds);
+
+    return feeds;
+  }
+
+  private Feed fetchFeed(String id, EpisodeBatchListener listener) {
+    Feed feed = requestFeed(id, listener);
+    episodeStore.saveFeed(feed);
+
+    return feed;
+  }
+
+  private List<Feed> requestFeeds() {
+    return singleFlight.execute("feeds", new Callable<List<Feed>>() {
+      @Override
+      public List<Feed> call() {
+        return httpClient.getApi().getUserFeeds();
+      }
+    });
+  }
+
+  private Feed requestFeed(final String id, final EpisodeBatchListener listener) {
+    if (listener != null) { return streamFeed(id, listener); }
+
+    return singleFlight.execute("feed/" + id, new Callable<Feed>() {
+      @Override
+      public Feed call() {
+        return streamFeed(id, null);
+      }
+    });
+  }
+
+  private Feed streamFeed(String id, EpisodeBatchListener listener) {
+    Response response = httpClient.getApi().streamFeed(id, null, PAGE_SIZE);
+
+    return episodeStreamReader.readFeed(response, listener);
   }
-}
\ No newline at end of file
+}
@@ -1,21 +1,104 @@
 package com.mypodcasts.repositories;
 
+import android.util.Log;
+
 import com.mypodcasts.repositories.models.Episode;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import javax.inject.Inject;
 
+import de.greenrobot.event.EventBus;
+import retrofit.RetrofitError;
+import retrofit.client.Response;
+
+import static com.mypodcasts.repositories.Api.PAGE_SIZE;
+import static java.util.Collections.emptyList;
+
 public class UserLatestEpisodesRepository {
+  private static final String LATEST_EPISODES = "latest_episodes";
 
   private final HttpClient httpClient;
+  private final EpisodeStore episodeStore;
+  private final Executor executor;
+  private final EventBus eventBus;
+  private final SingleFlight singleFlight;
+  private final EpisodeStreamReader episodeStreamReader = new EpisodeStreamReader();
 
   @Inject
-  public UserLatestEpisodesRepository(HttpClient httpClient) {
+  public UserLatestEpisodesRepository(HttpClient httpClient, EpisodeStore episodeStore,
+                                      Executor executor, EventBus eventBus,
+                                      SingleFlight singleFlight) {
     this.httpClient = httpClient;
+    this.episodeStore = episodeStore;
+    this.executor = executor;
+    this.eventBus = eventBus;
+    this.singleFlight = singleFlight;
   }
 
   public List<Episode> getLatestEpisodes() {
-    return httpClient.getApi().getLatestEpisodes();
+    return getLatestEpisodes(null);
+  }
+
+  public List<Episode> getLatestEpisodes(EpisodeBatchListener listener) {
+    List<Episode> storedEpisodes = episodeStore.getLatestEpisodes();
+    if (storedEpisodes == null) { return fetchLatestEpisodes(listener); }
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          List<Episode> episodes = singleFlight.execute(LATEST_EPISODES, new Callable<List<Episode>>() {
+            @Override
+            public List<Episode> call() {
+              return httpClient.getApi().getLatestEpisodes(null, PAGE_SIZE);
+            }
+          });
+          if (episodeStore.saveLatestEpisodes(episodes)) {
+            eventBus.post(new LatestEpisodesRefreshedEvent(episodes));
+          }
+        } catch (RetrofitError e) {
+          Log.w("[mypodcasts]", "Could not refresh latest episodes", e);
+        }
+      }
+    });
+
+    return storedEpisodes;
+  }
+
+  public List<Episode> getLatestEpisodesAfter(Episode lastEpisode) {
+    final String cursor = EpisodeCursor.of(lastEpisode);
+    if (cursor == null) { return emptyList(); }
+
+    List<Episode> episodes = singleFlight.execute(LATEST_EPISODES + "?cursor=" + cursor, new Callable<List<Episode>>() {
+      @Override
+      public List<Episode> call() {
+        return httpClient.getApi().getLatestEpisodes(cursor, PAGE_SIZE);
+      }
+    });
+    episodeStore.saveDescriptions(episodes);
+
+    return episodes;
+  }
+
+  private List<Episode> fetchLatestEpisodes(EpisodeBatchListener listener) {
+    List<Episode> episodes = listener != null ? streamLatestEpisodes(listener) :
+        singleFlight.execute(LATEST_EPISODES, new Callable<List<Episode>>() {
+          @Override
+          public List<Episode> call() {
+            return streamLatestEpisodes(null);
+          }
+        });
+    episodeStore.saveLatestEpisodes(episodes);
+
+    return episodes;
+  }
+
+  private List<Episode> streamLatestEpisodes(EpisodeBatchListener listener) {
+    Response response = httpClient.getApi().streamLatestEpisodes(null, PAGE_SIZE);
+
+    return episodeStreamReader.readEpisodes(response, listener);
   }
 }
@@ -1,12 +1,34 @@
 package com.mypodcasts.repositories.models;
 
-import java.io.Serializable;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+public class Audio implements Parcelable {
+  public static final Creator<Audio> CREATOR = new Creator<Audio>() {
+    @Override
+    public Audio createFromParcel(Parcel in) {
+      return new Audio(in);
+    }
+
+    @Override
+    public Audio[] newArray(int size) {
+      return new Audio[size];
+    }
+  };
 
-public class Audio implements Serializable {
   private String url;
   private String length;
   private String type;
 
+  public Audio() {
+  }
+
+  protected Audio(Parcel in) {
+    url = in.readString();
+    length = in.readString();
+    type = in.readString();
+  }
+
   public String getUrl() {
     return url;
   }
@@ -18,4 +40,16 @@ public class Audio implements Serializable {
   public String getType() {
     return type;
   }
-}
\ No newline at end of file
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+
+  @Override
+  public void writeToParcel(Parcel out, int flags) {
+    out.writeString(url);
+    out.writeString(length);
+    out.writeString(type);
+  }
+}
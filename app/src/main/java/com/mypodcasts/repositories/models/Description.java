@@ -0,0 +1,82 @@
+package com.mypodcasts.repositories.models;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class Description {
+  private static final int SUMMARY_LENGTH = 200;
+
+  private static final Pattern TAG = Pattern.compile("<[^>]*>");
+  private static final Pattern NUMERIC_ENTITY = Pattern.compile("&#(x?)([0-9a-fA-F]+);");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final String summary;
+  private String html;
+
+  private Description(String summary, String html) {
+    this.summary = summary;
+    this.html = html;
+  }
+
+  static Description of(String html) {
+    if (html == null) { return null; }
+
+    return new Description(summarize(html), html);
+  }
+
+  static Description ofSummary(String summary) {
+    if (summary == null) { return null; }
+
+    return new Description(summary, null);
+  }
+
+  synchronized String releaseHtml() {
+    String releasedHtml = html;
+    html = null;
+
+    return releasedHtml;
+  }
+
+  String getSummary() {
+    return summary;
+  }
+
+  static String summarize(String html) {
+    String text = TAG.matcher(html).replaceAll(" ");
+    text = decodeEntities(text);
+    text = WHITESPACE.matcher(text).replaceAll(" ").trim();
+
+    if (text.length() <= SUMMARY_LENGTH) { return text; }
+
+    int end = text.lastIndexOf(' ', SUMMARY_LENGTH);
+    if (end <= 0) { end = SUMMARY_LENGTH; }
+
+    return text.substring(0, end) + "…";
+  }
+
+  private static String decodeEntities(String text) {
+    if (text.indexOf('&') < 0) { return text; }
+
+    Matcher matcher = NUMERIC_ENTITY.matcher(text);
+    StringBuffer decoded = new StringBuffer();
+    while (matcher.find()) {
+      int radix = matcher.group(1).isEmpty() ? 10 : 16;
+      String character;
+      try {
+        character = new String(Character.toChars(Integer.parseInt(matcher.group(2), radix)));
+      } catch (IllegalArgumentException e) {
+        character = matcher.group();
+      }
+      matcher.appendReplacement(decoded, Matcher.quoteReplacement(character));
+    }
+    matcher.appendTail(decoded);
+
+    return decoded.toString()
+        .replace("&nbsp;", " ")
+        .replace("&lt;", "<")
+        .replace("&gt;", ">")
+        .replace("&quot;", "\"")
+        .replace("&apos;", "'")
+        .replace("&amp;", "&");
+  }
+}
@@ -0,0 +1,47 @@
+package com.mypodcasts.repositories.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+class DescriptionAdapter extends TypeAdapter<Description> {
+  private static final String SUMMARY = "summary";
+
+  @Override
+  public void write(JsonWriter out, Description description) throws IOException {
+    if (description == null) {
+      out.nullValue();
+      return;
+    }
+
+    out.beginObject();
+    out.name(SUMMARY).value(description.getSummary());
+    out.endObject();
+  }
+
+  @Override
+  public Description read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    if (in.peek() == JsonToken.STRING) { return Description.of(in.nextString()); }
+
+    String summary = null;
+    in.beginObject();
+    while (in.hasNext()) {
+      if (SUMMARY.equals(in.nextName())) {
+        summary = in.nextString();
+      } else {
+        in.skipValue();
+      }
+    }
+    in.endObject();
+
+    return Description.ofSummary(summary);
+  }
+}
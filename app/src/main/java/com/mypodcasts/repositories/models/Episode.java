@@ -1,21 +1,54 @@
 package com.mypodcasts.repositories.models;
 
-import java.io.Serializable;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+
 import java.util.Date;
 
+import static com.mypodcasts.repositories.models.Parcels.readNullable;
+import static com.mypodcasts.repositories.models.Parcels.writeNullable;
 import static java.lang.String.format;
-import static org.joda.time.format.ISODateTimeFormat.dateTimeParser;
 
-public class Episode implements Serializable {
+public class Episode implements Parcelable {
+  public static final Creator<Episode> CREATOR = new Creator<Episode>() {
+    @Override
+    public Episode createFromParcel(Parcel in) {
+      return new Episode(in);
+    }
+
+    @Override
+    public Episode[] newArray(int size) {
+      return new Episode[size];
+    }
+  };
 
   private String title;
-  private String publishedDate;
-  private String description;
+  @SerializedName("publishedDate")
+  @JsonAdapter(PublishedDateAdapter.class)
+  private Long publishedTime;
+  @JsonAdapter(DescriptionAdapter.class)
+  private Description description;
   private String duration;
   private Audio audio;
   private Podcast podcast;
   private Image image;
 
+  public Episode() {
+  }
+
+  protected Episode(Parcel in) {
+    title = in.readString();
+    publishedTime = (Long) in.readValue(null);
+    description = Description.ofSummary(in.readString());
+    duration = in.readString();
+    audio = readNullable(in, Audio.CREATOR);
+    podcast = readNullable(in, Podcast.CREATOR);
+    image = readNullable(in, Image.CREATOR);
+  }
+
   public Image getImage() {
     return image;
   }
@@ -25,13 +58,21 @@ public class Episode implements Serializable {
   }
 
   public Date getPublishedDate() {
-    if (publishedDate == null) { return null; }
+    if (publishedTime == null) { return null; }
 
-    return dateTimeParser().parseDateTime(publishedDate).toDate();
+    return new Date(publishedTime);
   }
 
-  public String getDescription() {
-    return description == null ? "" : description;
+  public String getSummary() {
+    return description == null ? "" : description.getSummary();
+  }
+
+  /**
+   * Hands the full HTML description over once, so that only {@link com.mypodcasts.repositories.EpisodeStore}
+   * keeps it and episode lists are left with the summary.
+   */
+  public String releaseDescription() {
+    return description == null ? null : description.releaseHtml();
   }
 
   public String getDuration() {
@@ -44,6 +85,12 @@ public class Episode implements Serializable {
     return podcast;
   }
 
+  public String getId() {
+    if (!getAudioUrl().isEmpty()) { return getAudioUrl(); }
+
+    return getPodcast().getId() + "/" + getTitle() + "@" + publishedTime;
+  }
+
   public String getAudioFilePath() {
     return getPodcast().getId() + "/" + getTitle() + ".mp3";
   }
@@ -87,4 +134,20 @@ public class Episode implements Serializable {
       return "0";
     }
   }
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+
+  @Override
+  public void writeToParcel(Parcel out, int flags) {
+    out.writeString(title);
+    out.writeValue(publishedTime);
+    out.writeString(description == null ? null : description.getSummary());
+    out.writeString(duration);
+    writeNullable(out, audio, flags);
+    writeNullable(out, podcast, flags);
+    writeNullable(out, image, flags);
+  }
 }
@@ -1,14 +1,45 @@
 package com.mypodcasts.repositories.models;
 
-import java.io.Serializable;
+import android.os.Parcel;
+import android.os.Parcelable;
+
 import java.util.List;
 
-public class Feed implements Serializable {
+import static com.mypodcasts.repositories.models.Parcels.readNullable;
+import static com.mypodcasts.repositories.models.Parcels.writeNullable;
+
+public class Feed implements Parcelable {
+  public static final Creator<Feed> CREATOR = new Creator<Feed>() {
+    @Override
+    public Feed createFromParcel(Parcel in) {
+      return new Feed(in);
+    }
+
+    @Override
+    public Feed[] newArray(int size) {
+      return new Feed[size];
+    }
+  };
+
   private String id;
   private String title;
   private Image image;
   private List<Episode> episodes;
 
+  public Feed() {
+  }
+
+  public Feed(String id) {
+    this.id = id;
+  }
+
+  protected Feed(Parcel in) {
+    id = in.readString();
+    title = in.readString();
+    image = readNullable(in, Image.CREATOR);
+    episodes = in.createTypedArrayList(Episode.CREATOR);
+  }
+
   public String getId() {
     return id;
   }
@@ -25,4 +56,26 @@ public class Feed implements Serializable {
     return episodes;
   }
 
+  public Feed withEpisodes(List<Episode> episodes) {
+    Feed feed = new Feed();
+    feed.id = getId();
+    feed.title = getTitle();
+    feed.image = getImage();
+    feed.episodes = episodes;
+
+    return feed;
+  }
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+
+  @Override
+  public void writeToParcel(Parcel out, int flags) {
+    out.writeString(id);
+    out.writeString(title);
+    writeNullable(out, image, flags);
+    out.writeTypedList(episodes);
+  }
 }
@@ -1,11 +1,41 @@
 package com.mypodcasts.repositories.models;
 
-import java.io.Serializable;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+public class Image implements Parcelable {
+  public static final Creator<Image> CREATOR = new Creator<Image>() {
+    @Override
+    public Image createFromParcel(Parcel in) {
+      return new Image(in);
+    }
+
+    @Override
+    public Image[] newArray(int size) {
+      return new Image[size];
+    }
+  };
 
-public class Image implements Serializable {
   private String url;
 
+  public Image() {
+  }
+
+  protected Image(Parcel in) {
+    url = in.readString();
+  }
+
   public String getUrl() {
     return url;
   }
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+
+  @Override
+  public void writeToParcel(Parcel out, int flags) {
+    out.writeString(url);
+  }
 }
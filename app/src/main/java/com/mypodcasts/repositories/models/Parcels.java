@@ -0,0 +1,22 @@
+package com.mypodcasts.repositories.models;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+class Parcels {
+  static void writeNullable(Parcel out, Parcelable value, int flags) {
+    if (value == null) {
+      out.writeByte((byte) 0);
+      return;
+    }
+
+    out.writeByte((byte) 1);
+    value.writeToParcel(out, flags);
+  }
+
+  static <T> T readNullable(Parcel in, Parcelable.Creator<T> creator) {
+    if (in.readByte() == 0) { return null; }
+
+    return creator.createFromParcel(in);
+  }
+}
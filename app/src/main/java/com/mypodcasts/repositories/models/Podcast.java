@@ -1,12 +1,37 @@
 package com.mypodcasts.repositories.models;
 
-import java.io.Serializable;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import static com.mypodcasts.repositories.models.Parcels.readNullable;
+import static com.mypodcasts.repositories.models.Parcels.writeNullable;
+
+public class Podcast implements Parcelable {
+  public static final Creator<Podcast> CREATOR = new Creator<Podcast>() {
+    @Override
+    public Podcast createFromParcel(Parcel in) {
+      return new Podcast(in);
+    }
+
+    @Override
+    public Podcast[] newArray(int size) {
+      return new Podcast[size];
+    }
+  };
 
-public class Podcast implements Serializable {
   private String id;
   private String title;
   private Image image;
 
+  public Podcast() {
+  }
+
+  protected Podcast(Parcel in) {
+    id = in.readString();
+    title = in.readString();
+    image = readNullable(in, Image.CREATOR);
+  }
+
   public String getId() {
     return id;
   }
@@ -18,4 +43,16 @@ public class Podcast implements Serializable {
   public Image getImage() {
     return image;
   }
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+
+  @Override
+  public void writeToParcel(Parcel out, int flags) {
+    out.writeString(id);
+    out.writeString(title);
+    writeNullable(out, image, flags);
+  }
 }
@@ -0,0 +1,41 @@
+package com.mypodcasts.repositories.models;
+
+import android.util.Log;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import static org.joda.time.format.ISODateTimeFormat.dateTime;
+import static org.joda.time.format.ISODateTimeFormat.dateTimeParser;
+
+class PublishedDateAdapter extends TypeAdapter<Long> {
+  @Override
+  public void write(JsonWriter out, Long publishedTime) throws IOException {
+    if (publishedTime == null) {
+      out.nullValue();
+      return;
+    }
+
+    out.value(dateTime().withZoneUTC().print(publishedTime));
+  }
+
+  @Override
+  public Long read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    String publishedDate = in.nextString();
+    try {
+      return dateTimeParser().parseMillis(publishedDate);
+    } catch (IllegalArgumentException e) {
+      Log.w("[mypodcasts]", "Ignoring invalid published date: " + publishedDate);
+      return null;
+    }
+  }
+}
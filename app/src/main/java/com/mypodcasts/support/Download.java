@@ -0,0 +1,228 @@
+package com.mypodcasts.support;
+
+import com.squareup.okhttp.Call;
+
+import java.io.File;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Download implements Runnable, Comparable<Download> {
+  public static final int PRIORITY_LOW = 0;
+  public static final int PRIORITY_NORMAL = 1;
+  public static final int PRIORITY_HIGH = 2;
+
+  private final DownloadEngine downloadEngine;
+  private final String key;
+  private final String url;
+  private final File file;
+  private final int maxSegments;
+  private final long expectedBytes;
+  private final long sequence;
+
+  private final AtomicLong downloadedBytes = new AtomicLong();
+  private final List<Call> calls = new CopyOnWriteArrayList<>();
+  private volatile int priority;
+  private volatile long totalBytes = -1;
+  private volatile boolean successful;
+  private volatile List<Segment> segments;
+  private volatile boolean singleStream;
+  private volatile boolean streaming;
+  private volatile String expectedChecksum;
+  private volatile String checksum;
+  private volatile boolean cancelled;
+
+  Download(DownloadEngine downloadEngine, String key, String url, File file,
+           int priority, int maxSegments, long expectedBytes, long sequence) {
+    this.downloadEngine = downloadEngine;
+    this.key = key;
+    this.url = url;
+    this.file = file;
+    this.priority = priority;
+    this.maxSegments = maxSegments;
+    this.expectedBytes = expectedBytes;
+    this.sequence = sequence;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  public File getPartialFile() {
+    return new File(file.getPath() + ".part");
+  }
+
+  public int getPriority() {
+    return priority;
+  }
+
+  public int getMaxSegments() {
+    return maxSegments;
+  }
+
+  public long getDownloadedBytes() {
+    return downloadedBytes.get();
+  }
+
+  public long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public long getExpectedBytes() {
+    return expectedBytes;
+  }
+
+  public String getExpectedChecksum() {
+    return expectedChecksum;
+  }
+
+  public String getChecksum() {
+    return checksum;
+  }
+
+  public boolean isSuccessful() {
+    return successful;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  void setPriority(int priority) {
+    this.priority = priority;
+  }
+
+  void setDownloadedBytes(long downloadedBytes) {
+    this.downloadedBytes.set(downloadedBytes);
+  }
+
+  void addDownloadedBytes(long bytes) {
+    downloadedBytes.addAndGet(bytes);
+  }
+
+  void setTotalBytes(long totalBytes) {
+    this.totalBytes = totalBytes;
+  }
+
+  void setExpectedChecksum(String expectedChecksum) {
+    this.expectedChecksum = expectedChecksum;
+  }
+
+  void setChecksum(String checksum) {
+    this.checksum = checksum;
+  }
+
+  void setSuccessful(boolean successful) {
+    this.successful = successful;
+  }
+
+  List<Segment> getSegments() {
+    return segments;
+  }
+
+  void setSegments(List<Segment> segments) {
+    this.segments = segments;
+  }
+
+  void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+  }
+
+  TreeMap<Long, Long> getDownloadedRanges() {
+    TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    List<Segment> segments = this.segments;
+    if (segments != null) {
+      for (Segment segment : segments) {
+        if (segment.getPosition() > segment.getStart()) { ranges.put(segment.getStart(), segment.getPosition()); }
+      }
+    } else if (streaming) {
+      ranges.put(0L, downloadedBytes.get());
+    }
+
+    return ranges;
+  }
+
+  boolean needsSegmentPlan() {
+    return maxSegments > 1 && !singleStream && segments == null;
+  }
+
+  void fallBackToSingleStream() {
+    singleStream = true;
+    segments = null;
+  }
+
+  void track(Call call) {
+    calls.add(call);
+    if (cancelled) { call.cancel(); }
+  }
+
+  void clearCalls() {
+    calls.clear();
+  }
+
+  void cancelCalls() {
+    for (Call call : calls) {
+      call.cancel();
+    }
+  }
+
+  void cancel() {
+    cancelled = true;
+    cancelCalls();
+  }
+
+  @Override
+  public void run() {
+    downloadEngine.transfer(this);
+  }
+
+  @Override
+  public int compareTo(Download other) {
+    if (priority != other.priority) { return priority > other.priority ? -1 : 1; }
+    if (sequence != other.sequence) { return sequence < other.sequence ? -1 : 1; }
+
+    return 0;
+  }
+
+  static class Segment {
+    private final long start;
+    private final long end;
+    private volatile long position;
+
+    Segment(long start, long end) {
+      this.start = start;
+      this.position = start;
+      this.end = end;
+    }
+
+    long getStart() {
+      return start;
+    }
+
+    long getPosition() {
+      return position;
+    }
+
+    long getEnd() {
+      return end;
+    }
+
+    boolean isComplete() {
+      return position > end;
+    }
+
+    void advance(long bytes) {
+      position += bytes;
+    }
+  }
+}
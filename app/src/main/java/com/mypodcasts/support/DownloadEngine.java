@@ -0,0 +1,417 @@
+package com.mypodcasts.support;
+
+import android.util.Log;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+
+import de.greenrobot.event.EventBus;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class DownloadEngine {
+  private static final int MAX_CONCURRENT_DOWNLOADS = 2;
+  private static final int MAX_SEGMENTS = 4;
+  private static final int MAX_ATTEMPTS = 5;
+  private static final long RETRY_DELAY_IN_MILLIS = 2000;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final long MIN_SEGMENT_BYTES = 8 * 1024 * 1024;
+
+  private final OkHttpClient okHttpClient;
+  private final ExternalPublicFileLookup externalPublicFileLookup;
+  private final EventBus eventBus;
+  private final long retryDelayInMillis;
+  private final long minSegmentBytes;
+
+  private final ThreadPoolExecutor executor;
+  private final ThreadPoolExecutor segmentExecutor;
+  private final DownloadVerifier downloadVerifier = new DownloadVerifier();
+  private final Map<String, Download> inFlightDownloads = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+
+  @Inject
+  public DownloadEngine(OkHttpClient okHttpClient, ExternalPublicFileLookup externalPublicFileLookup,
+                        EventBus eventBus) {
+    this(
+        okHttpClient, externalPublicFileLookup, eventBus,
+        MAX_CONCURRENT_DOWNLOADS, RETRY_DELAY_IN_MILLIS, MIN_SEGMENT_BYTES
+    );
+  }
+
+  public DownloadEngine(OkHttpClient okHttpClient, ExternalPublicFileLookup externalPublicFileLookup,
+                        EventBus eventBus, int maxConcurrentDownloads, long retryDelayInMillis,
+                        long minSegmentBytes) {
+    this.okHttpClient = okHttpClient;
+    this.externalPublicFileLookup = externalPublicFileLookup;
+    this.eventBus = eventBus;
+    this.retryDelayInMillis = retryDelayInMillis;
+    this.minSegmentBytes = minSegmentBytes;
+
+    this.executor = new ThreadPoolExecutor(
+        maxConcurrentDownloads, maxConcurrentDownloads, 30, SECONDS, new PriorityBlockingQueue<Runnable>()
+    );
+    this.executor.allowCoreThreadTimeOut(true);
+
+    int maxSegmentTransfers = maxConcurrentDownloads * MAX_SEGMENTS;
+    this.segmentExecutor = new ThreadPoolExecutor(
+        maxSegmentTransfers, maxSegmentTransfers, 30, SECONDS, new LinkedBlockingQueue<Runnable>()
+    );
+    this.segmentExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  public Download enqueue(String key, String url, File file, int priority) {
+    return enqueue(key, url, file, priority, 1);
+  }
+
+  public Download enqueue(String key, String url, File file, int priority, int maxSegments) {
+    return enqueue(key, url, file, priority, maxSegments, -1);
+  }
+
+  public synchronized Download enqueue(String key, String url, File file, int priority, int maxSegments,
+                                       long expectedBytes) {
+    Download download = inFlightDownloads.get(key);
+    if (download != null) {
+      if (priority > download.getPriority() && executor.remove(download)) {
+        download.setPriority(priority);
+        executor.execute(download);
+      }
+
+      return download;
+    }
+
+    download = new Download(this, key, url, file, priority, maxSegments, expectedBytes, sequence.incrementAndGet());
+    inFlightDownloads.put(key, download);
+    executor.execute(download);
+
+    return download;
+  }
+
+  public Download getDownload(String key) {
+    return inFlightDownloads.get(key);
+  }
+
+  public Collection<Download> getDownloads() {
+    return new ArrayList<>(inFlightDownloads.values());
+  }
+
+  public boolean isDownloading(String key) {
+    return inFlightDownloads.containsKey(key);
+  }
+
+  public synchronized void cancel(String key) {
+    Download download = inFlightDownloads.get(key);
+    if (download == null) { return; }
+
+    download.cancel();
+    if (executor.remove(download)) { finish(download, false); }
+  }
+
+  void transfer(Download download) {
+    boolean successful = false;
+    try {
+      for (int attempt = 1; attempt <= MAX_ATTEMPTS && !download.isCancelled(); attempt++) {
+        try {
+          download.clearCalls();
+          if (download.needsSegmentPlan()) { planSegments(download); }
+
+          if (download.getSegments() == null) {
+            resume(download);
+          } else {
+            resumeSegments(download);
+          }
+
+          if (!downloadVerifier.verify(download, download.getPartialFile())) {
+            Log.w("[mypodcasts]", "Quarantined " + downloadVerifier.quarantine(download.getPartialFile()));
+            break;
+          }
+          complete(download);
+          successful = true;
+          return;
+        } catch (HttpStatusException e) {
+          Log.w("[mypodcasts]", "Download rejected: " + download.getUrl(), e);
+          break;
+        } catch (IOException e) {
+          if (download.isCancelled()) { break; }
+
+          Log.w("[mypodcasts]", "Download interrupted (attempt " + attempt + "): " + download.getUrl(), e);
+          if (attempt < MAX_ATTEMPTS) { Thread.sleep(retryDelayInMillis * attempt); }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      Log.w("[mypodcasts]", "Download failed: " + download.getUrl(), e);
+    } finally {
+      finish(download, successful);
+    }
+  }
+
+  private void resume(Download download) throws IOException {
+    download.setStreaming(false);
+    File partialFile = download.getPartialFile();
+    long offset = partialFile.length();
+
+    Request.Builder request = new Request.Builder()
+        .url(download.getUrl())
+        .header("Accept-Encoding", "identity");
+    if (offset > 0) { request.header("Range", "bytes=" + offset + "-"); }
+
+    Call call = okHttpClient.newCall(request.build());
+    download.track(call);
+    Response response = call.execute();
+    try {
+      if (response.code() == 416 && offset > 0) {
+        partialFile.delete();
+        throw new IOException("Partial download is no longer valid: " + download.getUrl());
+      }
+      if (!response.isSuccessful()) { throw new HttpStatusException(response.code()); }
+
+      boolean append = offset > 0 && response.code() == 206
+          && String.valueOf(response.header("Content-Range")).startsWith("bytes " + offset + "-");
+      if (!append) { offset = 0; }
+
+      long contentLength = contentLength(response);
+      download.setTotalBytes(contentLength < 0 ? -1 : offset + contentLength);
+      if (!append) { download.setExpectedChecksum(downloadVerifier.expectedChecksum(response)); }
+      download.setDownloadedBytes(offset);
+      download.setStreaming(true);
+
+      createParentDirectory(partialFile);
+
+      InputStream in = response.body().byteStream();
+      OutputStream out = new FileOutputStream(partialFile, append);
+      try {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+          download.addDownloadedBytes(read);
+        }
+      } finally {
+        out.close();
+      }
+    } finally {
+      response.body().close();
+    }
+
+    if (download.getTotalBytes() >= 0 && partialFile.length() != download.getTotalBytes()) {
+      throw new IOException("Expected " + download.getTotalBytes() + " bytes, got " + partialFile.length());
+    }
+  }
+
+  private void planSegments(Download download) throws IOException {
+    Request request = new Request.Builder()
+        .url(download.getUrl())
+        .head()
+        .header("Accept-Encoding", "identity")
+        .build();
+
+    Call call = okHttpClient.newCall(request);
+    download.track(call);
+    Response response = call.execute();
+    response.body().close();
+
+    long contentLength = contentLength(response);
+    boolean acceptsRanges = "bytes".equalsIgnoreCase(response.header("Accept-Ranges"));
+    int segmentCount = (int) Math.min(download.getMaxSegments(), contentLength / minSegmentBytes);
+
+    if (!response.isSuccessful() || !acceptsRanges || segmentCount < 2) {
+      Log.i("[mypodcasts]", "Downloading as a single stream: " + download.getUrl());
+      download.fallBackToSingleStream();
+      return;
+    }
+
+    File partialFile = download.getPartialFile();
+    createParentDirectory(partialFile);
+    RandomAccessFile randomAccessFile = new RandomAccessFile(partialFile, "rw");
+    try {
+      randomAccessFile.setLength(contentLength);
+    } finally {
+      randomAccessFile.close();
+    }
+
+    long segmentLength = contentLength / segmentCount;
+    List<Download.Segment> segments = new ArrayList<>(segmentCount);
+    for (int i = 0; i < segmentCount; i++) {
+      long start = i * segmentLength;
+      long end = i == segmentCount - 1 ? contentLength - 1 : start + segmentLength - 1;
+      segments.add(new Download.Segment(start, end));
+    }
+
+    download.setTotalBytes(contentLength);
+    download.setExpectedChecksum(downloadVerifier.expectedChecksum(response));
+    download.setDownloadedBytes(0);
+    download.setSegments(segments);
+  }
+
+  private void resumeSegments(final Download download) throws IOException, InterruptedException {
+    List<Download.Segment> segments = download.getSegments();
+    final FileChannel channel = new RandomAccessFile(download.getPartialFile(), "rw").getChannel();
+    try {
+      List<Future<Void>> transfers = new ArrayList<>();
+      for (final Download.Segment segment : segments) {
+        if (segment.isComplete()) { continue; }
+
+        transfers.add(segmentExecutor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws IOException {
+            transferSegment(download, segment, channel);
+            return null;
+          }
+        }));
+      }
+
+      IOException failure = null;
+      for (Future<Void> transfer : transfers) {
+        try {
+          transfer.get();
+        } catch (ExecutionException e) {
+          if (failure == null) { failure = asIOException(e.getCause()); }
+        }
+      }
+      if (failure != null) { throw failure; }
+
+      channel.force(false);
+    } finally {
+      channel.close();
+
+      if (download.getSegments() == null) { keepFirstSegment(download, segments); }
+    }
+  }
+
+  private void keepFirstSegment(Download download, List<Download.Segment> segments) throws IOException {
+    long fetchedBytes = 0;
+    for (Download.Segment segment : segments) {
+      fetchedBytes += segment.getPosition() - segment.getStart();
+    }
+    long keptBytes = segments.get(0).getPosition();
+
+    Log.w("[mypodcasts]", "Fell back to a single stream, discarding " + (fetchedBytes - keptBytes)
+        + " of " + fetchedBytes + " bytes fetched by segments: " + download.getUrl());
+
+    RandomAccessFile randomAccessFile = new RandomAccessFile(download.getPartialFile(), "rw");
+    try {
+      randomAccessFile.setLength(keptBytes);
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  private void transferSegment(Download download, Download.Segment segment, FileChannel channel)
+      throws IOException {
+    Request request = new Request.Builder()
+        .url(download.getUrl())
+        .header("Accept-Encoding", "identity")
+        .header("Range", "bytes=" + segment.getPosition() + "-" + segment.getEnd())
+        .build();
+
+    Call call = okHttpClient.newCall(request);
+    download.track(call);
+    if (download.getSegments() == null) { throw new IOException("Download fell back to a single stream"); }
+
+    Response response = call.execute();
+    try {
+      String contentRange = String.valueOf(response.header("Content-Range"));
+      if (response.code() != 206 || !contentRange.startsWith("bytes " + segment.getPosition() + "-")) {
+        download.fallBackToSingleStream();
+        download.cancelCalls();
+        throw new IOException("Server stopped honouring ranges, restarting as a single stream");
+      }
+
+      InputStream in = response.body().byteStream();
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while (!segment.isComplete() && (read = in.read(buffer)) != -1) {
+        int length = (int) Math.min(read, segment.getEnd() - segment.getPosition() + 1);
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, length);
+        while (byteBuffer.hasRemaining()) {
+          channel.write(byteBuffer, segment.getPosition() + byteBuffer.position());
+        }
+
+        segment.advance(length);
+        download.addDownloadedBytes(length);
+      }
+    } finally {
+      response.body().close();
+    }
+
+    if (!segment.isComplete()) { throw new IOException("Segment ended early at " + segment.getPosition()); }
+  }
+
+  private void complete(Download download) throws IOException {
+    File partialFile = download.getPartialFile();
+
+    if (download.getFile().exists() && !download.getFile().delete()) {
+      throw new IOException("Could not replace " + download.getFile());
+    }
+    if (!partialFile.renameTo(download.getFile())) {
+      throw new IOException("Could not move " + partialFile + " to " + download.getFile());
+    }
+  }
+
+  private void finish(Download download, boolean successful) {
+    download.setSuccessful(successful);
+    if (successful) { externalPublicFileLookup.add(download.getFile()); }
+
+    synchronized (this) {
+      inFlightDownloads.remove(download.getKey());
+    }
+
+    eventBus.post(new DownloadFinishedEvent(download));
+  }
+
+  private long contentLength(Response response) throws IOException {
+    String contentLength = response.header("Content-Length");
+    if (contentLength == null) { return -1; }
+
+    try {
+      return Long.parseLong(contentLength);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private void createParentDirectory(File file) throws IOException {
+    File directory = file.getParentFile();
+    if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Could not create " + directory);
+    }
+  }
+
+  private IOException asIOException(Throwable cause) {
+    if (cause instanceof IOException) { return (IOException) cause; }
+
+    return new IOException(cause);
+  }
+
+  private static class HttpStatusException extends IOException {
+    HttpStatusException(int code) {
+      super("Unexpected HTTP status " + code);
+    }
+  }
+}
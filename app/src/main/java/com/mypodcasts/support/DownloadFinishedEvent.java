@@ -0,0 +1,13 @@
+package com.mypodcasts.support;
+
+public class DownloadFinishedEvent {
+  private final Download download;
+
+  public DownloadFinishedEvent(Download download) {
+    this.download = download;
+  }
+
+  public Download getDownload() {
+    return download;
+  }
+}
@@ -0,0 +1,31 @@
+package com.mypodcasts.support;
+
+public class DownloadProgress {
+  private final String key;
+  private final long downloadedBytes;
+  private final long totalBytes;
+
+  public DownloadProgress(String key, long downloadedBytes, long totalBytes) {
+    this.key = key;
+    this.downloadedBytes = downloadedBytes;
+    this.totalBytes = totalBytes;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public long getDownloadedBytes() {
+    return downloadedBytes;
+  }
+
+  public long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public int getPercent() {
+    if (totalBytes <= 0) { return -1; }
+
+    return (int) (downloadedBytes * 100 / totalBytes);
+  }
+}
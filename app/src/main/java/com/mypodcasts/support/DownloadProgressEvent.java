@@ -0,0 +1,19 @@
+package com.mypodcasts.support;
+
+import java.util.Map;
+
+public class DownloadProgressEvent {
+  private final Map<String, DownloadProgress> progressByKey;
+
+  public DownloadProgressEvent(Map<String, DownloadProgress> progressByKey) {
+    this.progressByKey = progressByKey;
+  }
+
+  public DownloadProgress getProgress(String key) {
+    return progressByKey.get(key);
+  }
+
+  public int size() {
+    return progressByKey.size();
+  }
+}
@@ -0,0 +1,82 @@
+package com.mypodcasts.support;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import javax.inject.Inject;
+
+import de.greenrobot.event.EventBus;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class DownloadProgressTracker {
+  private static final long SAMPLE_INTERVAL_IN_MILLIS = 500;
+
+  private final DownloadEngine downloadEngine;
+  private final EventBus eventBus;
+  private final long sampleIntervalInMillis;
+
+  private final ScheduledExecutorService scheduler = newSingleThreadScheduledExecutor();
+  private final Map<String, Long> reportedBytes = new HashMap<>();
+  private ScheduledFuture<?> sampling;
+
+  @Inject
+  public DownloadProgressTracker(DownloadEngine downloadEngine, EventBus eventBus) {
+    this(downloadEngine, eventBus, SAMPLE_INTERVAL_IN_MILLIS);
+  }
+
+  public DownloadProgressTracker(DownloadEngine downloadEngine, EventBus eventBus, long sampleIntervalInMillis) {
+    this.downloadEngine = downloadEngine;
+    this.eventBus = eventBus;
+    this.sampleIntervalInMillis = sampleIntervalInMillis;
+  }
+
+  public synchronized void track() {
+    if (sampling != null) { return; }
+
+    sampling = scheduler.scheduleAtFixedRate(new Runnable() {
+      @Override
+      public void run() {
+        sample();
+      }
+    }, sampleIntervalInMillis, sampleIntervalInMillis, MILLISECONDS);
+  }
+
+  public synchronized boolean isTracking() {
+    return sampling != null;
+  }
+
+  synchronized void sample() {
+    Collection<Download> downloads = downloadEngine.getDownloads();
+
+    Map<String, DownloadProgress> changedProgress = new HashMap<>();
+    Set<String> keys = new HashSet<>();
+    for (Download download : downloads) {
+      keys.add(download.getKey());
+
+      long downloadedBytes = download.getDownloadedBytes();
+      Long lastReportedBytes = reportedBytes.get(download.getKey());
+      if (lastReportedBytes != null && lastReportedBytes == downloadedBytes) { continue; }
+
+      reportedBytes.put(download.getKey(), downloadedBytes);
+      changedProgress.put(
+          download.getKey(),
+          new DownloadProgress(download.getKey(), downloadedBytes, download.getTotalBytes())
+      );
+    }
+    reportedBytes.keySet().retainAll(keys);
+
+    if (!changedProgress.isEmpty()) { eventBus.post(new DownloadProgressEvent(changedProgress)); }
+
+    if (downloads.isEmpty() && sampling != null) {
+      sampling.cancel(false);
+      sampling = null;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.mypodcasts.support;
+
+import android.util.Log;
+
+import com.squareup.okhttp.Response;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static com.google.common.io.BaseEncoding.base16;
+import static com.google.common.io.BaseEncoding.base64;
+
+public class DownloadVerifier {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  public boolean verify(Download download, File file) throws IOException {
+    long length = file.length();
+
+    if (download.getTotalBytes() >= 0) {
+      if (length != download.getTotalBytes()) {
+        Log.w("[mypodcasts]", "Server announced " + download.getTotalBytes() + " bytes, got " + length + ": " + file);
+        return false;
+      }
+    } else if (download.getExpectedBytes() > 0 && length < download.getExpectedBytes()) {
+      Log.w("[mypodcasts]", "Feed announced " + download.getExpectedBytes() + " bytes, got " + length + ": " + file);
+      return false;
+    }
+
+    if (download.getExpectedChecksum() == null) { return true; }
+
+    String checksum = checksum(file);
+    download.setChecksum(checksum);
+    if (!download.getExpectedChecksum().equals(checksum)) {
+      Log.w(
+          "[mypodcasts]",
+          "Server announced checksum " + download.getExpectedChecksum() + ", got " + checksum + ": " + file
+      );
+      return false;
+    }
+
+    return true;
+  }
+
+  public String checksum(File file) throws IOException {
+    MessageDigest digest = md5();
+
+    FileChannel channel = new FileInputStream(file).getChannel();
+    try {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      while (channel.read(buffer) != -1) {
+        buffer.flip();
+        digest.update(buffer);
+        buffer.clear();
+      }
+    } finally {
+      channel.close();
+    }
+
+    return base16().lowerCase().encode(digest.digest());
+  }
+
+  public File quarantine(File file) {
+    File quarantinedFile = new File(file.getPath() + ".quarantine");
+    if (!file.exists()) { return quarantinedFile; }
+
+    quarantinedFile.delete();
+
+    if (!file.renameTo(quarantinedFile)) {
+      Log.w("[mypodcasts]", "Could not quarantine " + file + ", deleting it");
+      file.delete();
+    }
+
+    return quarantinedFile;
+  }
+
+  String expectedChecksum(Response response) {
+    if (response.code() != 200) { return null; }
+
+    String contentMd5 = response.header("Content-MD5");
+    if (contentMd5 == null) { return null; }
+
+    try {
+      return base16().lowerCase().encode(base64().decode(contentMd5.trim()));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private MessageDigest md5() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
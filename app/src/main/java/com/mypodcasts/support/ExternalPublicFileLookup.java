@@ -1,9 +1,84 @@
 package com.mypodcasts.support;
 
+import android.util.Log;
+
 import java.io.File;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import javax.inject.Inject;
+
+import static java.util.Collections.newSetFromMap;
 
 public class ExternalPublicFileLookup {
+  private final Executor executor;
+
+  private final ConcurrentMap<File, Set<String>> directories = new ConcurrentHashMap<>();
+  private final Set<File> indexedDirectories = newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+
+  @Inject
+  public ExternalPublicFileLookup(Executor executor) {
+    this.executor = executor;
+  }
+
   public boolean exists(File directory, String filePath) {
+    if (indexedDirectories.contains(directory)) { return directories.get(directory).contains(filePath); }
+
+    scan(directory);
+
     return new File(directory, filePath).exists();
   }
+
+  public void add(File file) {
+    for (Map.Entry<File, Set<String>> indexedDirectory : directories.entrySet()) {
+      String filePath = relativePath(indexedDirectory.getKey(), file);
+      if (filePath != null) { indexedDirectory.getValue().add(filePath); }
+    }
+  }
+
+  public void remove(File file) {
+    for (Map.Entry<File, Set<String>> indexedDirectory : directories.entrySet()) {
+      String filePath = relativePath(indexedDirectory.getKey(), file);
+      if (filePath != null) { indexedDirectory.getValue().remove(filePath); }
+    }
+  }
+
+  private void scan(final File directory) {
+    final Set<String> filePaths = newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    if (directories.putIfAbsent(directory, filePaths) != null) { return; }
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        collect(directory, "", filePaths);
+
+        indexedDirectories.add(directory);
+        Log.i("[mypodcasts]", "Indexed " + filePaths.size() + " files in " + directory);
+      }
+    });
+  }
+
+  private void collect(File directory, String prefix, Set<String> filePaths) {
+    File[] files = directory.listFiles();
+    if (files == null) { return; }
+
+    for (File file : files) {
+      if (file.isDirectory()) {
+        collect(file, prefix + file.getName() + "/", filePaths);
+      } else {
+        filePaths.add(prefix + file.getName());
+      }
+    }
+  }
+
+  private String relativePath(File directory, File file) {
+    String directoryPath = directory.getAbsolutePath() + "/";
+    String filePath = file.getAbsolutePath();
+    if (!filePath.startsWith(directoryPath)) { return null; }
+
+    return filePath.substring(directoryPath.length());
+  }
 }
@@ -0,0 +1,145 @@
+package com.mypodcasts.support;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class SparseFileCache {
+  private final File file;
+  private final File rangesFile;
+  private final FileChannel channel;
+
+  private final TreeMap<Long, Long> ranges = new TreeMap<>();
+  private long totalBytes = -1;
+  private String contentType;
+
+  public SparseFileCache(File file) throws IOException {
+    this.file = file;
+    this.rangesFile = new File(file.getPath() + ".ranges");
+
+    if (file.exists()) { load(); }
+    this.channel = new RandomAccessFile(file, "rw").getChannel();
+  }
+
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public synchronized void setTotalBytes(long totalBytes) {
+    this.totalBytes = totalBytes;
+  }
+
+  public synchronized String getContentType() {
+    return contentType;
+  }
+
+  public synchronized void setContentType(String contentType) {
+    this.contentType = contentType;
+  }
+
+  public synchronized long cachedBytesAt(long position) {
+    Map.Entry<Long, Long> range = ranges.floorEntry(position);
+    if (range == null || range.getValue() <= position) { return 0; }
+
+    return range.getValue() - position;
+  }
+
+  public synchronized long nextCachedPositionAfter(long position) {
+    Long start = ranges.higherKey(position);
+    return start == null ? -1 : start;
+  }
+
+  public int read(long position, ByteBuffer buffer) throws IOException {
+    return channel.read(buffer, position);
+  }
+
+  public void write(long position, ByteBuffer buffer) throws IOException {
+    int length = buffer.remaining();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer, position + length - buffer.remaining());
+    }
+
+    addRange(position, position + length);
+  }
+
+  public synchronized void save() throws IOException {
+    Writer writer = new OutputStreamWriter(new FileOutputStream(rangesFile), UTF_8);
+    try {
+      writer.write(totalBytes + "\n");
+      writer.write((contentType == null ? "" : contentType) + "\n");
+      for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+        writer.write(range.getKey() + " " + range.getValue() + "\n");
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  public synchronized void close() throws IOException {
+    try {
+      save();
+    } finally {
+      channel.close();
+    }
+  }
+
+  public synchronized void delete() {
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+    }
+
+    file.delete();
+    rangesFile.delete();
+  }
+
+  private synchronized void addRange(long start, long end) {
+    Map.Entry<Long, Long> previous = ranges.floorEntry(start);
+    if (previous != null && previous.getValue() >= start) {
+      start = previous.getKey();
+      end = Math.max(end, previous.getValue());
+    }
+
+    Map.Entry<Long, Long> next;
+    while ((next = ranges.ceilingEntry(start)) != null && next.getKey() <= end) {
+      end = Math.max(end, next.getValue());
+      ranges.remove(next.getKey());
+    }
+
+    ranges.put(start, end);
+  }
+
+  private void load() throws IOException {
+    if (!rangesFile.exists()) { return; }
+
+    BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(rangesFile), UTF_8));
+    try {
+      totalBytes = Long.parseLong(reader.readLine());
+      String storedContentType = reader.readLine();
+      contentType = storedContentType == null || storedContentType.isEmpty() ? null : storedContentType;
+
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        String[] range = line.split(" ");
+        addRange(Long.parseLong(range[0]), Long.parseLong(range[1]));
+      }
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+      ranges.clear();
+    } finally {
+      reader.close();
+    }
+
+    if (!ranges.isEmpty() && ranges.lastEntry().getValue() > file.length()) { ranges.clear(); }
+  }
+}
@@ -0,0 +1,390 @@
+package com.mypodcasts.support;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import javax.inject.Inject;
+
+import static com.google.common.hash.Hashing.sha1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+
+public class StreamCacheProxy {
+  private static final String CACHE_DIRECTORY = "streams";
+  private static final int MAX_CACHED_STREAMS = 4;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final File cacheDirectory;
+  private final OkHttpClient okHttpClient;
+  private final DownloadEngine downloadEngine;
+
+  private final ExecutorService connectionExecutor = newCachedThreadPool();
+  private final Map<String, String> urls = new ConcurrentHashMap<>();
+  private final LinkedHashMap<String, SparseFileCache> caches = new LinkedHashMap<>(16, 0.75f, true);
+  private ServerSocket serverSocket;
+
+  @Inject
+  public StreamCacheProxy(Context context, OkHttpClient okHttpClient, DownloadEngine downloadEngine) {
+    this(new File(context.getCacheDir(), CACHE_DIRECTORY), okHttpClient, downloadEngine);
+  }
+
+  public StreamCacheProxy(File cacheDirectory, OkHttpClient okHttpClient, DownloadEngine downloadEngine) {
+    this.cacheDirectory = cacheDirectory;
+    this.okHttpClient = okHttpClient;
+    this.downloadEngine = downloadEngine;
+  }
+
+  public synchronized String proxy(String url) throws IOException {
+    start();
+
+    String token = sha1().hashString(url, UTF_8).toString();
+    urls.put(token, url);
+
+    return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/" + token;
+  }
+
+  public synchronized void stop() throws IOException {
+    if (serverSocket != null) { serverSocket.close(); }
+
+    for (SparseFileCache cache : caches.values()) {
+      cache.close();
+    }
+    caches.clear();
+  }
+
+  private void start() throws IOException {
+    if (serverSocket != null && !serverSocket.isClosed()) { return; }
+
+    if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+      throw new IOException("Could not create " + cacheDirectory);
+    }
+    trimCacheDirectory();
+
+    final ServerSocket acceptingSocket = new ServerSocket(0, 8, InetAddress.getByName("127.0.0.1"));
+    Thread acceptor = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        while (!acceptingSocket.isClosed()) {
+          try {
+            final Socket socket = acceptingSocket.accept();
+            connectionExecutor.execute(new Runnable() {
+              @Override
+              public void run() {
+                serve(socket);
+              }
+            });
+          } catch (IOException e) {
+            return;
+          }
+        }
+      }
+    });
+    acceptor.setDaemon(true);
+    acceptor.start();
+
+    serverSocket = acceptingSocket;
+  }
+
+  private void serve(Socket socket) {
+    try {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
+      String[] requestLine = String.valueOf(reader.readLine()).split(" ");
+      String range = null;
+      for (String header = reader.readLine(); header != null && !header.isEmpty(); header = reader.readLine()) {
+        if (header.toLowerCase().startsWith("range: bytes=")) { range = header.substring("range: bytes=".length()); }
+      }
+
+      String url = requestLine.length < 2 ? null : urls.get(requestLine[1].substring(1));
+      if (url == null) {
+        respond(socket.getOutputStream(), "404 Not Found", "");
+        return;
+      }
+
+      stream(socket.getOutputStream(), url, openCache(requestLine[1].substring(1)), range);
+    } catch (IOException e) {
+      Log.i("[mypodcasts]", "Stream proxy connection closed: " + e.getMessage());
+    } finally {
+      try {
+        socket.close();
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  private void stream(OutputStream out, String url, SparseFileCache cache, String range) throws IOException {
+    if (cache.getTotalBytes() < 0 && !describe(url, cache)) {
+      Log.i("[mypodcasts]", "Could not find out how long " + url + " is, redirecting to it");
+      respond(out, "302 Found", "Location: " + url + "\r\n");
+      return;
+    }
+
+    long totalBytes = cache.getTotalBytes();
+    long start = 0;
+    long end = totalBytes - 1;
+    if (range != null) {
+      String[] bounds = range.trim().split("-", -1);
+      if (bounds[0].isEmpty()) {
+        start = Math.max(0, totalBytes - Long.parseLong(bounds[1]));
+      } else {
+        start = Long.parseLong(bounds[0]);
+        if (!bounds[1].isEmpty()) { end = Math.min(end, Long.parseLong(bounds[1])); }
+      }
+    }
+
+    if (start > end) {
+      respond(out, "416 Range Not Satisfiable", "Content-Range: bytes */" + totalBytes + "\r\n");
+      return;
+    }
+
+    String contentType = cache.getContentType() == null ? "audio/mpeg" : cache.getContentType();
+    respond(
+        out,
+        range == null ? "200 OK" : "206 Partial Content",
+        (range == null ? "" : "Content-Range: bytes " + start + "-" + end + "/" + totalBytes + "\r\n")
+            + "Content-Type: " + contentType + "\r\n"
+            + "Content-Length: " + (end - start + 1) + "\r\n"
+            + "Accept-Ranges: bytes\r\n"
+    );
+
+    PartialFile partialFile = PartialFile.of(downloadEngine.getDownload(url));
+    try {
+      long position = start;
+      while (position <= end) {
+        long copied = copy(cache, position, Math.min(cache.cachedBytesAt(position), end - position + 1), out);
+        if (copied == 0) {
+          copied = partialFile.copy(position, end - position + 1, out);
+        }
+        if (copied == 0) {
+          copied = fetch(url, cache, position, gapEnd(cache, partialFile, position, end), out);
+        }
+
+        position += copied;
+      }
+    } finally {
+      partialFile.close();
+      cache.save();
+    }
+  }
+
+  private boolean describe(String url, SparseFileCache cache) throws IOException {
+    Request request = new Request.Builder()
+        .url(url)
+        .header("Accept-Encoding", "identity")
+        .header("Range", "bytes=0-0")
+        .build();
+
+    Response response = okHttpClient.newCall(request).execute();
+    response.body().close();
+
+    long totalBytes = totalBytes(response);
+    if (totalBytes < 0) { return false; }
+
+    cache.setTotalBytes(totalBytes);
+    cache.setContentType(response.header("Content-Type"));
+    return true;
+  }
+
+  private long fetch(String url, SparseFileCache cache, long from, long to, OutputStream out) throws IOException {
+    Request request = new Request.Builder()
+        .url(url)
+        .header("Accept-Encoding", "identity")
+        .header("Range", "bytes=" + from + "-" + to)
+        .build();
+
+    Response response = okHttpClient.newCall(request).execute();
+    try {
+      if (!response.isSuccessful()) { throw new IOException("Origin responded " + response.code() + ": " + url); }
+
+      boolean partial = response.code() == 206
+          && String.valueOf(response.header("Content-Range")).startsWith("bytes " + from + "-");
+      long position = partial ? from : 0;
+
+      InputStream in = response.body().byteStream();
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while (position <= to && (read = in.read(buffer)) != -1) {
+        cache.write(position, ByteBuffer.wrap(buffer, 0, read));
+
+        int offset = (int) Math.max(0, from - position);
+        int length = (int) Math.min(read - offset, to - position - offset + 1);
+        if (length > 0) { out.write(buffer, offset, length); }
+
+        position += read;
+      }
+
+      if (position <= to) { throw new IOException("Origin ended early at " + position + ": " + url); }
+    } finally {
+      response.body().close();
+    }
+
+    return to - from + 1;
+  }
+
+  private long copy(SparseFileCache cache, long position, long length, OutputStream out) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    long copied = 0;
+    while (copied < length) {
+      buffer.clear();
+      buffer.limit((int) Math.min(BUFFER_SIZE, length - copied));
+
+      int read = cache.read(position + copied, buffer);
+      if (read <= 0) { break; }
+
+      out.write(buffer.array(), 0, read);
+      copied += read;
+    }
+
+    return copied;
+  }
+
+  private long gapEnd(SparseFileCache cache, PartialFile partialFile, long position, long end) {
+    long gapEnd = end;
+
+    long nextCachedPosition = cache.nextCachedPositionAfter(position);
+    if (nextCachedPosition > 0) { gapEnd = Math.min(gapEnd, nextCachedPosition - 1); }
+
+    long nextPartialPosition = partialFile.nextPositionAfter(position);
+    if (nextPartialPosition > 0) { gapEnd = Math.min(gapEnd, nextPartialPosition - 1); }
+
+    return gapEnd;
+  }
+
+  private long totalBytes(Response response) {
+    String totalBytes = null;
+    if (response.code() == 206) {
+      String contentRange = String.valueOf(response.header("Content-Range"));
+      totalBytes = contentRange.substring(contentRange.lastIndexOf('/') + 1);
+    } else if (response.code() == 200) {
+      totalBytes = response.header("Content-Length");
+    }
+    if (totalBytes == null) { return -1; }
+
+    try {
+      return Long.parseLong(totalBytes.trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private void respond(OutputStream out, String status, String headers) throws IOException {
+    String response = "HTTP/1.1 " + status + "\r\n" + headers + "Connection: close\r\n\r\n";
+    out.write(response.getBytes(US_ASCII));
+    out.flush();
+  }
+
+  private synchronized SparseFileCache openCache(String token) throws IOException {
+    SparseFileCache cache = caches.get(token);
+    if (cache != null) { return cache; }
+
+    cache = new SparseFileCache(new File(cacheDirectory, token));
+    caches.put(token, cache);
+
+    if (caches.size() > MAX_CACHED_STREAMS) {
+      Iterator<SparseFileCache> eldest = caches.values().iterator();
+      eldest.next().delete();
+      eldest.remove();
+    }
+
+    return cache;
+  }
+
+  private void trimCacheDirectory() {
+    File[] files = cacheDirectory.listFiles();
+    if (files == null || files.length <= MAX_CACHED_STREAMS * 2) { return; }
+
+    Arrays.sort(files, new Comparator<File>() {
+      @Override
+      public int compare(File file, File anotherFile) {
+        long modified = file.lastModified();
+        long anotherModified = anotherFile.lastModified();
+
+        return anotherModified < modified ? -1 : (anotherModified == modified ? 0 : 1);
+      }
+    });
+
+    for (int i = MAX_CACHED_STREAMS * 2; i < files.length; i++) {
+      files[i].delete();
+    }
+  }
+
+  private static class PartialFile {
+    private static final PartialFile NONE = new PartialFile(null, new TreeMap<Long, Long>());
+
+    private final FileChannel channel;
+    private final TreeMap<Long, Long> ranges;
+
+    private PartialFile(FileChannel channel, TreeMap<Long, Long> ranges) {
+      this.channel = channel;
+      this.ranges = ranges;
+    }
+
+    static PartialFile of(Download download) {
+      if (download == null) { return NONE; }
+
+      TreeMap<Long, Long> ranges = download.getDownloadedRanges();
+      if (ranges.isEmpty() || !download.getPartialFile().exists()) { return NONE; }
+
+      try {
+        return new PartialFile(new RandomAccessFile(download.getPartialFile(), "r").getChannel(), ranges);
+      } catch (IOException e) {
+        return NONE;
+      }
+    }
+
+    long copy(long position, long length, OutputStream out) throws IOException {
+      Map.Entry<Long, Long> range = ranges.floorEntry(position);
+      if (channel == null || range == null || range.getValue() <= position) { return 0; }
+
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      long available = Math.min(length, range.getValue() - position);
+      long copied = 0;
+      while (copied < available) {
+        buffer.clear();
+        buffer.limit((int) Math.min(BUFFER_SIZE, available - copied));
+
+        int read = channel.read(buffer, position + copied);
+        if (read <= 0) { break; }
+
+        out.write(buffer.array(), 0, read);
+        copied += read;
+      }
+
+      return copied;
+    }
+
+    long nextPositionAfter(long position) {
+      Long start = ranges.higherKey(position);
+      return start == null ? -1 : start;
+    }
+
+    void close() throws IOException {
+      if (channel != null) { channel.close(); }
+    }
+  }
+}
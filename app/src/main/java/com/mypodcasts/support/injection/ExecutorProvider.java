@@ -0,0 +1,16 @@
+package com.mypodcasts.support.injection;
+
+import java.util.concurrent.Executor;
+
+import javax.inject.Provider;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+public class ExecutorProvider implements Provider<Executor> {
+  private static final int POOL_SIZE = 4;
+
+  @Override
+  public Executor get() {
+    return newFixedThreadPool(POOL_SIZE);
+  }
+}
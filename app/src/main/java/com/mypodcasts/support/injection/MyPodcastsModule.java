@@ -8,7 +8,24 @@ import com.android.volley.toolbox.ImageLoader;
 import com.google.inject.Binder;
 import com.google.inject.Module;
 import com.google.inject.Scopes;
+import com.mypodcasts.episodes.DescriptionRenderer;
+import com.mypodcasts.episodes.EpisodeFile;
+import com.mypodcasts.episodes.EpisodeRegistry;
+import com.mypodcasts.episodes.feeds.FeedPrefetcher;
+import com.mypodcasts.episodes.storage.EpisodeStorage;
+import com.mypodcasts.repositories.ApiResponseCache;
+import com.mypodcasts.repositories.EpisodeStore;
+import com.mypodcasts.repositories.HttpClient;
+import com.mypodcasts.repositories.PayloadStats;
+import com.mypodcasts.repositories.SingleFlight;
+import com.mypodcasts.support.DownloadEngine;
+import com.mypodcasts.support.DownloadProgressTracker;
+import com.mypodcasts.support.ExternalPublicFileLookup;
 import com.mypodcasts.support.MyPodcastsImageCache;
+import com.mypodcasts.support.StreamCacheProxy;
+import com.squareup.okhttp.OkHttpClient;
+
+import java.util.concurrent.Executor;
 
 import de.greenrobot.event.EventBus;
 import retrofit.RestAdapter;
@@ -17,8 +34,40 @@ public class MyPodcastsModule implements Module {
 
   @Override
   public void configure(Binder binder) {
+    binder.bind(OkHttpClient.class).toProvider(OkHttpClientProvider.class).in(Scopes.SINGLETON);
+
+    binder.bind(ApiResponseCache.class).in(Scopes.SINGLETON);
+
+    binder.bind(PayloadStats.class).in(Scopes.SINGLETON);
+
     binder.bind(RestAdapter.Builder.class).toProvider(RestAdapterBuilderProvider.class);
 
+    binder.bind(HttpClient.class).in(Scopes.SINGLETON);
+
+    binder.bind(EpisodeStore.class).in(Scopes.SINGLETON);
+
+    binder.bind(SingleFlight.class).in(Scopes.SINGLETON);
+
+    binder.bind(Executor.class).toProvider(ExecutorProvider.class).in(Scopes.SINGLETON);
+
+    binder.bind(FeedPrefetcher.class).in(Scopes.SINGLETON);
+
+    binder.bind(EpisodeRegistry.class).in(Scopes.SINGLETON);
+
+    binder.bind(DescriptionRenderer.class).in(Scopes.SINGLETON);
+
+    binder.bind(ExternalPublicFileLookup.class).in(Scopes.SINGLETON);
+
+    binder.bind(EpisodeFile.class).in(Scopes.SINGLETON);
+
+    binder.bind(DownloadEngine.class).in(Scopes.SINGLETON);
+
+    binder.bind(DownloadProgressTracker.class).in(Scopes.SINGLETON);
+
+    binder.bind(EpisodeStorage.class).in(Scopes.SINGLETON);
+
+    binder.bind(StreamCacheProxy.class).in(Scopes.SINGLETON);
+
     binder.bind(ProgressDialog.class).toProvider(ProgressDialogProvider.class);
 
     binder.bind(Notification.Builder.class).toProvider(NotificationBuilderProvider.class);
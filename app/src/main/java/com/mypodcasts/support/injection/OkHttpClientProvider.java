@@ -0,0 +1,28 @@
+package com.mypodcasts.support.injection;
+
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.OkHttpClient;
+
+import javax.inject.Provider;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class OkHttpClientProvider implements Provider<OkHttpClient> {
+  private static final int MAX_IDLE_CONNECTIONS = 5;
+  private static final long KEEP_ALIVE_DURATION_IN_MILLIS = MINUTES.toMillis(5);
+  private static final long TIMEOUT_IN_SECONDS = 20;
+
+  @Override
+  public OkHttpClient get() {
+    OkHttpClient okHttpClient = new OkHttpClient();
+
+    okHttpClient.setConnectionPool(
+        new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION_IN_MILLIS)
+    );
+    okHttpClient.setConnectTimeout(TIMEOUT_IN_SECONDS, SECONDS);
+    okHttpClient.setReadTimeout(TIMEOUT_IN_SECONDS, SECONDS);
+
+    return okHttpClient;
+  }
+}
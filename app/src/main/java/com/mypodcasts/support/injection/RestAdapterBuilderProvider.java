@@ -1,12 +1,37 @@
 package com.mypodcasts.support.injection;
 
+import com.google.gson.Gson;
+import com.mypodcasts.repositories.ApiResponseCache;
+import com.mypodcasts.repositories.CachedResponseConverter;
+import com.mypodcasts.repositories.CompressedResponseClient;
+import com.mypodcasts.repositories.ConditionalRequestClient;
+import com.mypodcasts.repositories.PayloadStats;
+import com.squareup.okhttp.OkHttpClient;
+
+import javax.inject.Inject;
 import javax.inject.Provider;
 
 import retrofit.RestAdapter;
+import retrofit.client.OkClient;
+import retrofit.converter.GsonConverter;
 
 public class RestAdapterBuilderProvider implements Provider<RestAdapter.Builder> {
+
+  @Inject
+  private OkHttpClient okHttpClient;
+
+  @Inject
+  private ApiResponseCache apiResponseCache;
+
+  @Inject
+  private PayloadStats payloadStats;
+
   @Override
   public RestAdapter.Builder get() {
-    return new RestAdapter.Builder();
+    return new RestAdapter.Builder()
+        .setClient(new ConditionalRequestClient(
+            new CompressedResponseClient(new OkClient(okHttpClient), payloadStats), apiResponseCache
+        ))
+        .setConverter(new CachedResponseConverter(new GsonConverter(new Gson()), apiResponseCache));
   }
 }
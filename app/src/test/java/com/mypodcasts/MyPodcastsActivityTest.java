@@ -2,15 +2,17 @@ package com.mypodcasts;
 
 import android.app.ProgressDialog;
 import android.content.Intent;
+import android.os.Bundle;
 import android.widget.ListView;
 
 import com.google.inject.AbstractModule;
+import com.mypodcasts.episodes.EpisodeRegistry;
+import com.mypodcasts.episodes.autodownload.AutoDownloadScheduler;
 import com.mypodcasts.episodes.feeds.FeedEpisodesActivity;
+import com.mypodcasts.repositories.EpisodeStore;
 import com.mypodcasts.repositories.UserFeedsRepository;
 import com.mypodcasts.repositories.models.Feed;
 
-import org.hamcrest.CoreMatchers;
-import org.hamcrest.Matcher;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -18,7 +20,6 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -28,6 +29,8 @@ import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.robolectric.Robolectric.buildActivity;
 import static org.robolectric.RuntimeEnvironment.application;
@@ -44,6 +47,8 @@ public class MyPodcastsActivityTest {
 
   UserFeedsRepository userFeedsRepositoryMock = mock(UserFeedsRepository.class);
   ProgressDialog progressDialogMock = mock(ProgressDialog.class);
+  EpisodeRegistry episodeRegistry = new EpisodeRegistry(mock(EpisodeStore.class));
+  AutoDownloadScheduler autoDownloadSchedulerMock = mock(AutoDownloadScheduler.class);
 
   @Before
   public void setup() {
@@ -78,6 +83,22 @@ public class MyPodcastsActivityTest {
     assertThat(menuItem2, is(feeds.get(1)));
   }
 
+  @Test
+  public void itSchedulesAutoDownloadOfNewEpisodesOnCreate() {
+    createActivityWith(Collections.<Feed>emptyList());
+
+    verify(autoDownloadSchedulerMock).schedule();
+  }
+
+  @Test
+  public void itDoesNotScheduleAutoDownloadAgainWhenRecreated() {
+    when(userFeedsRepositoryMock.getFeeds()).thenReturn(Collections.<Feed>emptyList());
+
+    buildActivity(MyPodcastsActivity.class).create(new Bundle()).get();
+
+    verify(autoDownloadSchedulerMock, never()).schedule();
+  }
+
   @Test
   public void itOpensFeedPodcastsOnItemClick() {
     createActivityWith(asList(aFeed("Some feed")));
@@ -96,20 +117,22 @@ public class MyPodcastsActivityTest {
     Feed someFeed = aFeed("Some feed");
     createActivityWith(asList(someFeed));
 
-    Matcher<Serializable> serializedFeed = CoreMatchers.<Serializable>is(someFeed);
-
     performItemClickAtPosition(leftDrawer, 0);
 
     Intent intent = shadowOf(activity).peekNextStartedActivity();
+    String feedId = intent.getStringExtra(Feed.class.toString());
 
-    assertThat(
-        intent.getSerializableExtra(Feed.class.toString()),
-        serializedFeed
-    );
+    assertThat(feedId, is(someFeed.getId()));
+    assertThat(episodeRegistry.getFeed(feedId), is(someFeed));
   }
 
   private Feed aFeed(final String title) {
     return new Feed() {
+      @Override
+      public String getId() {
+        return title;
+      }
+
       @Override
       public String getTitle() {
         return title;
@@ -129,6 +152,8 @@ public class MyPodcastsActivityTest {
     protected void configure() {
       bind(ProgressDialog.class).toInstance(progressDialogMock);
       bind(UserFeedsRepository.class).toInstance(userFeedsRepositoryMock);
+      bind(EpisodeRegistry.class).toInstance(episodeRegistry);
+      bind(AutoDownloadScheduler.class).toInstance(autoDownloadSchedulerMock);
     }
   }
 }
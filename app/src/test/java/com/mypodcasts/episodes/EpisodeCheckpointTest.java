@@ -56,6 +56,24 @@ public class EpisodeCheckpointTest {
     assertThat(episodeCheckpoint.getLastCheckpointPosition(anEpisode(), 42), is(42));
   }
 
+  @Test
+  public void itRemembersWhenEpisodeWasLastPlayed() {
+    long before = System.currentTimeMillis();
+
+    episodeCheckpoint.markCheckpoint(anEpisode(), 1000);
+
+    assertThat(episodeCheckpoint.getLastPlayedAt(anEpisode()) >= before, is(true));
+  }
+
+  @Test
+  public void itMarksEpisodeAsFinishedWhenCheckpointReachesItsEnd() {
+    episodeCheckpoint.markCheckpoint(anEpisode(), 1000, 60 * 60 * 1000);
+    assertThat(episodeCheckpoint.isFinished(anEpisode()), is(false));
+
+    episodeCheckpoint.markCheckpoint(anEpisode(), 60 * 60 * 1000 - 1000, 60 * 60 * 1000);
+    assertThat(episodeCheckpoint.isFinished(anEpisode()), is(true));
+  }
+
   private SharedPreferences getSharedPreferences() {
     return application.getSharedPreferences(
         EpisodeCheckpoint.STATE, MODE_PRIVATE
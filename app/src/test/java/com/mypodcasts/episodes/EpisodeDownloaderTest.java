@@ -1,8 +1,12 @@
 package com.mypodcasts.episodes;
 
+import com.google.gson.Gson;
 import com.mypodcasts.BuildConfig;
+import com.mypodcasts.episodes.storage.EpisodeStorage;
 import com.mypodcasts.repositories.models.Episode;
-import com.mypodcasts.support.FileDownloadManager;
+import com.mypodcasts.support.Download;
+import com.mypodcasts.support.DownloadEngine;
+import com.mypodcasts.support.DownloadProgressTracker;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -10,9 +14,16 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
-import static android.net.Uri.parse;
+import java.io.File;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(RobolectricGradleTestRunner.class)
 @Config(constants = BuildConfig.class)
@@ -22,31 +33,78 @@ public class EpisodeDownloaderTest {
 
   Episode episode;
 
-  FileDownloadManager fileDownloadManagerMock= mock(FileDownloadManager.class);
+  DownloadEngine downloadEngineMock = mock(DownloadEngine.class);
   EpisodeFile episodeFileMock = mock(EpisodeFile.class);
+  DownloadProgressTracker downloadProgressTrackerMock = mock(DownloadProgressTracker.class);
+  EpisodeStorage episodeStorageMock = mock(EpisodeStorage.class);
+  File file = new File("/sdcard/Podcasts/123/Episode.mp3");
 
   @Before
   public void setUp() {
-    episodeDownloader = new EpisodeDownloader(fileDownloadManagerMock, episodeFileMock);
+    episodeDownloader = new EpisodeDownloader(
+        downloadEngineMock, episodeFileMock, downloadProgressTrackerMock, episodeStorageMock
+    );
 
-    episode = new Episode();
+    episode = new Gson().fromJson(
+        "{\"audio\": {\"url\": \"http://example.com/audio.mp3\"}}", Episode.class
+    );
+    when(episodeFileMock.getFile(episode)).thenReturn(file);
+    when(episodeFileMock.getExpectedBytes(episode)).thenReturn(1024L);
   }
 
   @Test
-  public void itDelegatesToFileDownloadManagaerWhenAskForDownload() {
+  public void itEnqueuesEpisodeAudioKeyedByItsUrlInSegmentsWithAnnouncedLength() {
     episodeDownloader.download(episode);
 
-    verify(fileDownloadManagerMock).enqueue(
-        parse(episode.getAudioUrl()),
-        episodeFileMock.getPodcastsDirectory(),
-        episode.getAudioFilePath()
+    verify(downloadEngineMock).enqueue(
+        "http://example.com/audio.mp3",
+        "http://example.com/audio.mp3",
+        file,
+        Download.PRIORITY_HIGH,
+        4,
+        1024L
     );
   }
 
+  @Test
+  public void itEnqueuesEpisodeAudioWithTheGivenPriority() {
+    episodeDownloader.download(episode, Download.PRIORITY_LOW);
+
+    verify(downloadEngineMock).enqueue(
+        "http://example.com/audio.mp3",
+        "http://example.com/audio.mp3",
+        file,
+        Download.PRIORITY_LOW,
+        4,
+        1024L
+    );
+  }
+
+  @Test
+  public void itTracksProgressOfEnqueuedDownloads() {
+    episodeDownloader.download(episode);
+
+    verify(downloadProgressTrackerMock).track();
+  }
+
+  @Test
+  public void itLetsStorageAccountForEnqueuedDownloads() {
+    episodeDownloader.download(episode);
+
+    verify(episodeStorageMock).expect(episode);
+  }
+
+  @Test
+  public void itDoesNotEnqueueEpisodesWithoutAudio() {
+    episodeDownloader.download(new Episode());
+
+    verify(downloadEngineMock, never()).enqueue(anyString(), anyString(), (File) anyObject(), anyInt(), anyInt(), anyLong());
+  }
+
   @Test
   public void itDelegatesToEpisodeFileWhenAskedAboutIfDownloadWasAlreadyMade() {
     episodeDownloader.isAlreadyDownloaded(episode);
 
     verify(episodeFileMock).exists(episode);
   }
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package com.mypodcasts.episodes;
 
 import com.mypodcasts.BuildConfig;
+import com.mypodcasts.repositories.DownloadedEpisode;
+import com.mypodcasts.repositories.EpisodeStore;
 import com.mypodcasts.repositories.models.Episode;
 import com.mypodcasts.support.ExternalPublicFileLookup;
 
@@ -11,12 +13,17 @@ import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 
 import static android.os.Environment.DIRECTORY_PODCASTS;
 import static android.os.Environment.getExternalStoragePublicDirectory;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,12 +34,13 @@ public class EpisodeFileTest {
   EpisodeFile episodeFile;
 
   ExternalPublicFileLookup externalPublicFileLookupMock = mock(ExternalPublicFileLookup.class);
+  EpisodeStore episodeStoreMock = mock(EpisodeStore.class);
   Episode episode;
   File externalStoragePublicDirectory;
 
   @Before
   public void setUp() {
-    episodeFile = new EpisodeFile(externalPublicFileLookupMock);
+    episodeFile = new EpisodeFile(externalPublicFileLookupMock, episodeStoreMock);
 
     episode = new Episode();
     externalStoragePublicDirectory = getExternalStoragePublicDirectory(DIRECTORY_PODCASTS);
@@ -88,4 +96,125 @@ public class EpisodeFileTest {
 
     assertThat(episodeFile.getAudioFilePath(episode), is(filePath));
   }
+
+  @Test
+  public void itStreamsAudioFileShorterThanAnnouncedByTheFeedWithoutMovingIt() {
+    episode = new Episode() {
+      @Override
+      public String getAudioFilePath() {
+        return "partial.mp3";
+      }
+
+      @Override
+      public String getAudioUrl() {
+        return "http://example.com/partial.mp3";
+      }
+
+      @Override
+      public String getAudioLength() {
+        return "1024";
+      }
+    };
+
+    when(
+        externalPublicFileLookupMock.exists(
+            externalStoragePublicDirectory,
+            episode.getAudioFilePath()
+        )
+    ).thenReturn(true);
+
+    assertThat(episodeFile.getAudioFilePath(episode), is(episode.getAudioUrl()));
+    verify(externalPublicFileLookupMock, never()).remove(any(File.class));
+  }
+
+  @Test
+  public void itPlaysDownloadedFileMatchingWhatTheServerSentEvenWhenFeedAnnouncedMore() throws IOException {
+    episode = new Episode() {
+      @Override
+      public String getAudioFilePath() {
+        return "verified.mp3";
+      }
+
+      @Override
+      public String getAudioUrl() {
+        return "http://example.com/verified.mp3";
+      }
+
+      @Override
+      public String getAudioLength() {
+        return "1024";
+      }
+    };
+    File file = episodeFile.getFile(episode);
+    file.getParentFile().mkdirs();
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    randomAccessFile.setLength(512);
+    randomAccessFile.close();
+
+    when(
+        externalPublicFileLookupMock.exists(
+            externalStoragePublicDirectory,
+            episode.getAudioFilePath()
+        )
+    ).thenReturn(true);
+    when(episodeStoreMock.getDownloadedEpisode(episode.getAudioUrl()))
+        .thenReturn(new DownloadedEpisode(episode, file, 512, 42));
+
+    assertThat(episodeFile.getAudioFilePath(episode), is(file.getPath()));
+  }
+
+  @Test
+  public void itRemembersFilesFoundComplete() throws IOException {
+    episode = new Episode() {
+      @Override
+      public String getAudioFilePath() {
+        return "remembered.mp3";
+      }
+
+      @Override
+      public String getAudioUrl() {
+        return "http://example.com/remembered.mp3";
+      }
+    };
+    File file = episodeFile.getFile(episode);
+    file.getParentFile().mkdirs();
+    file.createNewFile();
+
+    when(
+        externalPublicFileLookupMock.exists(
+            externalStoragePublicDirectory,
+            episode.getAudioFilePath()
+        )
+    ).thenReturn(true);
+
+    episodeFile.getAudioFilePath(episode);
+
+    assertThat(episodeFile.getAudioFilePath(episode), is(file.getPath()));
+    verify(episodeStoreMock, times(1)).getDownloadedEpisode(episode.getAudioUrl());
+  }
+
+  @Test
+  public void itReadsExpectedBytesFromAudioLength() {
+    episode = new Episode() {
+      @Override
+      public String getAudioLength() {
+        return "1024";
+      }
+    };
+
+    assertThat(episodeFile.getExpectedBytes(episode), is(1024L));
+    assertThat(episodeFile.getExpectedBytes(new Episode()), is(0L));
+  }
+
+  @Test
+  public void itPlacesAudioFileUnderPodcastsDirectory() {
+    episode = new Episode() {
+      @Override
+      public String getAudioFilePath() {
+        return "123/audio.mp3";
+      }
+    };
+
+    assertThat(episodeFile.getFile(episode), is(new File(externalStoragePublicDirectory, "123/audio.mp3")));
+  }
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 package com.mypodcasts.episodes;
 
 import android.app.Activity;
-import android.view.View;
+import android.support.v7.widget.RecyclerView;
 import android.view.ViewGroup;
 
+import com.google.gson.Gson;
 import com.mypodcasts.BuildConfig;
 import com.mypodcasts.repositories.models.Episode;
 
@@ -13,12 +14,13 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,11 +31,12 @@ import static org.robolectric.Robolectric.buildActivity;
 public class EpisodeListAdapterTest {
 
   Activity activity;
-  View view;
   ViewGroup parent;
   EpisodeViewInflater episodeViewInflaterMock = mock(EpisodeViewInflater.class);
-  EpisodeViewInflater.InflaterWith inflaterWithMock = mock(EpisodeViewInflater.InflaterWith.class);
-  EpisodeViewInflater.InflaterFrom inflaterFromMock = mock(EpisodeViewInflater.InflaterFrom.class);
+  EpisodeViewInflater.EpisodeViewHolder episodeViewHolderMock = mock(EpisodeViewInflater.EpisodeViewHolder.class);
+
+  Gson gson = new Gson();
+  List<String> notifications = new ArrayList<>();
 
   int firstPosition = 0;
 
@@ -41,36 +44,162 @@ public class EpisodeListAdapterTest {
   public void setup() {
     activity = buildActivity(Activity.class).create().get();
 
-    view = new View(activity);
-
-    when(episodeViewInflaterMock.inflate((View) anyObject())).thenReturn(inflaterWithMock);
-    when(inflaterWithMock.with((Episode) anyObject())).thenReturn(inflaterFromMock);
-    when(inflaterFromMock.from((ViewGroup) anyObject())).thenReturn(view);
-
     parent = new ViewGroup(activity) {
       @Override
       protected void onLayout(boolean changed, int l, int t, int r, int b) {
       }
     };
+
+    when(episodeViewInflaterMock.createViewHolder(parent)).thenReturn(episodeViewHolderMock);
   }
 
   @Test
   public void itReturnsEpisodesCount() {
-    List<Episode> episodes = asList(new Episode());
-    EpisodeListAdapter episodeListAdapter = new EpisodeListAdapter(episodes, episodeViewInflaterMock);
+    List<EpisodeRow> episodeRows = EpisodeRow.from(activity, asList(new Episode()));
+    EpisodeListAdapter episodeListAdapter = new EpisodeListAdapter(episodeRows, episodeViewInflaterMock);
 
-    assertThat(episodeListAdapter.getCount(), is(episodes.size()));
+    assertThat(episodeListAdapter.getItemCount(), is(episodeRows.size()));
   }
 
   @Test
   public void itInflatesEpisode() {
-    List<Episode> episodes = asList(new Episode());
-    EpisodeListAdapter episodeListAdapter = new EpisodeListAdapter(episodes, episodeViewInflaterMock);
+    List<EpisodeRow> episodeRows = EpisodeRow.from(activity, asList(new Episode()));
+    EpisodeListAdapter episodeListAdapter = new EpisodeListAdapter(episodeRows, episodeViewInflaterMock);
+
+    episodeListAdapter.onBindViewHolder(
+        episodeListAdapter.onCreateViewHolder(parent, 0), firstPosition
+    );
+
+    verify(episodeViewInflaterMock).createViewHolder(parent);
+    verify(episodeViewHolderMock).bind(episodeRows.get(firstPosition));
+  }
+
+  @Test
+  public void itHasNoStableIdForEpisodesWithoutAudio() {
+    List<EpisodeRow> episodeRows = EpisodeRow.from(activity, asList(new Episode(), new Episode()));
+    EpisodeListAdapter episodeListAdapter = new EpisodeListAdapter(episodeRows, episodeViewInflaterMock);
+
+    assertThat(episodeListAdapter.getItemId(0), is(RecyclerView.NO_ID));
+    assertThat(episodeListAdapter.getItemId(1), is(RecyclerView.NO_ID));
+  }
+
+  @Test
+  public void itAppendsNextPageOfEpisodes() {
+    Episode nextEpisode = new Episode();
+    EpisodeListAdapter episodeListAdapter = adapterWith(EpisodeRow.from(activity, asList(new Episode())));
+
+    episodeListAdapter.addEpisodeRows(EpisodeRow.from(activity, asList(nextEpisode)));
+
+    assertThat(episodeListAdapter.getItemCount(), is(2));
+    assertThat(episodeListAdapter.getItem(1), is(nextEpisode));
+    assertThat(notifications, is(asList("insert 1 1")));
+  }
+
+  @Test
+  public void itHasStableIdsAcrossRefreshes() {
+    EpisodeListAdapter episodeListAdapter = adapterWith(rows("a", "b"));
+    long itemId = episodeListAdapter.getItemId(1);
+
+    episodeListAdapter.applyDiff(EpisodeRowsDiff.between(episodeListAdapter.getEpisodeRows(), rows("new", "a", "b")));
+
+    assertThat(episodeListAdapter.hasStableIds(), is(true));
+    assertThat(episodeListAdapter.getItemId(2), is(itemId));
+    assertThat(episodeListAdapter.getItemId(0), is(not(itemId)));
+  }
+
+  @Test
+  public void itNotifiesPrependedEpisodesAsASingleInsertion() {
+    EpisodeListAdapter episodeListAdapter = adapterWith(rows("a", "b"));
+
+    episodeListAdapter.applyDiff(
+        EpisodeRowsDiff.between(episodeListAdapter.getEpisodeRows(), rows("new1", "new2", "a", "b"))
+    );
+
+    assertThat(notifications, is(asList("insert 0 2")));
+    assertThat(episodeListAdapter.getItemCount(), is(4));
+  }
+
+  @Test
+  public void itNotifiesRemovedMovedAndChangedEpisodes() {
+    EpisodeListAdapter episodeListAdapter = adapterWith(rows("a", "b", "c", "d"));
+    List<EpisodeRow> newRows = rows("c", "a", "d");
+    newRows.set(2, row("d", "Renamed d"));
+
+    episodeListAdapter.applyDiff(EpisodeRowsDiff.between(episodeListAdapter.getEpisodeRows(), newRows));
+
+    assertThat(notifications, is(asList("remove 1 1", "move 1 0", "change 2 1")));
+    assertThat(episodeListAdapter.getEpisodeRows(), is(newRows));
+  }
+
+  @Test
+  public void itDoesNotNotifyWhenNothingChanged() {
+    EpisodeListAdapter episodeListAdapter = adapterWith(rows("a", "b"));
+
+    episodeListAdapter.applyDiff(EpisodeRowsDiff.between(episodeListAdapter.getEpisodeRows(), rows("a", "b")));
+
+    assertThat(notifications.isEmpty(), is(true));
+  }
+
+  @Test
+  public void itReloadsEverythingWhenDiffIsStale() {
+    EpisodeListAdapter episodeListAdapter = adapterWith(rows("a"));
+    EpisodeRowsDiff staleDiff = EpisodeRowsDiff.between(episodeListAdapter.getEpisodeRows(), rows("b", "a"));
+
+    episodeListAdapter.addEpisodeRows(rows("c"));
+    notifications.clear();
+    episodeListAdapter.applyDiff(staleDiff);
+
+    assertThat(notifications, is(asList("reload")));
+    assertThat(episodeListAdapter.getItemCount(), is(2));
+  }
+
+  private EpisodeListAdapter adapterWith(List<EpisodeRow> episodeRows) {
+    EpisodeListAdapter episodeListAdapter = new EpisodeListAdapter(episodeRows, episodeViewInflaterMock);
+    episodeListAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+      @Override
+      public void onChanged() {
+        notifications.add("reload");
+      }
+
+      @Override
+      public void onItemRangeChanged(int positionStart, int itemCount) {
+        notifications.add("change " + positionStart + " " + itemCount);
+      }
+
+      @Override
+      public void onItemRangeInserted(int positionStart, int itemCount) {
+        notifications.add("insert " + positionStart + " " + itemCount);
+      }
+
+      @Override
+      public void onItemRangeRemoved(int positionStart, int itemCount) {
+        notifications.add("remove " + positionStart + " " + itemCount);
+      }
+
+      @Override
+      public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        notifications.add("move " + fromPosition + " " + toPosition);
+      }
+    });
+
+    return episodeListAdapter;
+  }
+
+  private List<EpisodeRow> rows(String... ids) {
+    List<EpisodeRow> episodeRows = new ArrayList<>();
+    for (String id : ids) {
+      episodeRows.add(row(id, "Episode " + id));
+    }
+
+    return episodeRows;
+  }
 
-    episodeListAdapter.getView(firstPosition, view, parent);
+  private EpisodeRow row(String id, String title) {
+    Episode episode = gson.fromJson(
+        "{\"title\": \"" + title + "\", \"audio\": {\"url\": \"http://example.com/" + id + ".mp3\"}}",
+        Episode.class
+    );
 
-    verify(episodeViewInflaterMock).inflate(view);
-    verify(inflaterWithMock).with(episodes.get(firstPosition));
-    verify(inflaterFromMock).from(parent);
+    return EpisodeRow.from(activity, episode);
   }
-}
\ No newline at end of file
+}
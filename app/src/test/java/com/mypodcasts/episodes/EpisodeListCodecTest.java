@@ -0,0 +1,139 @@
+package com.mypodcasts.episodes;
+
+import android.os.Parcel;
+
+import com.google.gson.Gson;
+import com.mypodcasts.BuildConfig;
+import com.mypodcasts.repositories.models.Episode;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class EpisodeListCodecTest {
+
+  private static final int EPISODES = 1000;
+
+  Gson gson = new Gson();
+  String json = episodesJson(EPISODES);
+
+  @Test
+  public void itRoundTripsEpisodeListThroughParcel() {
+    EpisodeList episodeList = gson.fromJson(json, EpisodeList.class);
+
+    EpisodeList copy = unparcel(parcel(episodeList));
+
+    assertThat(copy.getEpisodes().size(), is(EPISODES));
+    assertThat(copy.getFeedId(), is("123456"));
+
+    Episode episode = copy.getEpisodes().get(EPISODES - 1);
+    assertThat(episode.getTitle(), is("Episode 999"));
+    assertThat(episode.getAudioUrl(), is("http://example.com/999.mp3"));
+    assertThat(episode.getPodcast().getTitle(), is("Some podcast"));
+    assertThat(episode.getImage().getUrl(), is("http://example.com/999.png"));
+  }
+
+  @Test
+  public void itEncodesEpisodeListSmallerThanJavaSerialization() throws IOException {
+    EpisodeList episodeList = gson.fromJson(json, EpisodeList.class);
+    SerializableEpisodeList serializableList = gson.fromJson(json, SerializableEpisodeList.class);
+
+    assertTrue(parcel(episodeList).length < serialize(serializableList).length);
+  }
+
+  private byte[] parcel(EpisodeList episodeList) {
+    Parcel parcel = Parcel.obtain();
+    try {
+      episodeList.writeToParcel(parcel, 0);
+      return parcel.marshall();
+    } finally {
+      parcel.recycle();
+    }
+  }
+
+  private EpisodeList unparcel(byte[] bytes) {
+    Parcel parcel = Parcel.obtain();
+    try {
+      parcel.unmarshall(bytes, 0, bytes.length);
+      parcel.setDataPosition(0);
+      return EpisodeList.CREATOR.createFromParcel(parcel);
+    } finally {
+      parcel.recycle();
+    }
+  }
+
+  private byte[] serialize(Serializable value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(value);
+    out.close();
+
+    return bytes.toByteArray();
+  }
+
+  private String episodesJson(int count) {
+    StringBuilder episodes = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) { episodes.append(","); }
+
+      episodes.append(format(
+          "{\"title\": \"Episode %1$d\", " +
+              "\"publishedDate\": \"2015-09-23T15:00:00.000Z\", " +
+              "\"description\": \"<p>Description of episode %1$d</p>\", " +
+              "\"duration\": \"01:02:03\", " +
+              "\"audio\": {\"url\": \"http://example.com/%1$d.mp3\", \"length\": \"12345678\", \"type\": \"audio/mpeg\"}, " +
+              "\"podcast\": {\"id\": \"123456\", \"title\": \"Some podcast\", \"image\": {\"url\": \"http://example.com/podcast.png\"}}, " +
+              "\"image\": {\"url\": \"http://example.com/%1$d.png\"}}",
+          i
+      ));
+    }
+
+    return "{\"feedId\": \"123456\", \"episodes\": [" + episodes + "]}";
+  }
+
+  // Mirrors the field layout the models had while they were Serializable
+  static class SerializableEpisodeList implements Serializable {
+    List<SerializableEpisode> episodes;
+    String feedId;
+  }
+
+  static class SerializableEpisode implements Serializable {
+    String title;
+    String publishedDate;
+    String description;
+    String duration;
+    SerializableAudio audio;
+    SerializablePodcast podcast;
+    SerializableImage image;
+  }
+
+  static class SerializableAudio implements Serializable {
+    String url;
+    String length;
+    String type;
+  }
+
+  static class SerializablePodcast implements Serializable {
+    String id;
+    String title;
+    SerializableImage image;
+  }
+
+  static class SerializableImage implements Serializable {
+    String url;
+  }
+}
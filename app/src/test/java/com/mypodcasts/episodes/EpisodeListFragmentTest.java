@@ -3,20 +3,20 @@ package com.mypodcasts.episodes;
 import android.app.Activity;
 import android.content.Intent;
 import android.os.Bundle;
+import android.support.v7.widget.RecyclerView;
 import android.view.View;
-import android.widget.ListView;
 import android.widget.TextView;
 
 import com.android.volley.toolbox.ImageLoader;
 import com.android.volley.toolbox.NetworkImageView;
+import com.google.gson.Gson;
 import com.google.inject.AbstractModule;
 import com.mypodcasts.BuildConfig;
 import com.mypodcasts.R;
 import com.mypodcasts.player.AudioPlayerActivity;
+import com.mypodcasts.repositories.EpisodeStore;
 import com.mypodcasts.repositories.models.Episode;
 
-import org.hamcrest.CoreMatchers;
-import org.hamcrest.Matcher;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -24,10 +24,12 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
-import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
-import static com.mypodcasts.util.ListViewHelper.performItemClickAtPosition;
+import static com.mypodcasts.repositories.Api.PAGE_SIZE;
+import static com.mypodcasts.util.RecyclerViewHelper.getItemCount;
+import static com.mypodcasts.util.RecyclerViewHelper.performItemClickAtPosition;
 import static java.lang.String.valueOf;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -45,11 +47,12 @@ import static roboguice.RoboGuice.overrideApplicationInjector;
 public class EpisodeListFragmentTest {
 
   EpisodeListFragment fragment;
-  ListView listView;
+  RecyclerView listView;
 
   List<Episode> emptyList = emptyList();
 
   ImageLoader imageLoaderMock = mock(ImageLoader.class);
+  EpisodeRegistry episodeRegistry = new EpisodeRegistry(mock(EpisodeStore.class));
 
   @Before
   public void setup() {
@@ -102,14 +105,14 @@ public class EpisodeListFragmentTest {
   public void itLoadsEpisodesOnCreate() {
     createFragment();
 
-    assertThat(listView.getCount(), is(0));
+    assertThat(getItemCount(listView), is(0));
   }
 
   @Test
   public void itLoadsEpisodesWhenThereAreEpisodesOnCreate() {
     createFragmentWith(asList(anEpisode(), anEpisode()));
 
-    assertThat(listView.getCount(), is(2));
+    assertThat(getItemCount(listView), is(2));
   }
 
   @Test
@@ -117,7 +120,7 @@ public class EpisodeListFragmentTest {
     List<Episode> nullEpisodeList = null;
     createFragmentWith(nullEpisodeList);
 
-    assertThat(listView.getCount(), is(0));
+    assertThat(getItemCount(listView), is(0));
   }
 
   @Test
@@ -135,21 +138,61 @@ public class EpisodeListFragmentTest {
 
   @Test
   public void itOpensAPlayerOnItemClickPassingAnEpisodeToBeOpenned() {
-    Episode episode1 = anEpisode();
-    Episode episode2 = anEpisode();
+    Episode episode1 = anEpisode("http://example.com/episode1.mp3");
+    Episode episode2 = anEpisode("http://example.com/episode2.mp3");
     createFragmentWith(asList(episode1, episode2));
 
     int secondPosition = 1;
-    Matcher<Serializable> serializedEpisode2 = CoreMatchers.<Serializable>is(episode2);
 
     performItemClickAtPosition(listView, secondPosition);
 
     Intent intent = peekNextStartedActivity();
+    String episodeId = intent.getStringExtra(Episode.class.toString());
 
-    assertThat(
-        intent.getSerializableExtra(Episode.class.toString()),
-        serializedEpisode2
-    );
+    assertThat(episodeId, is("http://example.com/episode2.mp3"));
+    assertThat(episodeRegistry.getEpisode(episodeId), is(episode2));
+  }
+
+  @Test
+  public void itShowsAnEmptyListWhenRegisteredListIsGone() {
+    Bundle arguments = new Bundle();
+    arguments.putParcelable(EpisodeList.HEADER, new EpisodeListHeaderInfo((String) null));
+    arguments.putString(EpisodeList.LIST, "feed/gone");
+
+    fragment = new EpisodeListFragment();
+    fragment.setArguments(arguments);
+
+    startFragment(fragment);
+
+    listView = (RecyclerView) getView().findViewById(R.id.episodes_list_view);
+    assertThat(getItemCount(listView), is(0));
+  }
+
+  @Test
+  public void itKeepsRowIdentityWhenRefreshedWithNewerEpisodes() {
+    Episode episode1 = anEpisode("http://example.com/episode1.mp3");
+    Episode episode2 = anEpisode("http://example.com/episode2.mp3");
+    createFragmentWith(asList(episode1));
+    long itemId = listView.getAdapter().getItemId(0);
+
+    fragment.refresh(new EpisodeList(asList(episode2, episode1)));
+
+    assertThat(getItemCount(listView), is(2));
+    assertThat(listView.getAdapter().getItemId(1), is(itemId));
+  }
+
+  @Test
+  public void itKeepsLoadedPagesWhenRefreshedWithTheFirstPage() {
+    List<Episode> loadedEpisodes = new ArrayList<>();
+    for (int i = 0; i < PAGE_SIZE + 5; i++) {
+      loadedEpisodes.add(anEpisode("http://example.com/episode" + i + ".mp3"));
+    }
+    createFragmentWith(loadedEpisodes);
+
+    fragment.refresh(new EpisodeList(loadedEpisodes.subList(0, PAGE_SIZE)));
+
+    assertThat(getItemCount(listView), is(PAGE_SIZE + 5));
+    assertThat(episodeRegistry.getEpisodeList("latest_episodes").getEpisodes().size(), is(PAGE_SIZE + 5));
   }
 
   private void createFragment() {
@@ -157,7 +200,7 @@ public class EpisodeListFragmentTest {
   }
 
   void createFragmentWith(List<Episode> episodes) {
-    createFragmentWith(new EpisodeListHeaderInfo(null), episodes);
+    createFragmentWith(new EpisodeListHeaderInfo((String) null), episodes);
   }
 
   void createFragmentWith(EpisodeListHeaderInfo headerInfo) {
@@ -166,10 +209,10 @@ public class EpisodeListFragmentTest {
 
   void createFragmentWith(EpisodeListHeaderInfo headerInfo, List<Episode> episodes) {
     Bundle arguments = new Bundle();
-    arguments.putSerializable(EpisodeList.HEADER, headerInfo);
-    arguments.putSerializable(
+    arguments.putParcelable(EpisodeList.HEADER, headerInfo);
+    arguments.putString(
         EpisodeList.LIST,
-        new EpisodeList(episodes)
+        episodeRegistry.putEpisodeList(new EpisodeList(episodes))
     );
 
     fragment = new EpisodeListFragment();
@@ -177,7 +220,7 @@ public class EpisodeListFragmentTest {
 
     startFragment(fragment);
 
-    listView = (ListView) getView().findViewById(R.id.episodes_list_view);
+    listView = (RecyclerView) getView().findViewById(R.id.episodes_list_view);
   }
 
   private Intent peekNextStartedActivity() {
@@ -189,6 +232,10 @@ public class EpisodeListFragmentTest {
     return new Episode();
   }
 
+  private Episode anEpisode(String audioUrl) {
+    return new Gson().fromJson("{\"audio\": {\"url\": \"" + audioUrl + "\"}}", Episode.class);
+  }
+
   private View getView() {
     return fragment.getView();
   }
@@ -197,6 +244,7 @@ public class EpisodeListFragmentTest {
     @Override
     protected void configure() {
       bind(ImageLoader.class).toInstance(imageLoaderMock);
+      bind(EpisodeRegistry.class).toInstance(episodeRegistry);
     }
   }
 }
\ No newline at end of file
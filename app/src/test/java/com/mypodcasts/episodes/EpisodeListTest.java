@@ -0,0 +1,66 @@
+package com.mypodcasts.episodes;
+
+import com.google.gson.Gson;
+import com.mypodcasts.repositories.models.Episode;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mypodcasts.repositories.Api.PAGE_SIZE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class EpisodeListTest {
+
+  @Test
+  public void itAppendsPagesToTheLoadedEpisodes() {
+    EpisodeList episodeList = new EpisodeList(episodes(0, PAGE_SIZE), "123");
+
+    EpisodeList appendedList = episodeList.append(episodes(PAGE_SIZE, 5));
+
+    assertThat(appendedList.getEpisodes().size(), is(PAGE_SIZE + 5));
+    assertThat(appendedList.getFeedId(), is("123"));
+  }
+
+  @Test
+  public void itKeepsLoadedPagesWhenFirstPageIsRefreshed() {
+    EpisodeList episodeList = new EpisodeList(episodes(0, PAGE_SIZE + 5));
+    List<Episode> firstPage = episodes(-1, PAGE_SIZE);
+
+    List<Episode> refreshedEpisodes = episodeList.withFirstPage(new EpisodeList(firstPage)).getEpisodes();
+
+    assertThat(refreshedEpisodes.size(), is(PAGE_SIZE + 6));
+    assertThat(refreshedEpisodes.get(0), is(sameInstance(firstPage.get(0))));
+    assertThat(refreshedEpisodes.get(PAGE_SIZE).getAudioUrl(), is(audioUrl(PAGE_SIZE - 1)));
+  }
+
+  @Test
+  public void itTakesTheFirstPageWhenNoFurtherPagesWereLoaded() {
+    EpisodeList firstPage = new EpisodeList(episodes(-1, PAGE_SIZE));
+
+    assertThat(new EpisodeList(episodes(0, PAGE_SIZE)).withFirstPage(firstPage), is(sameInstance(firstPage)));
+  }
+
+  @Test
+  public void itTakesTheFirstPageWhenItDoesNotOverlapLoadedPages() {
+    EpisodeList firstPage = new EpisodeList(episodes(100, PAGE_SIZE));
+
+    assertThat(new EpisodeList(episodes(0, PAGE_SIZE + 5)).withFirstPage(firstPage), is(sameInstance(firstPage)));
+  }
+
+  private List<Episode> episodes(int first, int count) {
+    List<Episode> episodes = new ArrayList<>(count);
+    for (int i = first; i < first + count; i++) {
+      episodes.add(new Gson().fromJson("{\"audio\": {\"url\": \"" + audioUrl(i) + "\"}}", Episode.class));
+    }
+
+    return episodes;
+  }
+
+  private String audioUrl(int i) {
+    return "http://example.com/episode" + i + ".mp3";
+  }
+}
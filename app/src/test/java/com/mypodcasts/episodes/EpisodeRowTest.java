@@ -0,0 +1,111 @@
+package com.mypodcasts.episodes;
+
+import android.app.Activity;
+
+import com.google.gson.Gson;
+import com.mypodcasts.BuildConfig;
+import com.mypodcasts.R;
+import com.mypodcasts.repositories.models.Episode;
+
+import org.joda.time.DateTimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.robolectric.Robolectric.buildActivity;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class EpisodeRowTest {
+
+  private static final int EPISODES = 20;
+
+  Activity activity;
+  Gson gson = new Gson();
+
+  TimeZone defaultTimeZone;
+  DateTimeZone defaultDateTimeZone;
+  Locale defaultLocale;
+
+  @Before
+  public void setup() {
+    defaultTimeZone = TimeZone.getDefault();
+    defaultDateTimeZone = DateTimeZone.getDefault();
+    defaultLocale = Locale.getDefault();
+    TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    DateTimeZone.setDefault(DateTimeZone.UTC);
+    Locale.setDefault(Locale.US);
+
+    activity = buildActivity(Activity.class).create().get();
+  }
+
+  @After
+  public void teardown() {
+    TimeZone.setDefault(defaultTimeZone);
+    DateTimeZone.setDefault(defaultDateTimeZone);
+    Locale.setDefault(defaultLocale);
+  }
+
+  @Test
+  public void itPreformatsPublishedDate() {
+    EpisodeRow episodeRow = EpisodeRow.from(activity, anEpisode(1));
+
+    assertThat(episodeRow.getPublishedDate(), is("SEP 23, 2015"));
+  }
+
+  @Test
+  public void itHasNoPublishedDateWhenEpisodeHasNone() {
+    EpisodeRow episodeRow = EpisodeRow.from(activity, new Episode());
+
+    assertThat(episodeRow.getPublishedDate(), is(nullValue()));
+  }
+
+  @Test
+  public void itPreformatsAudioLength() {
+    EpisodeRow episodeRow = EpisodeRow.from(activity, anEpisode(1));
+
+    assertThat(episodeRow.getAudioLength(), is("57MB"));
+  }
+
+  @Test
+  public void itFallsBackToDefaultImageUrl() {
+    EpisodeRow episodeRow = EpisodeRow.from(activity, new Episode());
+
+    assertThat(episodeRow.getImageUrl(), is(activity.getString(R.string.episode_default_image)));
+  }
+
+  @Test
+  public void itPrecomputesOneRowPerEpisodeInOrder() {
+    List<Episode> episodes = new ArrayList<>();
+    for (int i = 0; i < EPISODES; i++) {
+      episodes.add(anEpisode(i));
+    }
+
+    List<EpisodeRow> episodeRows = EpisodeRow.from(activity, episodes);
+
+    assertThat(episodeRows.size(), is(EPISODES));
+    assertThat(episodeRows.get(EPISODES - 1).getTitle(), is("Episode " + (EPISODES - 1)));
+    assertThat(episodeRows.get(EPISODES - 1).getEpisode(), is(episodes.get(EPISODES - 1)));
+  }
+
+  private Episode anEpisode(int i) {
+    return gson.fromJson(
+        "{\"title\": \"Episode " + i + "\", " +
+            "\"publishedDate\": \"2015-09-23T15:00:00.000Z\", " +
+            "\"duration\": \"01:02:03\", " +
+            "\"audio\": {\"url\": \"http://example.com/" + i + ".mp3\", \"length\": \"60000000\"}}",
+        Episode.class
+    );
+  }
+}
@@ -7,6 +7,7 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageButton;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import com.android.volley.toolbox.ImageLoader;
@@ -17,6 +18,7 @@ import com.mypodcasts.player.AudioPlayerActivity;
 import com.mypodcasts.repositories.models.Audio;
 import com.mypodcasts.repositories.models.Episode;
 import com.mypodcasts.repositories.models.Image;
+import com.mypodcasts.support.DownloadProgress;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -26,11 +28,13 @@ import org.robolectric.annotation.Config;
 
 import java.util.Date;
 
+import static android.view.View.GONE;
 import static android.view.View.INVISIBLE;
 import static android.view.View.VISIBLE;
 import static java.lang.String.valueOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.joda.time.DateTime.parse;
 import static org.joda.time.format.DateTimeFormat.forPattern;
 import static org.junit.Assert.assertThat;
@@ -55,6 +59,7 @@ public class EpisodeViewInflaterTest {
 
   ImageLoader imageLoaderMock = mock(ImageLoader.class);
   EpisodeDownloader episodeDownloaderMock = mock(EpisodeDownloader.class);
+  EpisodeRegistry episodeRegistryMock = mock(EpisodeRegistry.class);
 
   @Before
   public void setup() {
@@ -68,11 +73,18 @@ public class EpisodeViewInflaterTest {
       }
     };
 
-    episodeViewInflater = new EpisodeViewInflater(activity, imageLoaderMock, episodeDownloaderMock);
+    episodeViewInflater = new EpisodeViewInflater(
+        activity, imageLoaderMock, episodeDownloaderMock, episodeRegistryMock
+    );
   }
 
   private View inflateView(View view, Episode episode) {
-    return episodeViewInflater.inflate(view).with(episode).from(parent);
+    EpisodeViewInflater.EpisodeViewHolder episodeViewHolder = view == null
+        ? episodeViewInflater.createViewHolder(parent)
+        : (EpisodeViewInflater.EpisodeViewHolder) view.getTag();
+    episodeViewHolder.bind(EpisodeRow.from(activity, episode));
+
+    return episodeViewHolder.itemView;
   }
 
   private View inflateView(Episode episode) {
@@ -93,7 +105,7 @@ public class EpisodeViewInflaterTest {
 
   @Test
   public void itDoesNotInflateViewWhenViewIsAlreadySet() {
-    View view = spiedLayoutInflater.inflate(R.layout.episode_list_item, parent, false);
+    View view = inflateView(new Episode());
 
     inflateView(view, new Episode());
     inflateView(view, new Episode());
@@ -123,8 +135,8 @@ public class EpisodeViewInflaterTest {
   public void itSetsEpisodeDescription() {
     Episode episode = new Episode() {
       @Override
-      public String getDescription() {
-        return "<span>Awesome Episode</span>";
+      public String getSummary() {
+        return "Awesome Episode";
       }
     };
 
@@ -140,8 +152,8 @@ public class EpisodeViewInflaterTest {
   public void itEllipsizeDescriptionWithMaxLines() {
     Episode episode = new Episode() {
       @Override
-      public String getDescription() {
-        return "<span>Awesome Episode</span>";
+      public String getSummary() {
+        return "Awesome Episode";
       }
     };
 
@@ -309,6 +321,24 @@ public class EpisodeViewInflaterTest {
     );
   }
 
+  @Test
+  public void itOpensAPlayerPassingOnlyTheRegisteredEpisodeId() {
+    Episode episode = new Episode();
+    when(episodeRegistryMock.putEpisode(episode)).thenReturn("http://example.com/audio.mp3");
+
+    View inflatedView = inflateView(episode);
+    ImageButton mediaPlayButton = (ImageButton) inflatedView.findViewById(R.id.media_play_button);
+
+    mediaPlayButton.performClick();
+
+    Activity context = (Activity) mediaPlayButton.getContext();
+    Intent intent = shadowOf(context).peekNextStartedActivity();
+    assertThat(
+        intent.getStringExtra(Episode.class.toString()),
+        is("http://example.com/audio.mp3")
+    );
+  }
+
   @Test
   public void itDoesNotOpenAPlayerWhenMediaPlayButtonIsNotClicked() {
     Episode episode = new Episode();
@@ -392,10 +422,83 @@ public class EpisodeViewInflaterTest {
 
     when(episodeDownloaderMock.isAlreadyDownloaded(episode)).thenReturn(false);
 
-    View recycledView = episodeViewInflater.inflate(inflatedView).with(episode).from(parent);
+    View recycledView = inflateView(inflatedView, episode);
     ViewGroup visibleDownloadButtonLayout = (ViewGroup) recycledView
         .findViewById(R.id.episode_download_layout);
 
     assertThat(visibleDownloadButtonLayout.getVisibility(), is(VISIBLE));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void itShowsDownloadProgressWhileEpisodeIsDownloading() {
+    Episode episode = new Episode();
+    when(episodeDownloaderMock.isDownloading(episode)).thenReturn(true);
+
+    View inflatedView = inflateView(episode);
+    ProgressBar progressBar = (ProgressBar) inflatedView.findViewById(R.id.episode_download_progress);
+
+    assertThat(progressBar.getVisibility(), is(VISIBLE));
+    assertThat(inflatedView.findViewById(R.id.episode_download_button).getVisibility(), is(GONE));
+  }
+
+  @Test
+  public void itHidesDownloadProgressWhenEpisodeIsNotDownloading() {
+    Episode episode = new Episode();
+
+    View inflatedView = inflateView(episode);
+    ProgressBar progressBar = (ProgressBar) inflatedView.findViewById(R.id.episode_download_progress);
+
+    assertThat(progressBar.getVisibility(), is(GONE));
+    assertThat(inflatedView.findViewById(R.id.episode_download_button).getVisibility(), is(VISIBLE));
+  }
+
+  @Test
+  public void itUpdatesDownloadProgressOfABoundRow() {
+    View inflatedView = inflateView(new Episode());
+    EpisodeViewInflater.EpisodeViewHolder episodeViewHolder = (EpisodeViewInflater.EpisodeViewHolder) inflatedView.getTag();
+
+    episodeViewHolder.showDownloadProgress(new DownloadProgress("http://example.com/audio.mp3", 25, 100));
+
+    ProgressBar progressBar = (ProgressBar) inflatedView.findViewById(R.id.episode_download_progress);
+    assertThat(progressBar.isIndeterminate(), is(false));
+    assertThat(progressBar.getProgress(), is(25));
+  }
+
+  @Test
+  public void itDownloadsTheEpisodeCurrentlyBoundToARecycledView() {
+    Episode firstEpisode = new Episode();
+    Episode secondEpisode = new Episode();
+
+    View recycledView = inflateView(inflateView(firstEpisode), secondEpisode);
+    recycledView.findViewById(R.id.episode_download_button).performClick();
+
+    verify(episodeDownloaderMock).download(secondEpisode);
+    verify(episodeDownloaderMock, never()).download(firstEpisode);
+  }
+
+  @Test
+  public void itReusesViewHolderAndClickListenersWhenBindingRecycledViews() {
+    View view = inflateView(new Episode());
+    Object episodeViewHolder = view.getTag();
+    View.OnClickListener rowClickListener = shadowOf(view).getOnClickListener();
+    View.OnClickListener mediaPlayClickListener =
+        shadowOf(view.findViewById(R.id.media_play_button)).getOnClickListener();
+    View.OnClickListener downloadClickListener =
+        shadowOf(view.findViewById(R.id.episode_download_button)).getOnClickListener();
+
+    inflateView(view, new Episode());
+    View anotherView = inflateView(new Episode());
+
+    assertThat(view.getTag(), sameInstance(episodeViewHolder));
+    assertThat(shadowOf(view).getOnClickListener(), sameInstance(rowClickListener));
+    assertThat(shadowOf(anotherView).getOnClickListener(), sameInstance(rowClickListener));
+    assertThat(
+        shadowOf(anotherView.findViewById(R.id.media_play_button)).getOnClickListener(),
+        sameInstance(mediaPlayClickListener)
+    );
+    assertThat(
+        shadowOf(anotherView.findViewById(R.id.episode_download_button)).getOnClickListener(),
+        sameInstance(downloadClickListener)
+    );
+  }
+}
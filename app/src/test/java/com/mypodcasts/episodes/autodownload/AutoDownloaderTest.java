@@ -0,0 +1,113 @@
+package com.mypodcasts.episodes.autodownload;
+
+import com.google.gson.Gson;
+import com.mypodcasts.episodes.EpisodeDownloader;
+import com.mypodcasts.repositories.UserFeedsRepository;
+import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.repositories.models.Feed;
+import com.mypodcasts.support.Download;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AutoDownloaderTest {
+
+  UserFeedsRepository userFeedsRepositoryMock = mock(UserFeedsRepository.class);
+  EpisodeDownloader episodeDownloaderMock = mock(EpisodeDownloader.class);
+  AutoDownloadWatermark autoDownloadWatermarkMock = mock(AutoDownloadWatermark.class);
+  AutoDownloader autoDownloader;
+
+  Gson gson = new Gson();
+
+  Feed feed = gson.fromJson(
+      "{\"id\": \"123456\", \"title\": \"Some podcast\", \"episodes\": [" +
+          "{\"title\": \"Brand New Episode\", \"publishedDate\": \"2015-09-30T15:00:00.000Z\"}," +
+          "{\"title\": \"Newest Episode!\", \"publishedDate\": \"2015-09-23T15:00:00.000Z\"}," +
+          "{\"title\": \"Older Episode\", \"publishedDate\": \"2015-09-16T15:00:00.000Z\"}" +
+          "]}",
+      Feed.class
+  );
+
+  Episode brandNewEpisode = feed.getEpisodes().get(0);
+  Episode newestEpisode = feed.getEpisodes().get(1);
+  Episode olderEpisode = feed.getEpisodes().get(2);
+
+  Download downloadMock = mock(Download.class);
+
+  @Before
+  public void setup() {
+    when(episodeDownloaderMock.download(any(Episode.class), anyInt())).thenReturn(downloadMock);
+    when(userFeedsRepositoryMock.syncFeeds()).thenReturn(asList(feed));
+    when(userFeedsRepositoryMock.syncFeed("123456")).thenReturn(feed);
+
+    autoDownloader = new AutoDownloader(
+        userFeedsRepositoryMock, episodeDownloaderMock, autoDownloadWatermarkMock
+    );
+  }
+
+  @Test
+  public void itDownloadsEpisodesNewerThanWatermarkWithLowPriority() {
+    when(autoDownloadWatermarkMock.get(feed)).thenReturn("2015-09-16T15:00:00.000Z");
+
+    List<Download> enqueued = autoDownloader.downloadNewEpisodes();
+
+    assertThat(enqueued, is(asList(downloadMock, downloadMock)));
+    verify(episodeDownloaderMock).download(brandNewEpisode, Download.PRIORITY_LOW);
+    verify(episodeDownloaderMock).download(newestEpisode, Download.PRIORITY_LOW);
+    verify(episodeDownloaderMock, never()).download(olderEpisode, Download.PRIORITY_LOW);
+  }
+
+  @Test
+  public void itOnlyDownloadsTheNewestEpisodeOfAFeedSeenForTheFirstTime() {
+    List<Download> enqueued = autoDownloader.downloadNewEpisodes();
+
+    assertThat(enqueued, is(asList(downloadMock)));
+    verify(episodeDownloaderMock).download(brandNewEpisode, Download.PRIORITY_LOW);
+  }
+
+  @Test
+  public void itMovesWatermarkToNewestEpisode() {
+    autoDownloader.downloadNewEpisodes();
+
+    verify(autoDownloadWatermarkMock).mark(feed, "2015-09-30T15:00:00.000Z");
+  }
+
+  @Test
+  public void itSkipsEpisodesThatAreAlreadyDownloaded() {
+    when(autoDownloadWatermarkMock.get(feed)).thenReturn("2015-09-16T15:00:00.000Z");
+    when(episodeDownloaderMock.isAlreadyDownloaded(brandNewEpisode)).thenReturn(true);
+
+    autoDownloader.downloadNewEpisodes();
+
+    verify(episodeDownloaderMock, never()).download(brandNewEpisode, Download.PRIORITY_LOW);
+    verify(episodeDownloaderMock).download(newestEpisode, Download.PRIORITY_LOW);
+  }
+
+  @Test
+  public void itDoesNotDownloadAnythingWhenThereAreNoNewEpisodes() {
+    when(autoDownloadWatermarkMock.get(feed)).thenReturn("2015-09-30T15:00:00.000Z");
+
+    assertThat(autoDownloader.downloadNewEpisodes().isEmpty(), is(true));
+    verify(episodeDownloaderMock, never()).download(any(Episode.class), anyInt());
+  }
+
+  @Test
+  public void itOnlyReturnsDownloadsThatWereEnqueued() {
+    when(autoDownloadWatermarkMock.get(feed)).thenReturn("2015-09-16T15:00:00.000Z");
+    when(episodeDownloaderMock.download(brandNewEpisode, Download.PRIORITY_LOW)).thenReturn(null);
+
+    assertThat(autoDownloader.downloadNewEpisodes(), is(asList(downloadMock)));
+  }
+}
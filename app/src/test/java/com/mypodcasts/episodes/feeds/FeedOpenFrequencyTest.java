@@ -0,0 +1,55 @@
+package com.mypodcasts.episodes.feeds;
+
+import com.mypodcasts.BuildConfig;
+import com.mypodcasts.repositories.models.Feed;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.robolectric.RuntimeEnvironment.application;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class FeedOpenFrequencyTest {
+
+  FeedOpenFrequency feedOpenFrequency;
+
+  Feed aFeed = aFeed("1");
+  Feed anotherFeed = aFeed("2");
+
+  @Before
+  public void setup() {
+    feedOpenFrequency = new FeedOpenFrequency(application);
+  }
+
+  @Test
+  public void itCountsHowManyTimesFeedWasOpened() {
+    feedOpenFrequency.markOpened(aFeed);
+    feedOpenFrequency.markOpened(aFeed);
+
+    assertThat(feedOpenFrequency.getOpenCount(aFeed), is(2));
+    assertThat(feedOpenFrequency.getOpenCount(anotherFeed), is(0));
+  }
+
+  @Test
+  public void itSortsMostOpenedFeedsFirst() {
+    feedOpenFrequency.markOpened(anotherFeed);
+
+    assertThat(feedOpenFrequency.mostOpenedFirst(asList(aFeed, anotherFeed)), is(asList(anotherFeed, aFeed)));
+  }
+
+  private Feed aFeed(final String id) {
+    return new Feed() {
+      @Override
+      public String getId() {
+        return id;
+      }
+    };
+  }
+}
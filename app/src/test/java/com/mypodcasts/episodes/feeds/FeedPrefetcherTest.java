@@ -0,0 +1,128 @@
+package com.mypodcasts.episodes.feeds;
+
+import com.mypodcasts.repositories.UserFeedsRepository;
+import com.mypodcasts.repositories.models.Feed;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FeedPrefetcherTest {
+
+  UserFeedsRepository userFeedsRepositoryMock = mock(UserFeedsRepository.class);
+  FeedOpenFrequency feedOpenFrequencyMock = mock(FeedOpenFrequency.class);
+
+  Feed rarelyOpenedFeed = aFeed("1");
+  Feed oftenOpenedFeed = aFeed("2");
+  List<Feed> feeds = asList(rarelyOpenedFeed, oftenOpenedFeed);
+
+  @Test
+  public void itWarmsFeedsInOrderOfHowOftenTheyAreOpened() {
+    when(feedOpenFrequencyMock.mostOpenedFirst(feeds)).thenReturn(asList(oftenOpenedFeed, rarelyOpenedFeed));
+    FeedPrefetcher feedPrefetcher = new FeedPrefetcher(
+        userFeedsRepositoryMock, feedOpenFrequencyMock, directExecutor()
+    );
+
+    feedPrefetcher.prefetch(feeds);
+
+    InOrder order = inOrder(userFeedsRepositoryMock);
+    order.verify(userFeedsRepositoryMock).syncFeed("2");
+    order.verify(userFeedsRepositoryMock).syncFeed("1");
+  }
+
+  @Test
+  public void itBoundsHowManyFeedsAreFetchedConcurrently() {
+    List<Feed> manyFeeds = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      manyFeeds.add(aFeed(String.valueOf(i)));
+    }
+    when(feedOpenFrequencyMock.mostOpenedFirst(manyFeeds)).thenReturn(manyFeeds);
+    QueuedExecutor executor = new QueuedExecutor();
+    FeedPrefetcher feedPrefetcher = new FeedPrefetcher(
+        userFeedsRepositoryMock, feedOpenFrequencyMock, executor
+    );
+
+    feedPrefetcher.prefetch(manyFeeds);
+
+    assertThat(executor.tasks.size(), is(2));
+    verify(userFeedsRepositoryMock, never()).syncFeed(anyString());
+  }
+
+  @Test
+  public void itDoesNotStartAnotherPrefetchWhileOneIsRunning() {
+    when(feedOpenFrequencyMock.mostOpenedFirst(feeds)).thenReturn(feeds);
+    QueuedExecutor executor = new QueuedExecutor();
+    FeedPrefetcher feedPrefetcher = new FeedPrefetcher(
+        userFeedsRepositoryMock, feedOpenFrequencyMock, executor
+    );
+
+    feedPrefetcher.prefetch(feeds);
+    feedPrefetcher.prefetch(feeds);
+
+    assertThat(executor.tasks.size(), is(2));
+  }
+
+  @Test
+  public void itRevalidatesFeedsInsideItsOwnWorkers() {
+    when(feedOpenFrequencyMock.mostOpenedFirst(feeds)).thenReturn(feeds);
+    QueuedExecutor executor = new QueuedExecutor();
+    FeedPrefetcher feedPrefetcher = new FeedPrefetcher(
+        userFeedsRepositoryMock, feedOpenFrequencyMock, executor
+    );
+
+    feedPrefetcher.prefetch(feeds);
+    executor.tasks.get(0).run();
+
+    verify(userFeedsRepositoryMock).syncFeed("1");
+    verify(userFeedsRepositoryMock).syncFeed("2");
+    verify(userFeedsRepositoryMock, never()).getFeed(anyString());
+    assertThat(executor.tasks.size(), is(2));
+  }
+
+  @Test
+  public void itSkipsFeedsThatWereRevalidatedRecently() {
+    when(feedOpenFrequencyMock.mostOpenedFirst(feeds)).thenReturn(feeds);
+    when(userFeedsRepositoryMock.getFeedSyncedAt("1")).thenReturn(System.currentTimeMillis());
+    when(userFeedsRepositoryMock.getFeedSyncedAt("2")).thenReturn(-1L);
+    FeedPrefetcher feedPrefetcher = new FeedPrefetcher(
+        userFeedsRepositoryMock, feedOpenFrequencyMock, directExecutor()
+    );
+
+    feedPrefetcher.prefetch(feeds);
+
+    verify(userFeedsRepositoryMock, never()).syncFeed("1");
+    verify(userFeedsRepositoryMock).syncFeed("2");
+  }
+
+  private Feed aFeed(final String id) {
+    return new Feed() {
+      @Override
+      public String getId() {
+        return id;
+      }
+    };
+  }
+
+  class QueuedExecutor implements Executor {
+    List<Runnable> tasks = new ArrayList<>();
+
+    @Override
+    public void execute(Runnable task) {
+      tasks.add(task);
+    }
+  }
+}
@@ -4,7 +4,6 @@ import android.app.FragmentManager;
 import android.app.FragmentTransaction;
 import android.app.ProgressDialog;
 import android.content.Intent;
-import android.os.Bundle;
 
 import com.google.inject.AbstractModule;
 import com.mypodcasts.BuildConfig;
@@ -12,8 +11,12 @@ import com.mypodcasts.R;
 import com.mypodcasts.episodes.EpisodeList;
 import com.mypodcasts.episodes.EpisodeListFragment;
 import com.mypodcasts.episodes.EpisodeListHeaderInfo;
+import com.mypodcasts.episodes.EpisodeRegistry;
+import com.mypodcasts.episodes.autodownload.AutoDownloadScheduler;
 import com.mypodcasts.episodes.EpisodeViewInflater;
 import com.mypodcasts.episodes.feeds.FeedEpisodesActivity;
+import com.mypodcasts.repositories.EpisodeBatchListener;
+import com.mypodcasts.repositories.EpisodeStore;
 import com.mypodcasts.repositories.UserFeedsRepository;
 import com.mypodcasts.repositories.UserLatestEpisodesRepository;
 import com.mypodcasts.repositories.models.Episode;
@@ -28,7 +31,6 @@ import org.mockito.InOrder;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
-import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
 
@@ -36,6 +38,8 @@ import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -58,6 +62,9 @@ public class FeedEpisodesActivityTest {
   ProgressDialog progressDialogMock = mock(ProgressDialog.class);
   FragmentManager fragmentManager = mock(FragmentManager.class);
   FragmentTransaction transaction = mock(FragmentTransaction.class);
+  EpisodeStore episodeStoreMock = mock(EpisodeStore.class);
+  EpisodeRegistry episodeRegistry = new EpisodeRegistry(episodeStoreMock);
+  AutoDownloadScheduler autoDownloadSchedulerMock = mock(AutoDownloadScheduler.class);
 
   @Before
   public void setup() {
@@ -118,7 +125,7 @@ public class FeedEpisodesActivityTest {
     activity = createActivityWith(aFeed(expectedTitle));
 
     EpisodeListHeaderInfo headerInfo = (EpisodeListHeaderInfo) episodeListFragment.getArguments()
-        .getSerializable(EpisodeList.HEADER);
+        .getParcelable(EpisodeList.HEADER);
 
     assertThat(headerInfo.getTitle(), is(expectedTitle));
     assertThat(headerInfo.getImageUrl(), is(expectedImageUrl));
@@ -129,13 +136,32 @@ public class FeedEpisodesActivityTest {
     List<Episode> episodes = asList(anEpisode());
     activity = createActivityWith(aFeedWith(episodes));
 
-    Bundle arguments = episodeListFragment.getArguments();
-    Serializable serializable = arguments.getSerializable(EpisodeList.LIST);
-    EpisodeList episodeList = (EpisodeList) serializable;
+    EpisodeList episodeList = episodeRegistry.getEpisodeList(
+        episodeListFragment.getArguments().getString(EpisodeList.LIST)
+    );
 
     assertThat(episodeList.getEpisodes(), is(episodes));
   }
 
+  @Test
+  public void itLoadsFeedByIdWhenItIsNotRegistered() {
+    Feed feed = aFeed("Awesome Feed");
+    when(episodeStoreMock.getFeeds()).thenReturn(asList(feed));
+    when(fragmentManager.beginTransaction()).thenReturn(transaction);
+    when(transaction.replace(R.id.content_frame, episodeListFragment)).thenReturn(transaction);
+    when(userFeedsRepositoryMock.getFeed(eq("123"), any(EpisodeBatchListener.class)))
+        .thenReturn(feed);
+
+    Intent intent = new Intent(Intent.ACTION_VIEW);
+    intent.putExtra(Feed.class.toString(), "123");
+
+    activity = buildActivity(FeedEpisodesActivity.class).withIntent(intent).create().get();
+
+    EpisodeListHeaderInfo headerInfo = (EpisodeListHeaderInfo) episodeListFragment.getArguments()
+        .getParcelable(EpisodeList.HEADER);
+    assertThat(headerInfo.getTitle(), is("Awesome Feed"));
+  }
+
   private FeedEpisodesActivity createActivityWith(Feed feed) {
     when(fragmentManager.beginTransaction())
         .thenReturn(transaction);
@@ -144,9 +170,10 @@ public class FeedEpisodesActivityTest {
         .thenReturn(transaction);
 
     Intent intent = new Intent(Intent.ACTION_VIEW);
-    intent.putExtra(Feed.class.toString(), feed);
+    intent.putExtra(Feed.class.toString(), episodeRegistry.putFeed(feed));
 
-    when(userFeedsRepositoryMock.getFeed(feed.getId())).thenReturn(feed);
+    when(userFeedsRepositoryMock.getFeed(eq(feed.getId()), any(EpisodeBatchListener.class)))
+        .thenReturn(feed);
 
     return buildActivity(FeedEpisodesActivity.class)
         .withIntent(intent)
@@ -212,6 +239,8 @@ public class FeedEpisodesActivityTest {
       bind(FragmentManager.class).toInstance(fragmentManager);
       bind(EpisodeListFragment.class).toInstance(episodeListFragment);
       bind(EpisodeViewInflater.class).toInstance(episodeViewInflaterMock);
+      bind(EpisodeRegistry.class).toInstance(episodeRegistry);
+      bind(AutoDownloadScheduler.class).toInstance(autoDownloadSchedulerMock);
     }
   }
 }
\ No newline at end of file
@@ -3,7 +3,6 @@ package com.mypodcasts.episodes.latestepisodes;
 import android.app.FragmentManager;
 import android.app.FragmentTransaction;
 import android.app.ProgressDialog;
-import android.os.Bundle;
 
 import com.google.inject.AbstractModule;
 import com.mypodcasts.BuildConfig;
@@ -11,7 +10,11 @@ import com.mypodcasts.R;
 import com.mypodcasts.episodes.EpisodeList;
 import com.mypodcasts.episodes.EpisodeListFragment;
 import com.mypodcasts.episodes.EpisodeListHeaderInfo;
+import com.mypodcasts.episodes.EpisodeRegistry;
+import com.mypodcasts.episodes.autodownload.AutoDownloadScheduler;
 import com.mypodcasts.episodes.EpisodeViewInflater;
+import com.mypodcasts.repositories.EpisodeBatchListener;
+import com.mypodcasts.repositories.EpisodeStore;
 import com.mypodcasts.repositories.UserFeedsRepository;
 import com.mypodcasts.repositories.UserLatestEpisodesRepository;
 import com.mypodcasts.repositories.models.Episode;
@@ -21,18 +24,23 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
-import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.robolectric.Robolectric.buildActivity;
 import static org.robolectric.RuntimeEnvironment.application;
@@ -52,6 +60,8 @@ public class LatestEpisodesActivityTest {
   ProgressDialog progressDialogMock = mock(ProgressDialog.class);
   FragmentManager fragmentManager = mock(FragmentManager.class);
   FragmentTransaction transaction = mock(FragmentTransaction.class);
+  EpisodeRegistry episodeRegistry = new EpisodeRegistry(mock(EpisodeStore.class));
+  AutoDownloadScheduler autoDownloadSchedulerMock = mock(AutoDownloadScheduler.class);
 
   List<Episode> emptyList = Collections.<Episode>emptyList();
 
@@ -81,7 +91,7 @@ public class LatestEpisodesActivityTest {
     activity = createActivity();
 
     EpisodeListHeaderInfo headerInfo = (EpisodeListHeaderInfo) episodeListFragment.getArguments()
-        .getSerializable(EpisodeList.HEADER);
+        .getParcelable(EpisodeList.HEADER);
 
     assertThat(headerInfo.getTitle(), is(application.getString(R.string.latest_episodes)));
   }
@@ -90,9 +100,7 @@ public class LatestEpisodesActivityTest {
   public void itSetsFragmentEpisodeList() {
     activity = createActivityWith(emptyList);
 
-    Bundle arguments = episodeListFragment.getArguments();
-    Serializable serializable = arguments.getSerializable(EpisodeList.LIST);
-    EpisodeList episodeList = (EpisodeList) serializable;
+    EpisodeList episodeList = getFragmentEpisodeList();
 
     assertThat(episodeList.getEpisodes(), is(emptyList));
   }
@@ -124,6 +132,33 @@ public class LatestEpisodesActivityTest {
     order.verify(progressDialogMock, never()).dismiss();
   }
 
+  @Test
+  public void itShowsStreamedEpisodesBeforeLoadingFinishes() {
+    final List<Episode> firstBatch = asList(new Episode());
+    final List<Episode> latestEpisodes = asList(firstBatch.get(0), new Episode());
+    when(userLatestEpisodesRepositoryMock.getLatestEpisodes(any(EpisodeBatchListener.class)))
+        .thenAnswer(new Answer<List<Episode>>() {
+          @Override
+          public List<Episode> answer(InvocationOnMock invocation) {
+            EpisodeBatchListener listener = (EpisodeBatchListener) invocation.getArguments()[0];
+            listener.onEpisodes(firstBatch);
+
+            EpisodeList episodeList = getFragmentEpisodeList();
+            assertThat(episodeList.getEpisodes(), is(firstBatch));
+
+            return latestEpisodes;
+          }
+        });
+    when(fragmentManager.beginTransaction()).thenReturn(transaction);
+    when(transaction.replace(R.id.content_frame, episodeListFragment)).thenReturn(transaction);
+
+    activity = buildActivity(LatestEpisodesActivity.class).create().get();
+
+    EpisodeList episodeList = getFragmentEpisodeList();
+    assertThat(episodeList.getEpisodes(), is(latestEpisodes));
+    verify(transaction, times(1)).replace(R.id.content_frame, episodeListFragment);
+  }
+
   LatestEpisodesActivity createActivityWith(List<Episode> episodes) {
     when(fragmentManager.beginTransaction())
         .thenReturn(transaction);
@@ -131,7 +166,8 @@ public class LatestEpisodesActivityTest {
     when(transaction.replace(R.id.content_frame, episodeListFragment))
         .thenReturn(transaction);
 
-    when(userLatestEpisodesRepositoryMock.getLatestEpisodes()).thenReturn(episodes);
+    when(userLatestEpisodesRepositoryMock.getLatestEpisodes(any(EpisodeBatchListener.class)))
+        .thenReturn(episodes);
 
     return buildActivity(LatestEpisodesActivity.class).create().get();
   }
@@ -140,6 +176,12 @@ public class LatestEpisodesActivityTest {
     return createActivityWith(emptyList);
   }
 
+  private EpisodeList getFragmentEpisodeList() {
+    return episodeRegistry.getEpisodeList(
+        episodeListFragment.getArguments().getString(EpisodeList.LIST)
+    );
+  }
+
   public class MyTestModule extends AbstractModule {
     @Override
     protected void configure() {
@@ -149,6 +191,8 @@ public class LatestEpisodesActivityTest {
       bind(FragmentManager.class).toInstance(fragmentManager);
       bind(EpisodeListFragment.class).toInstance(episodeListFragment);
       bind(EpisodeViewInflater.class).toInstance(episodeViewInflaterMock);
+      bind(EpisodeRegistry.class).toInstance(episodeRegistry);
+      bind(AutoDownloadScheduler.class).toInstance(autoDownloadSchedulerMock);
     }
   }
 }
\ No newline at end of file
@@ -0,0 +1,262 @@
+package com.mypodcasts.episodes.storage;
+
+import com.google.gson.Gson;
+import com.mypodcasts.BuildConfig;
+import com.mypodcasts.episodes.EpisodeCheckpoint;
+import com.mypodcasts.episodes.EpisodeFile;
+import com.mypodcasts.repositories.DownloadedEpisode;
+import com.mypodcasts.repositories.EpisodeStore;
+import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.repositories.models.Feed;
+import com.mypodcasts.support.Download;
+import com.mypodcasts.support.DownloadFinishedEvent;
+import com.mypodcasts.support.ExternalPublicFileLookup;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+
+import de.greenrobot.event.EventBus;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.RuntimeEnvironment.application;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class EpisodeStorageTest {
+
+  @Rule
+  public TemporaryFolder podcastsDirectory = new TemporaryFolder();
+
+  EpisodeStore episodeStoreMock = mock(EpisodeStore.class);
+  EpisodeCheckpoint episodeCheckpointMock = mock(EpisodeCheckpoint.class);
+  EpisodeFile episodeFileMock = mock(EpisodeFile.class);
+  ExternalPublicFileLookup externalPublicFileLookupMock = mock(ExternalPublicFileLookup.class);
+  EventBus eventBusMock = mock(EventBus.class);
+  EpisodeStorage episodeStorage;
+
+  Gson gson = new Gson();
+
+  @Before
+  public void setup() {
+    when(episodeStoreMock.getDownloadedEpisodes()).thenReturn(Collections.<DownloadedEpisode>emptyList());
+
+    episodeStorage = givenEpisodeStorage();
+  }
+
+  @Test
+  public void itTracksBytesPerPodcast() throws IOException {
+    episodeStorage.record(aDownloadedEpisode("first", "podcast-a", 100, 1));
+    episodeStorage.record(aDownloadedEpisode("second", "podcast-b", 50, 2));
+
+    assertThat(episodeStorage.getPodcastBytes("podcast-a"), is(100L));
+    assertThat(episodeStorage.getPodcastBytes("podcast-b"), is(50L));
+    assertThat(episodeStorage.getTotalBytes(), is(150L));
+  }
+
+  @Test
+  public void itStartsFromPreviouslyStoredDownloads() throws IOException {
+    when(episodeStoreMock.getDownloadedEpisodes()).thenReturn(asList(
+        aDownloadedEpisode("first", "podcast-a", 100, 1)
+    ));
+
+    assertThat(episodeStorage.getTotalBytes(), is(100L));
+  }
+
+  @Test
+  public void itStartsTrackingEpisodesThatWereDownloadedBeforeStorageWasTracked() throws IOException {
+    DownloadedEpisode downloadedEpisode = aDownloadedEpisode("first", "podcast-a", 100, 1);
+    givenStoredFeed("podcast-a", downloadedEpisode.getEpisode());
+    when(episodeFileMock.exists(downloadedEpisode.getEpisode())).thenReturn(true);
+    when(episodeFileMock.getFile(downloadedEpisode.getEpisode())).thenReturn(downloadedEpisode.getFile());
+
+    assertThat(episodeStorage.getPodcastBytes("podcast-a"), is(100L));
+    verify(episodeStoreMock).saveDownloadedEpisode(any(DownloadedEpisode.class));
+  }
+
+  @Test
+  public void itLooksForPreviouslyDownloadedEpisodesOnlyOnce() throws IOException {
+    givenStoredFeed("podcast-a", anEpisode("first", "podcast-a"));
+
+    episodeStorage.getTotalBytes();
+    givenEpisodeStorage().getTotalBytes();
+
+    verify(episodeStoreMock, times(1)).getFeeds();
+  }
+
+  @Test
+  public void itKeepsOnlyLatestDownloadsOfAPodcast() throws IOException {
+    DownloadedEpisode oldest = aDownloadedEpisode("first", "podcast-a", 10, 1);
+    episodeStorage.record(oldest);
+    episodeStorage.record(aDownloadedEpisode("second", "podcast-a", 10, 2));
+    episodeStorage.record(aDownloadedEpisode("third", "podcast-a", 10, 3));
+
+    assertThat(oldest.getFile().exists(), is(false));
+    assertThat(episodeStorage.getPodcastBytes("podcast-a"), is(20L));
+    verify(episodeStoreMock).removeDownloadedEpisode(oldest);
+    verify(externalPublicFileLookupMock).remove(oldest.getFile());
+  }
+
+  @Test
+  public void itEvictsFinishedEpisodesFirstWhenOverCap() throws IOException {
+    DownloadedEpisode unplayed = aDownloadedEpisode("first", "podcast-a", 100, 1);
+    DownloadedEpisode finished = aDownloadedEpisode("second", "podcast-b", 100, 2);
+    when(episodeCheckpointMock.isFinished(finished.getEpisode())).thenReturn(true);
+    episodeStorage.record(unplayed);
+    episodeStorage.record(finished);
+
+    episodeStorage.record(aDownloadedEpisode("third", "podcast-c", 150, 3));
+
+    assertThat(finished.getFile().exists(), is(false));
+    assertThat(unplayed.getFile().exists(), is(true));
+    assertThat(episodeStorage.getTotalBytes(), is(250L));
+  }
+
+  @Test
+  public void itEvictsLeastRecentlyPlayedEpisodesWhenNothingIsFinished() throws IOException {
+    DownloadedEpisode recentlyPlayed = aDownloadedEpisode("first", "podcast-a", 100, 1);
+    DownloadedEpisode playedLongAgo = aDownloadedEpisode("second", "podcast-b", 100, 2);
+    when(episodeCheckpointMock.getLastPlayedAt(recentlyPlayed.getEpisode())).thenReturn(100L);
+    when(episodeCheckpointMock.getLastPlayedAt(playedLongAgo.getEpisode())).thenReturn(10L);
+    episodeStorage.record(recentlyPlayed);
+    episodeStorage.record(playedLongAgo);
+
+    episodeStorage.record(aDownloadedEpisode("third", "podcast-c", 150, 3));
+
+    assertThat(playedLongAgo.getFile().exists(), is(false));
+    assertThat(recentlyPlayed.getFile().exists(), is(true));
+  }
+
+  @Test
+  public void itNeverEvictsTheEpisodeThatWasJustDownloaded() throws IOException {
+    DownloadedEpisode hugeEpisode = aDownloadedEpisode("first", "podcast-a", 500, 1);
+
+    episodeStorage.record(hugeEpisode);
+
+    assertThat(hugeEpisode.getFile().exists(), is(true));
+  }
+
+  @Test
+  public void itNeverEvictsThePlayingEpisode() throws IOException {
+    DownloadedEpisode playing = aDownloadedEpisode("first", "podcast-a", 100, 1);
+    DownloadedEpisode notPlaying = aDownloadedEpisode("second", "podcast-b", 100, 2);
+    when(episodeCheckpointMock.isFinished(playing.getEpisode())).thenReturn(true);
+    episodeStorage.record(playing);
+    episodeStorage.record(notPlaying);
+    episodeStorage.markPlaying(playing.getEpisode());
+
+    episodeStorage.record(aDownloadedEpisode("third", "podcast-c", 150, 3));
+
+    assertThat(playing.getFile().exists(), is(true));
+    assertThat(notPlaying.getFile().exists(), is(false));
+  }
+
+  @Test
+  public void itKeepsThePlayingEpisodeEvenWhenItIsNotAmongTheLatestOfItsPodcast() throws IOException {
+    DownloadedEpisode playing = aDownloadedEpisode("first", "podcast-a", 10, 1);
+    episodeStorage.record(playing);
+    episodeStorage.markPlaying(playing.getEpisode());
+
+    episodeStorage.record(aDownloadedEpisode("second", "podcast-a", 10, 2));
+    episodeStorage.record(aDownloadedEpisode("third", "podcast-a", 10, 3));
+
+    assertThat(playing.getFile().exists(), is(true));
+
+    episodeStorage.clearPlaying(playing.getEpisode());
+    episodeStorage.record(aDownloadedEpisode("fourth", "podcast-a", 10, 4));
+
+    assertThat(playing.getFile().exists(), is(false));
+  }
+
+  @Test
+  public void itTracksEpisodesWithoutPodcast() throws IOException {
+    File file = podcastsDirectory.newFile("orphan.mp3");
+
+    episodeStorage.record(new DownloadedEpisode(new Episode(), file, 10, 1));
+
+    assertThat(episodeStorage.getPodcastBytes(null), is(10L));
+  }
+
+  @Test
+  public void itRecordsOnlySuccessfulDownloadsOfExpectedEpisodes() throws IOException {
+    DownloadedEpisode downloadedEpisode = aDownloadedEpisode("first", "podcast-a", 100, 1);
+    episodeStorage.expect(downloadedEpisode.getEpisode());
+
+    episodeStorage.onEventBackgroundThread(new DownloadFinishedEvent(aDownload("unexpected", true)));
+    episodeStorage.onEventBackgroundThread(
+        new DownloadFinishedEvent(aDownload(downloadedEpisode.getAudioUrl(), false))
+    );
+    verify(episodeStoreMock, never()).saveDownloadedEpisode(any(DownloadedEpisode.class));
+
+    episodeStorage.expect(downloadedEpisode.getEpisode());
+    episodeStorage.onEventBackgroundThread(
+        new DownloadFinishedEvent(aDownload(downloadedEpisode.getAudioUrl(), true))
+    );
+    verify(episodeStoreMock).saveDownloadedEpisode(any(DownloadedEpisode.class));
+  }
+
+  @Test
+  public void itListensForFinishedDownloadsOnceSomethingIsExpected() {
+    episodeStorage.expect(anEpisode("first", "podcast-a"));
+
+    verify(eventBusMock).register(episodeStorage);
+  }
+
+  private EpisodeStorage givenEpisodeStorage() {
+    return new EpisodeStorage(
+        application, episodeStoreMock, episodeCheckpointMock, episodeFileMock, externalPublicFileLookupMock,
+        eventBusMock, 300, 2
+    );
+  }
+
+  private void givenStoredFeed(String podcastId, Episode episode) {
+    Feed feed = new Feed(podcastId);
+    when(episodeStoreMock.getFeeds()).thenReturn(asList(feed));
+    when(episodeStoreMock.getFeed(podcastId)).thenReturn(feed.withEpisodes(asList(episode)));
+  }
+
+  private Download aDownload(String key, boolean successful) throws IOException {
+    Download download = mock(Download.class);
+    when(download.getKey()).thenReturn(key);
+    when(download.getFile()).thenReturn(podcastsDirectory.newFile());
+    when(download.isSuccessful()).thenReturn(successful);
+
+    return download;
+  }
+
+  private DownloadedEpisode aDownloadedEpisode(String title, String podcastId,
+                                               long bytes, long downloadedAt) throws IOException {
+    File file = podcastsDirectory.newFile(title + ".mp3");
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    randomAccessFile.setLength(bytes);
+    randomAccessFile.close();
+
+    return new DownloadedEpisode(anEpisode(title, podcastId), file, bytes, downloadedAt);
+  }
+
+  private Episode anEpisode(String title, String podcastId) {
+    return gson.fromJson(
+        "{\"title\": \"" + title + "\", " +
+            "\"audio\": {\"url\": \"http://example.com/" + title + ".mp3\"}, " +
+            "\"podcast\": {\"id\": \"" + podcastId + "\"}}",
+        Episode.class
+    );
+  }
+}
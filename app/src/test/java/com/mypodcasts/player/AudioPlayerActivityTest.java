@@ -11,6 +11,8 @@ import com.google.inject.AbstractModule;
 import com.mypodcasts.BuildConfig;
 import com.mypodcasts.R;
 import com.mypodcasts.episodes.EpisodeCheckpoint;
+import com.mypodcasts.episodes.EpisodeRegistry;
+import com.mypodcasts.repositories.EpisodeStore;
 import com.mypodcasts.repositories.models.Episode;
 
 import org.junit.After;
@@ -52,6 +54,8 @@ public class AudioPlayerActivityTest {
   AudioPlayerService audioPlayerServiceMock = mock(AudioPlayerService.class);
   AudioPlayer audioPlayerMock = mock(AudioPlayer.class);
   EpisodeCheckpoint episodeCheckpointMock = mock(EpisodeCheckpoint.class);
+  EpisodeStore episodeStoreMock = mock(EpisodeStore.class);
+  EpisodeRegistry episodeRegistry = new EpisodeRegistry(episodeStoreMock);
 
   EventBus eventBusMock = mock(EventBus.class);
   AudioPlayerController mediaControllerMock = mock(AudioPlayerController.class);
@@ -209,14 +213,16 @@ public class AudioPlayerActivityTest {
   @Test
   public void itStoresCurrentPositionOnPause() {
     Integer currentPosition = new Random().nextInt();
+    Integer duration = new Random().nextInt();
     when(audioPlayerMock.getCurrentPosition()).thenReturn(currentPosition);
+    when(audioPlayerMock.getDuration()).thenReturn(duration);
 
     AudioPlayerActivity activity = createActivity();
     activity.onEvent(new AudioPlayingEvent(audioPlayerMock));
 
     activity.onPause();
 
-    verify(episodeCheckpointMock).markCheckpoint(episode, currentPosition);
+    verify(episodeCheckpointMock).markCheckpoint(episode, currentPosition, duration);
   }
 
   @Test
@@ -241,12 +247,7 @@ public class AudioPlayerActivityTest {
 
   @Test
   public void itSetsEpisodeDescription() {
-    episode = new Episode() {
-      @Override
-      public String getDescription() {
-        return "<span>Awesome Episode</span>";
-      }
-    };
+    when(episodeStoreMock.getDescription(episode.getId())).thenReturn("<span>Awesome Episode</span>");
 
     AudioPlayerActivity activity = createActivity();
     activity.onEvent(new AudioPlayingEvent(audioPlayerMock));
@@ -277,7 +278,9 @@ public class AudioPlayerActivityTest {
 
   private Intent getIntent() {
     Intent intent = new Intent(Intent.ACTION_VIEW);
-    intent.putExtra(Episode.class.toString(), episode);
+    if (episode != null) {
+      intent.putExtra(Episode.class.toString(), episodeRegistry.putEpisode(episode));
+    }
     return intent;
   }
 
@@ -290,6 +293,8 @@ public class AudioPlayerActivityTest {
       bind(AudioPlayerService.class).toInstance(audioPlayerServiceMock);
       bind(AudioPlayer.class).toInstance(audioPlayerMock);
       bind(AudioPlayerController.class).toInstance(mediaControllerMock);
+      bind(EpisodeRegistry.class).toInstance(episodeRegistry);
+      bind(EpisodeStore.class).toInstance(episodeStoreMock);
     }
   }
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import android.content.Intent;
 import com.google.inject.AbstractModule;
 import com.mypodcasts.BuildConfig;
 import com.mypodcasts.R;
+import com.mypodcasts.episodes.EpisodeRegistry;
+import com.mypodcasts.repositories.EpisodeStore;
 import com.mypodcasts.repositories.models.Episode;
 
 import org.junit.After;
@@ -36,6 +38,8 @@ public class AudioPlayerServiceTest {
   AudioPlayer audioPlayerMock = mock(AudioPlayer.class);
   Notification.Builder notificationBuilderMock = mock(Notification.Builder.class);
   Notification notificationMock = mock(Notification.class);
+  EpisodeStore episodeStoreMock = mock(EpisodeStore.class);
+  EpisodeRegistry episodeRegistry = new EpisodeRegistry(episodeStoreMock);
 
   @Before
   public void setup() {
@@ -110,6 +114,23 @@ public class AudioPlayerServiceTest {
     verify(audioPlayerMock).play(episode);
   }
 
+  @Test
+  public void itReloadsEpisodeFromStoreWhenItIsNotRegistered() throws IOException {
+    Episode storedEpisode = new Episode();
+    when(episodeStoreMock.getEpisode("http://example.com/audio.mp3")).thenReturn(storedEpisode);
+
+    Intent intent = new Intent(application, AudioPlayerService.class);
+    intent.putExtra(Episode.class.toString(), "http://example.com/audio.mp3");
+
+    service = buildService(AudioPlayerService.class)
+      .withIntent(intent)
+      .create()
+      .startCommand(0, 1)
+      .get();
+
+    verify(audioPlayerMock).play(storedEpisode);
+  }
+
   @Test
   public void itReleasesAudioPlayerOnDestroy() {
     Intent intent = getIntent();
@@ -130,7 +151,7 @@ public class AudioPlayerServiceTest {
 
   private Intent getIntent() {
     Intent intent = new Intent(application, AudioPlayerService.class);
-    intent.putExtra(Episode.class.toString(), episode);
+    intent.putExtra(Episode.class.toString(), episodeRegistry.putEpisode(episode));
     return intent;
   }
 
@@ -138,6 +159,7 @@ public class AudioPlayerServiceTest {
     @Override
     protected void configure() {
       bind(AudioPlayer.class).toInstance(audioPlayerMock);
+      bind(EpisodeRegistry.class).toInstance(episodeRegistry);
       bind(Notification.Builder.class).toInstance(notificationBuilderMock);
     }
   }
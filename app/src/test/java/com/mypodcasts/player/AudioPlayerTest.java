@@ -4,9 +4,12 @@ import android.media.AudioManager;
 import android.media.MediaPlayer;
 
 import com.mypodcasts.BuildConfig;
+import com.mypodcasts.episodes.EpisodeCheckpoint;
 import com.mypodcasts.episodes.EpisodeFile;
+import com.mypodcasts.episodes.storage.EpisodeStorage;
 import com.mypodcasts.repositories.models.Audio;
 import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.support.StreamCacheProxy;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -22,8 +25,10 @@ import de.greenrobot.event.EventBus;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +42,9 @@ public class AudioPlayerTest {
   EventBus eventBusMock = mock(EventBus.class);
 
   EpisodeFile episodeFileMock = mock(EpisodeFile.class);
+  StreamCacheProxy streamCacheProxyMock = mock(StreamCacheProxy.class);
+  EpisodeStorage episodeStorageMock = mock(EpisodeStorage.class);
+  EpisodeCheckpoint episodeCheckpointMock = mock(EpisodeCheckpoint.class);
 
   Episode episode = new Episode() {
     @Override
@@ -57,7 +65,31 @@ public class AudioPlayerTest {
 
   @Before
   public void setup() {
-    audioPlayer = new AudioPlayer(mediaPlayerMock, eventBusMock, episodeFileMock);
+    audioPlayer = new AudioPlayer(
+        mediaPlayerMock, eventBusMock, episodeFileMock, streamCacheProxyMock, episodeStorageMock, episodeCheckpointMock
+    );
+  }
+
+  @Test
+  public void itKeepsPlayingEpisodeFromBeingEvictedUntilReleased() throws IOException {
+    audioPlayer.play(episode);
+
+    verify(episodeStorageMock).markPlaying(episode);
+
+    audioPlayer.release();
+
+    verify(episodeStorageMock).clearPlaying(episode);
+  }
+
+  @Test
+  public void itMarksEpisodeFinishedWhenPlaybackCompletes() throws IOException {
+    audioPlayer.play(episode);
+
+    verify(episodeCheckpointMock, never()).markFinished(episode);
+
+    audioPlayer.onCompletion(mediaPlayerMock);
+
+    verify(episodeCheckpointMock).markFinished(episode);
   }
 
   @Test
@@ -81,6 +113,25 @@ public class AudioPlayerTest {
     order.verify(mediaPlayerMock).prepareAsync();
   }
 
+  @Test
+  public void itStreamsEpisodesThatAreNotDownloadedThroughTheCachingProxy() throws IOException {
+    when(episodeFileMock.getAudioFilePath(episode)).thenReturn("http://example.com/audio.mp3");
+    when(streamCacheProxyMock.proxy("http://example.com/audio.mp3")).thenReturn("http://127.0.0.1:1234/token");
+
+    audioPlayer.play(episode);
+
+    verify(mediaPlayerMock).setDataSource("http://127.0.0.1:1234/token");
+  }
+
+  @Test
+  public void itPlaysDownloadedEpisodesWithoutTheProxy() throws IOException {
+    when(episodeFileMock.getAudioFilePath(episode)).thenReturn("audio.mp3");
+
+    audioPlayer.play(episode);
+
+    verify(streamCacheProxyMock, never()).proxy(anyString());
+  }
+
   @Test
   public void itStartsMediaPlayerOnPrepared() {
     audioPlayer.onPrepared(mediaPlayerMock);
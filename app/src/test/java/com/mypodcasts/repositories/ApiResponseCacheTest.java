@@ -0,0 +1,96 @@
+package com.mypodcasts.repositories;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ApiResponseCacheTest {
+
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+  ApiResponseCache apiResponseCache;
+
+  final String feedsUrl = "http://localhost:1111/api/user/johndoe/feeds";
+  final byte[] body = "[]".getBytes();
+
+  @Before
+  public void setup() {
+    apiResponseCache = new ApiResponseCache(cacheDirectory.getRoot());
+  }
+
+  @Test
+  public void itStoresResponsesOnDisk() {
+    apiResponseCache.put(feedsUrl, "\"v1\"", null, body);
+
+    ApiResponseCache.CachedResponse cachedResponse = new ApiResponseCache(cacheDirectory.getRoot()).get(feedsUrl);
+
+    assertThat(cachedResponse.getEtag(), is("\"v1\""));
+    assertThat(cachedResponse.getBody(), is(body));
+  }
+
+  @Test
+  public void itExposesStreamedResponsesOnlyOnceTheyAreCommitted() throws IOException {
+    ApiResponseCache.Editor editor = apiResponseCache.edit(feedsUrl, "\"v1\"", null);
+    editor.write(body, 0, 1);
+
+    assertThat(apiResponseCache.get(feedsUrl), is(nullValue()));
+
+    editor.write(body, 1, body.length - 1);
+    editor.commit();
+
+    assertThat(apiResponseCache.get(feedsUrl).getBody(), is(body));
+  }
+
+  @Test
+  public void itDiscardsAbortedResponses() throws IOException {
+    ApiResponseCache.Editor editor = apiResponseCache.edit(feedsUrl, "\"v1\"", null);
+    editor.write(body, 0, 1);
+    editor.abort();
+
+    assertThat(apiResponseCache.get(feedsUrl), is(nullValue()));
+    assertThat(cacheDirectory.getRoot().list().length, is(0));
+  }
+
+  @Test
+  public void itDoesNotStorePagedOrIncrementalResponses() {
+    String pageUrl = "http://localhost:1111/api/user/johndoe/latest_episodes?cursor=abc&limit=20";
+    String sinceUrl = "http://localhost:1111/api/user/johndoe/feeds/123/episodes?since=abc";
+
+    apiResponseCache.put(pageUrl, "\"v1\"", null, body);
+    apiResponseCache.put(sinceUrl, "\"v1\"", null, body);
+
+    assertThat(apiResponseCache.get(pageUrl), is(nullValue()));
+    assertThat(apiResponseCache.get(sinceUrl), is(nullValue()));
+    assertThat(cacheDirectory.getRoot().list().length, is(0));
+  }
+
+  @Test
+  public void itKeepsFirstPagesCacheable() {
+    assertThat(apiResponseCache.isCacheable(feedsUrl + "/123/episodes?limit=20"), is(true));
+  }
+
+  @Test
+  public void itEvictsLeastRecentlyUsedResponsesOverTheLimit() {
+    apiResponseCache.put(feedsUrl, "\"v1\"", null, body);
+    for (File file : cacheDirectory.getRoot().listFiles()) {
+      file.setLastModified(0);
+    }
+    for (int i = 0; i < 64; i++) {
+      apiResponseCache.put(feedsUrl + "/" + i + "/episodes", "\"v1\"", null, body);
+    }
+
+    assertThat(apiResponseCache.get(feedsUrl), is(nullValue()));
+    assertThat(apiResponseCache.get(feedsUrl + "/63/episodes"), is(notNullValue()));
+    assertThat(cacheDirectory.getRoot().list().length, is(128));
+  }
+}
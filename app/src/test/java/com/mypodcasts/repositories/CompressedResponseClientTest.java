@@ -0,0 +1,105 @@
+package com.mypodcasts.repositories;
+
+import android.content.res.Resources;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.google.common.io.Files;
+import com.mypodcasts.R;
+import com.mypodcasts.repositories.models.Feed;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPOutputStream;
+
+import de.greenrobot.event.EventBus;
+import retrofit.RestAdapter;
+import retrofit.client.OkClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.givenThat;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CompressedResponseClientTest {
+
+  UserFeedsRepository repository;
+  PayloadStats payloadStats = new PayloadStats();
+
+  Resources resources = mock(Resources.class);
+  EpisodeStore episodeStore = mock(EpisodeStore.class);
+
+  @Rule
+  public WireMockRule wireMockRule = new WireMockRule(1111);
+
+  final String userFeedEndpoint = "/api/user/johndoe/feeds/123456/episodes";
+  final String userFeedPath = userFeedEndpoint + "?limit=20";
+
+  byte[] userFeedEpisodes;
+  byte[] gzippedUserFeedEpisodes;
+
+  @Before
+  public void setup() throws IOException {
+    userFeedEpisodes = Files.toByteArray(new File("src/test/resources/__files/user_feed_episodes.json"));
+    gzippedUserFeedEpisodes = gzip(userFeedEpisodes);
+
+    givenThat(get(urlEqualTo(userFeedPath))
+        .withHeader("Accept-Encoding", containing("gzip"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", "application/json")
+            .withHeader("Content-Encoding", "gzip")
+            .withBody(gzippedUserFeedEpisodes)));
+    when(resources.getString(R.string.base_url)).thenReturn("http://localhost:1111");
+
+    RestAdapter.Builder restAdapterBuilder = new RestAdapter.Builder()
+        .setClient(new CompressedResponseClient(new OkClient(), payloadStats));
+
+    repository = new UserFeedsRepository(
+        new HttpClient(resources, restAdapterBuilder),
+        episodeStore,
+        mock(Executor.class),
+        mock(EventBus.class),
+        new SingleFlight()
+    );
+  }
+
+  @Test
+  public void itDecodesGzippedResponses() {
+    Feed feed = repository.getFeed("123456");
+
+    assertThat(feed.getTitle(), is("Some podcast"));
+    assertThat(feed.getEpisodes().get(0).getSummary(), is("Newest episode description"));
+  }
+
+  @Test
+  public void itRecordsCompressedAndDecompressedBytesOfEndpoint() {
+    repository.getFeed("123456");
+
+    assertThat(payloadStats.getCompressedBytes(userFeedEndpoint), is((long) gzippedUserFeedEpisodes.length));
+    assertThat(payloadStats.getDecompressedBytes(userFeedEndpoint), is((long) userFeedEpisodes.length));
+    assertThat(
+        payloadStats.getSavedBytes(),
+        is((long) (userFeedEpisodes.length - gzippedUserFeedEpisodes.length))
+    );
+  }
+
+  private byte[] gzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+    gzipOutputStream.write(bytes);
+    gzipOutputStream.close();
+
+    return outputStream.toByteArray();
+  }
+}
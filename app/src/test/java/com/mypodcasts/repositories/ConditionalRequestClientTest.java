@@ -0,0 +1,171 @@
+package com.mypodcasts.repositories;
+
+import android.content.res.Resources;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.google.gson.Gson;
+import com.mypodcasts.R;
+import com.mypodcasts.repositories.models.Feed;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import de.greenrobot.event.EventBus;
+import retrofit.RestAdapter;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.OkClient;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.converter.ConversionException;
+import retrofit.converter.Converter;
+import retrofit.converter.GsonConverter;
+import retrofit.mime.TypedByteArray;
+import retrofit.mime.TypedInput;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.givenThat;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConditionalRequestClientTest {
+
+  UserFeedsRepository repository;
+  ApiResponseCache apiResponseCache;
+  Converter converter;
+
+  Resources resources = mock(Resources.class);
+
+  @Rule
+  public WireMockRule wireMockRule = new WireMockRule(1111);
+
+  @Rule
+  public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+  final String userFeedsPath = "/api/user/johndoe/feeds";
+  final String etag = "\"feeds-v1\"";
+  final String lastModified = "Wed, 23 Sep 2015 15:00:00 GMT";
+  int firstPosition = 0;
+
+  @Before
+  public void setup() {
+    givenThat(get(urlEqualTo(userFeedsPath))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("ETag", etag)
+            .withHeader("Last-Modified", lastModified)
+            .withBodyFile("user_feeds.json")));
+
+    givenThat(get(urlEqualTo(userFeedsPath))
+        .withHeader("If-None-Match", equalTo(etag))
+        .willReturn(aResponse()
+            .withStatus(304)));
+
+    when(resources.getString(R.string.base_url)).thenReturn("http://localhost:1111");
+
+    apiResponseCache = new ApiResponseCache(cacheDirectory.getRoot());
+    repository = givenRepository();
+  }
+
+  @Test
+  public void itSendsStoredValidatorsOnSubsequentRequests() {
+    repository.getFeeds();
+    repository.getFeeds();
+
+    WireMock.verify(getRequestedFor(urlEqualTo(userFeedsPath))
+        .withHeader("If-None-Match", equalTo(etag))
+        .withHeader("If-Modified-Since", equalTo(lastModified)));
+  }
+
+  @Test
+  public void itReturnsAlreadyParsedResultWhenResponseIsNotModified() {
+    List<Feed> feeds = repository.getFeeds();
+
+    assertThat(repository.getFeeds().get(firstPosition), is(sameInstance(feeds.get(firstPosition))));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void itHandsOutSharedParsedResultsAsReadOnly() {
+    repository.getFeeds();
+
+    repository.getFeeds().clear();
+  }
+
+  @Test
+  public void itSkipsJsonParsingWhenResponseIsNotModified() throws ConversionException {
+    repository.getFeeds();
+    repository.getFeeds();
+    repository.getFeeds();
+
+    verify(converter, times(1)).fromBody(any(TypedInput.class), any(Type.class));
+  }
+
+  @Test
+  public void itServesCachedBodyFromDiskWhenResponseIsNotModified() {
+    repository.getFeeds();
+
+    apiResponseCache = new ApiResponseCache(cacheDirectory.getRoot());
+    Feed feed = givenRepository().getFeeds().get(firstPosition);
+
+    assertThat(feed.getId(), is("123456"));
+    assertThat(feed.getTitle(), is("Some podcast"));
+  }
+
+  @Test
+  public void itCachesBodiesThatWereClosedBeforeTheEnd() throws IOException {
+    String url = "http://localhost:1111" + userFeedsPath;
+    Client clientMock = mock(Client.class);
+    when(clientMock.execute(any(Request.class))).thenReturn(new Response(
+        url, 200, "OK", asList(new Header("ETag", etag)), new TypedByteArray("application/json", "[{}]  ".getBytes())
+    ));
+
+    InputStream body = new ConditionalRequestClient(clientMock, apiResponseCache)
+        .execute(new Request("GET", url, Collections.<Header>emptyList(), null))
+        .getBody().in();
+    body.read(new byte[4]);
+    body.close();
+
+    assertThat(apiResponseCache.get(url).getBody(), is("[{}]  ".getBytes()));
+  }
+
+  private UserFeedsRepository givenRepository() {
+    converter = spy(new GsonConverter(new Gson()));
+
+    RestAdapter.Builder restAdapterBuilder = new RestAdapter.Builder()
+        .setClient(new ConditionalRequestClient(new OkClient(), apiResponseCache))
+        .setConverter(new CachedResponseConverter(converter, apiResponseCache));
+
+    EpisodeStore episodeStore = mock(EpisodeStore.class);
+    when(episodeStore.getFeeds()).thenReturn(null);
+
+    return new UserFeedsRepository(
+        new HttpClient(resources, restAdapterBuilder),
+        episodeStore,
+        mock(Executor.class),
+        mock(EventBus.class),
+        new SingleFlight()
+    );
+  }
+}
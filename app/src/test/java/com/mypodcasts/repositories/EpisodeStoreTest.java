@@ -0,0 +1,236 @@
+package com.mypodcasts.repositories;
+
+import com.google.gson.Gson;
+import com.mypodcasts.BuildConfig;
+import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.repositories.models.Feed;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.robolectric.RuntimeEnvironment.application;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class EpisodeStoreTest {
+
+  EpisodeStore episodeStore;
+  Gson gson = new Gson();
+
+  Feed feed = gson.fromJson(
+      "{\"id\": \"123456\", \"title\": \"Some podcast\", \"episodes\": [" +
+          "{\"title\": \"Newest Episode!\", \"publishedDate\": \"2015-09-23T15:00:00.000Z\"}" +
+          "]}",
+      Feed.class
+  );
+
+  Feed feedWithNewEpisode = gson.fromJson(
+      "{\"id\": \"123456\", \"title\": \"Some podcast\", \"episodes\": [" +
+          "{\"title\": \"Brand New Episode\", \"publishedDate\": \"2015-09-30T15:00:00.000Z\"}," +
+          "{\"title\": \"Newest Episode!\", \"publishedDate\": \"2015-09-23T15:00:00.000Z\"}" +
+          "]}",
+      Feed.class
+  );
+
+  Episode episode = gson.fromJson(
+      "{\"title\": \"Newest Episode!\", \"audio\": {\"url\": \"http://example.com/audio.mp3\"}}",
+      Episode.class
+  );
+
+  @Before
+  public void setup() {
+    episodeStore = new EpisodeStore(application);
+  }
+
+  @Test
+  public void itReturnsNullWhenNothingWasStored() {
+    assertThat(episodeStore.getFeeds(), is(nullValue()));
+    assertThat(episodeStore.getFeed("123456"), is(nullValue()));
+    assertThat(episodeStore.getLatestEpisodes(), is(nullValue()));
+  }
+
+  @Test
+  public void itStoresFeedsWithoutEpisodes() {
+    episodeStore.saveFeeds(asList(feed));
+
+    List<Feed> feeds = episodeStore.getFeeds();
+
+    assertThat(feeds.size(), is(1));
+    assertThat(feeds.get(0).getTitle(), is("Some podcast"));
+    assertThat(feeds.get(0).getEpisodes(), is(nullValue()));
+  }
+
+  @Test
+  public void itStoresFeedEpisodes() {
+    episodeStore.saveFeed(feed);
+
+    Feed storedFeed = episodeStore.getFeed("123456");
+
+    assertThat(storedFeed.getId(), is("123456"));
+    assertThat(storedFeed.getEpisodes().get(0).getTitle(), is("Newest Episode!"));
+  }
+
+  @Test
+  public void itRemembersWhenFeedWasLastSynced() {
+    assertThat(episodeStore.getFeedSyncedAt("123456"), is(-1L));
+
+    long before = System.currentTimeMillis();
+    episodeStore.saveFeed(feed);
+
+    assertThat(episodeStore.getFeedSyncedAt("123456") >= before, is(true));
+  }
+
+  @Test
+  public void itStoresLatestEpisodes() {
+    episodeStore.saveLatestEpisodes(asList(episode));
+
+    Episode storedEpisode = episodeStore.getLatestEpisodes().get(0);
+
+    assertThat(storedEpisode.getAudioUrl(), is("http://example.com/audio.mp3"));
+  }
+
+  @Test
+  public void itFindsStoredEpisodeByAudioUrl() {
+    episodeStore.saveLatestEpisodes(asList(episode));
+
+    Episode storedEpisode = episodeStore.getEpisode("http://example.com/audio.mp3");
+
+    assertThat(storedEpisode.getTitle(), is("Newest Episode!"));
+    assertThat(episodeStore.getEpisode("http://example.com/unknown.mp3"), is(nullValue()));
+  }
+
+  @Test
+  public void itFindsStoredEpisodeWithoutAudioById() {
+    episodeStore.saveFeed(feed);
+
+    Episode storedEpisode = episodeStore.getEpisode(feed.getEpisodes().get(0).getId());
+
+    assertThat(storedEpisode.getTitle(), is("Newest Episode!"));
+  }
+
+  @Test
+  public void itKeepsFullDescriptionOutOfStoredEpisodes() {
+    Episode episodeWithDescription = gson.fromJson(
+        "{\"title\": \"Newest Episode!\", \"description\": \"<p>Show notes</p>\", " +
+            "\"audio\": {\"url\": \"http://example.com/audio.mp3\"}}",
+        Episode.class
+    );
+
+    episodeStore.saveLatestEpisodes(asList(episodeWithDescription));
+
+    Episode storedEpisode = episodeStore.getLatestEpisodes().get(0);
+
+    assertThat(episodeWithDescription.releaseDescription(), is(nullValue()));
+    assertThat(storedEpisode.getSummary(), is("Show notes"));
+    assertThat(storedEpisode.releaseDescription(), is(nullValue()));
+    assertThat(episodeStore.getDescription("http://example.com/audio.mp3"), is("<p>Show notes</p>"));
+  }
+
+  @Test
+  public void itStoresDownloadedEpisodes() {
+    episodeStore.saveDownloadedEpisode(new DownloadedEpisode(episode, new File("/podcasts/audio.mp3"), 1024, 42));
+
+    DownloadedEpisode downloadedEpisode = episodeStore.getDownloadedEpisodes().get(0);
+
+    assertThat(downloadedEpisode.getAudioUrl(), is("http://example.com/audio.mp3"));
+    assertThat(downloadedEpisode.getFile(), is(new File("/podcasts/audio.mp3")));
+    assertThat(downloadedEpisode.getBytes(), is(1024L));
+    assertThat(downloadedEpisode.getDownloadedAt(), is(42L));
+  }
+
+  @Test
+  public void itFindsDownloadedEpisodeByAudioUrl() {
+    episodeStore.saveDownloadedEpisode(new DownloadedEpisode(episode, new File("/podcasts/audio.mp3"), 1024, 42));
+
+    assertThat(episodeStore.getDownloadedEpisode("http://example.com/audio.mp3").getBytes(), is(1024L));
+    assertThat(episodeStore.getDownloadedEpisode("http://example.com/other.mp3"), is(nullValue()));
+  }
+
+  @Test
+  public void itRemovesDownloadedEpisodes() {
+    DownloadedEpisode downloadedEpisode = new DownloadedEpisode(episode, new File("/podcasts/audio.mp3"), 1024, 42);
+    episodeStore.saveDownloadedEpisode(downloadedEpisode);
+
+    episodeStore.removeDownloadedEpisode(downloadedEpisode);
+
+    assertThat(episodeStore.getDownloadedEpisodes().isEmpty(), is(true));
+  }
+
+  @Test
+  public void itKeepsDownloadedEpisodesWhenDatabaseIsUpgraded() {
+    episodeStore.saveFeeds(asList(feed));
+    episodeStore.saveDownloadedEpisode(new DownloadedEpisode(episode, new File("/podcasts/audio.mp3"), 1024, 42));
+
+    EpisodeStoreHelper episodeStoreHelper = new EpisodeStoreHelper(application);
+    episodeStoreHelper.onUpgrade(episodeStoreHelper.getWritableDatabase(), 4, 5);
+
+    assertThat(episodeStore.getFeeds(), is(nullValue()));
+    assertThat(episodeStore.getDownloadedEpisodes().get(0).getAudioUrl(), is("http://example.com/audio.mp3"));
+  }
+
+  @Test
+  public void itReportsWhetherStoredContentChanged() {
+    assertThat(episodeStore.saveLatestEpisodes(asList(episode)), is(true));
+    assertThat(episodeStore.saveLatestEpisodes(asList(episode)), is(false));
+
+    assertThat(episodeStore.saveFeed(feed), is(true));
+    assertThat(episodeStore.saveFeed(feed), is(false));
+  }
+
+  @Test
+  public void itKeepsNewestPublishedDateAsFeedWatermark() {
+    episodeStore.saveFeed(feed);
+
+    assertThat(episodeStore.getFeedWatermark("123456"), is("2015-09-23T15:00:00.000Z"));
+  }
+
+  @Test
+  public void itMergesOnlyEpisodesNewerThanWatermark() {
+    episodeStore.saveFeed(feed);
+
+    assertThat(episodeStore.mergeFeed(feedWithNewEpisode), is(true));
+
+    List<Episode> episodes = episodeStore.getFeed("123456").getEpisodes();
+    assertThat(episodes.size(), is(2));
+    assertThat(episodes.get(0).getTitle(), is("Brand New Episode"));
+    assertThat(episodes.get(1).getTitle(), is("Newest Episode!"));
+    assertThat(episodeStore.getFeedWatermark("123456"), is("2015-09-30T15:00:00.000Z"));
+  }
+
+  @Test
+  public void itMergesEpisodesPublishedAtTheWatermarkOnlyOnce() {
+    Feed feedWithSiblingEpisode = gson.fromJson(
+        "{\"id\": \"123456\", \"title\": \"Some podcast\", \"episodes\": [" +
+            "{\"title\": \"Sibling Episode\", \"publishedDate\": \"2015-09-23T15:00:00.000Z\"}," +
+            "{\"title\": \"Newest Episode!\", \"publishedDate\": \"2015-09-23T15:00:00.000Z\"}" +
+            "]}",
+        Feed.class
+    );
+    episodeStore.saveFeed(feed);
+
+    assertThat(episodeStore.mergeFeed(feedWithSiblingEpisode), is(true));
+    assertThat(episodeStore.mergeFeed(feedWithSiblingEpisode), is(false));
+
+    List<Episode> episodes = episodeStore.getFeed("123456").getEpisodes();
+    assertThat(episodes.size(), is(2));
+    assertThat(episodes.get(0).getTitle(), is("Sibling Episode"));
+    assertThat(episodes.get(1).getTitle(), is("Newest Episode!"));
+  }
+
+  @Test
+  public void itDoesNotChangeFeedWhenThereAreNoNewerEpisodes() {
+    episodeStore.saveFeed(feed);
+
+    assertThat(episodeStore.mergeFeed(feed), is(false));
+  }
+}
@@ -0,0 +1,72 @@
+package com.mypodcasts.repositories;
+
+import com.mypodcasts.repositories.models.Episode;
+import com.mypodcasts.repositories.models.Feed;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import retrofit.client.Header;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EpisodeStreamReaderTest {
+
+  EpisodeStreamReader episodeStreamReader = new EpisodeStreamReader();
+  List<List<Episode>> batches = new ArrayList<>();
+
+  EpisodeBatchListener listener = new EpisodeBatchListener() {
+    @Override
+    public void onEpisodes(List<Episode> episodes) {
+      batches.add(episodes);
+    }
+  };
+
+  @Test
+  public void itPublishesEpisodesInBatchesWhileReading() {
+    List<Episode> episodes = episodeStreamReader.readEpisodes(responseWith(episodesJson(25)), listener);
+
+    assertThat(episodes.size(), is(25));
+    assertThat(batches.size(), is(3));
+    assertThat(batches.get(0).size(), is(10));
+    assertThat(batches.get(2).size(), is(5));
+    assertThat(batches.get(2).get(4).getTitle(), is("Episode 24"));
+  }
+
+  @Test
+  public void itReadsFeedAroundStreamedEpisodes() {
+    String json = "{\"id\": \"123456\", \"episodes\": " + episodesJson(3) + ", " +
+        "\"title\": \"Some podcast\", \"image\": {\"url\": \"http://example.com/feed_image.jpg\"}}";
+
+    Feed feed = episodeStreamReader.readFeed(responseWith(json), listener);
+
+    assertThat(feed.getId(), is("123456"));
+    assertThat(feed.getTitle(), is("Some podcast"));
+    assertThat(feed.getImage().getUrl(), is("http://example.com/feed_image.jpg"));
+    assertThat(feed.getEpisodes().size(), is(3));
+    assertThat(batches.size(), is(1));
+  }
+
+  private String episodesJson(int count) {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) { json.append(","); }
+      json.append("{\"title\": \"Episode ").append(i).append("\"}");
+    }
+
+    return json.append("]").toString();
+  }
+
+  private Response responseWith(String json) {
+    return new Response(
+        "http://localhost:1111/api/user/johndoe/latest_episodes", 200, "OK",
+        Collections.<Header>emptyList(), new TypedByteArray("application/json", json.getBytes())
+    );
+  }
+}
@@ -0,0 +1,50 @@
+package com.mypodcasts.repositories;
+
+import android.content.res.Resources;
+
+import com.mypodcasts.R;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import retrofit.RestAdapter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HttpClientTest {
+
+  HttpClient httpClient;
+
+  Resources resources = mock(Resources.class);
+  RestAdapter.Builder restAdapterBuilder = spy(new RestAdapter.Builder());
+
+  @Before
+  public void setup() {
+    when(resources.getString(R.string.base_url)).thenReturn("http://localhost:1111");
+
+    httpClient = new HttpClient(resources, restAdapterBuilder);
+  }
+
+  @Test
+  public void itReusesTheSameApiAcrossCalls() {
+    Api api = httpClient.getApi();
+
+    assertThat(httpClient.getApi(), is(sameInstance(api)));
+  }
+
+  @Test
+  public void itBuildsRestAdapterOnlyOnce() {
+    httpClient.getApi();
+    httpClient.getApi();
+    httpClient.getApi();
+
+    verify(restAdapterBuilder, times(1)).build();
+  }
+}
@@ -0,0 +1,94 @@
+package com.mypodcasts.repositories;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class SingleFlightTest {
+
+  SingleFlight singleFlight = new SingleFlight();
+  AtomicInteger invocations = new AtomicInteger();
+  CountDownLatch release = new CountDownLatch(1);
+
+  Callable<Object> slowCall = new Callable<Object>() {
+    @Override
+    public Object call() throws Exception {
+      invocations.incrementAndGet();
+      release.await();
+
+      return new Object();
+    }
+  };
+
+  @Test
+  public void itSharesOneCallBetweenConcurrentCallersOfTheSameKey() throws Exception {
+    ExecutorService executorService = newFixedThreadPool(2);
+
+    Future<Object> first = executorService.submit(callThroughSingleFlight("feeds"));
+    Future<Object> second = executorService.submit(callThroughSingleFlight("feeds"));
+    waitForCalls(2);
+    release.countDown();
+
+    assertThat(first.get(), is(sameInstance(second.get())));
+    assertThat(invocations.get(), is(1));
+    assertThat(singleFlight.getCoalescedCount(), is(1));
+
+    executorService.shutdown();
+  }
+
+  @Test
+  public void itDoesNotShareCallsOfDifferentKeys() throws Exception {
+    release.countDown();
+
+    singleFlight.execute("feed/1", slowCall);
+    singleFlight.execute("feed/2", slowCall);
+
+    assertThat(invocations.get(), is(2));
+    assertThat(singleFlight.getCallCount(), is(2));
+    assertThat(singleFlight.getCoalescedCount(), is(0));
+  }
+
+  @Test
+  public void itCallsAgainOnceThePreviousCallHasFinished() throws Exception {
+    release.countDown();
+
+    singleFlight.execute("feeds", slowCall);
+    singleFlight.execute("feeds", slowCall);
+
+    assertThat(invocations.get(), is(2));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void itRethrowsRuntimeExceptionsOfTheCall() {
+    singleFlight.execute("feeds", new Callable<Object>() {
+      @Override
+      public Object call() {
+        throw new IllegalStateException();
+      }
+    });
+  }
+
+  private Callable<Object> callThroughSingleFlight(final String key) {
+    return new Callable<Object>() {
+      @Override
+      public Object call() {
+        return singleFlight.execute(key, slowCall);
+      }
+    };
+  }
+
+  private void waitForCalls(int calls) throws InterruptedException {
+    while (singleFlight.getCallCount() < calls) {
+      Thread.sleep(10);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.mypodcasts.repositories;
 
 import android.content.res.Resources;
 
+import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import com.mypodcasts.R;
 import com.mypodcasts.repositories.models.Episode;
@@ -12,19 +13,36 @@ import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import de.greenrobot.event.EventBus;
 import retrofit.RestAdapter;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.givenThat;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.joda.time.format.ISODateTimeFormat.dateTimeParser;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class UserFeedsRepositoryTest {
@@ -33,11 +51,19 @@ public class UserFeedsRepositoryTest {
   HttpClient httpClient;
 
   Resources resources = mock(Resources.class);
+  EpisodeStore episodeStore = mock(EpisodeStore.class);
+  Executor executor = mock(Executor.class);
+  EventBus eventBus = mock(EventBus.class);
+  SingleFlight singleFlight = new SingleFlight();
 
   @Rule
   public WireMockRule wireMockRule = new WireMockRule(1111);
   final String userFeedsPath = "/api/user/johndoe/feeds";
-  final String userFeedPath = "/api/user/johndoe/feeds/123456/episodes";
+  final String userFeedPath = "/api/user/johndoe/feeds/123456/episodes?limit=20";
+  final String newUserFeedEpisodesPath =
+      "/api/user/johndoe/feeds/123456/episodes?since=2015-09-23T15%3A00%3A00.000Z";
+  final String nextUserFeedPath =
+      "/api/user/johndoe/feeds/123456/episodes?cursor=2015-05-15T15%3A00%3A00.000Z&limit=20";
   final String expectedId = "123456";
   private int firstPosition = 0;
 
@@ -53,10 +79,169 @@ public class UserFeedsRepositoryTest {
         .willReturn(aResponse()
             .withStatus(200)
             .withBodyFile("user_feed_episodes.json")));
+    givenThat(get(urlEqualTo(nextUserFeedPath))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withBodyFile("user_feed_episodes_page_2.json")));
+    givenThat(get(urlEqualTo(newUserFeedEpisodesPath))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withBodyFile("user_feed_new_episodes.json")));
     when(resources.getString(R.string.base_url)).thenReturn("http://localhost:1111");
 
+    when(episodeStore.getFeeds()).thenReturn(null);
+
     httpClient = new HttpClient(resources, new RestAdapter.Builder());
-    repository = new UserFeedsRepository(httpClient);
+    repository = new UserFeedsRepository(httpClient, episodeStore, executor, eventBus, singleFlight);
+  }
+
+  @Test
+  public void itReturnsNextPageOfFeedEpisodesAfterLastEpisode() {
+    List<Episode> firstPage = repository.getFeed(expectedId).getEpisodes();
+    Episode lastEpisode = firstPage.get(firstPage.size() - 1);
+
+    List<Episode> nextPage = repository.getFeedEpisodesAfter(expectedId, lastEpisode);
+
+    assertThat(nextPage.size(), is(1));
+    assertThat(nextPage.get(firstPosition).getTitle(), is("Older Episode"));
+    verify(episodeStore).saveDescriptions(nextPage);
+  }
+
+  @Test
+  public void itReturnsStoredFeedsWithoutHittingTheNetwork() {
+    List<Feed> storedFeeds = asList(new Feed());
+    when(episodeStore.getFeeds()).thenReturn(storedFeeds);
+
+    List<Feed> feeds = repository.getFeeds();
+
+    assertThat(feeds, is(sameInstance(storedFeeds)));
+    WireMock.verify(0, getRequestedFor(urlEqualTo(userFeedsPath)));
+  }
+
+  @Test
+  public void itRequestsOnlyEpisodesNewerThanWatermark() {
+    when(episodeStore.getFeed(expectedId)).thenReturn(new Feed());
+    when(episodeStore.getFeedWatermark(expectedId)).thenReturn("2015-09-23T15:00:00.000Z");
+    repository = new UserFeedsRepository(httpClient, episodeStore, directExecutor(), eventBus, singleFlight);
+
+    repository.getFeed(expectedId);
+
+    ArgumentCaptor<Feed> newEpisodes = ArgumentCaptor.forClass(Feed.class);
+    verify(episodeStore).mergeFeed(newEpisodes.capture());
+    assertThat(newEpisodes.getValue().getEpisodes().size(), is(1));
+    WireMock.verify(0, getRequestedFor(urlEqualTo(userFeedPath)));
+  }
+
+  @Test
+  public void itPostsMergedFeedWhenNewEpisodesArrive() {
+    Feed mergedFeed = new Feed();
+    when(episodeStore.getFeed(expectedId)).thenReturn(new Feed(), mergedFeed);
+    when(episodeStore.getFeedWatermark(expectedId)).thenReturn("2015-09-23T15:00:00.000Z");
+    when(episodeStore.mergeFeed(any(Feed.class))).thenReturn(true);
+    repository = new UserFeedsRepository(httpClient, episodeStore, directExecutor(), eventBus, singleFlight);
+
+    repository.getFeed(expectedId);
+
+    ArgumentCaptor<FeedRefreshedEvent> event = ArgumentCaptor.forClass(FeedRefreshedEvent.class);
+    verify(eventBus).post(event.capture());
+    assertThat(event.getValue().getFeed(), is(sameInstance(mergedFeed)));
+  }
+
+  @Test
+  public void itSharesOneRequestBetweenConcurrentCallers() throws Exception {
+    givenThat(get(urlEqualTo(userFeedsPath))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withFixedDelay(500)
+            .withBodyFile("user_feeds.json")));
+    ExecutorService executorService = newFixedThreadPool(2);
+    Callable<List<Feed>> getFeeds = new Callable<List<Feed>>() {
+      @Override
+      public List<Feed> call() {
+        return repository.getFeeds();
+      }
+    };
+
+    Future<List<Feed>> first = executorService.submit(getFeeds);
+    Future<List<Feed>> second = executorService.submit(getFeeds);
+
+    assertThat(first.get(), is(sameInstance(second.get())));
+    assertThat(singleFlight.getCoalescedCount(), is(1));
+    WireMock.verify(1, getRequestedFor(urlEqualTo(userFeedsPath)));
+    executorService.shutdown();
+  }
+
+  @Test
+  public void itStreamsEpisodeBatchesToEveryCallerListeningForThem() throws Exception {
+    givenThat(get(urlEqualTo(userFeedPath))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withFixedDelay(500)
+            .withBodyFile("user_feed_episodes.json")));
+    ExecutorService executorService = newFixedThreadPool(2);
+    EpisodeBatchListener firstListener = mock(EpisodeBatchListener.class);
+    EpisodeBatchListener secondListener = mock(EpisodeBatchListener.class);
+
+    Future<Feed> first = executorService.submit(getFeedStreamingTo(firstListener));
+    Future<Feed> second = executorService.submit(getFeedStreamingTo(secondListener));
+    first.get();
+    second.get();
+
+    verify(firstListener, atLeastOnce()).onEpisodes(anyListOf(Episode.class));
+    verify(secondListener, atLeastOnce()).onEpisodes(anyListOf(Episode.class));
+    executorService.shutdown();
+  }
+
+  @Test
+  public void itSyncsFeedsFromTheNetworkEvenWhenTheyAreStored() {
+    when(episodeStore.getFeeds()).thenReturn(asList(new Feed()));
+
+    List<Feed> feeds = repository.syncFeeds();
+
+    verify(episodeStore).saveFeeds(feeds);
+    WireMock.verify(1, getRequestedFor(urlEqualTo(userFeedsPath)));
+  }
+
+  @Test
+  public void itSyncsOnlyEpisodesNewerThanWatermarkBeforeReturningStoredFeed() {
+    Feed mergedFeed = new Feed();
+    when(episodeStore.getFeed(expectedId)).thenReturn(new Feed(), mergedFeed);
+    when(episodeStore.getFeedWatermark(expectedId)).thenReturn("2015-09-23T15:00:00.000Z");
+
+    Feed feed = repository.syncFeed(expectedId);
+
+    assertThat(feed, is(sameInstance(mergedFeed)));
+    verify(episodeStore).mergeFeed(any(Feed.class));
+    verify(executor, never()).execute(any(Runnable.class));
+  }
+
+  @Test
+  public void itStoresFeedsFetchedFromTheNetwork() {
+    List<Feed> feeds = repository.getFeeds();
+
+    verify(episodeStore).saveFeeds(feeds);
+  }
+
+  @Test
+  public void itPostsRefreshedFeedsWhenStoreChanges() {
+    when(episodeStore.getFeeds()).thenReturn(asList(new Feed()));
+    when(episodeStore.saveFeeds(any(List.class))).thenReturn(true);
+    repository = new UserFeedsRepository(httpClient, episodeStore, directExecutor(), eventBus, singleFlight);
+
+    repository.getFeeds();
+
+    verify(eventBus).post(any(FeedsRefreshedEvent.class));
+  }
+
+  @Test
+  public void itDoesNotPostRefreshedFeedWhenStoreIsUnchanged() {
+    when(episodeStore.getFeed(expectedId)).thenReturn(new Feed());
+    when(episodeStore.saveFeed(any(Feed.class))).thenReturn(false);
+    repository = new UserFeedsRepository(httpClient, episodeStore, directExecutor(), eventBus, singleFlight);
+
+    repository.getFeed(expectedId);
+
+    verify(eventBus, never()).post(any());
   }
 
   @Test
@@ -149,18 +334,18 @@ public class UserFeedsRepositoryTest {
   }
 
   @Test
-  public void itReturnsDescriptionWhenGetFeeds() {
+  public void itReturnsDescriptionSummaryWhenGetFeeds() {
     Feed feed = repository.getFeed(expectedId);
     Episode episode = feed.getEpisodes().get(firstPosition);
 
     Episode expectedEpisode = new Episode() {
       @Override
-      public String getDescription() {
+      public String getSummary() {
         return "Newest episode description";
       }
     };
 
-    assertThat(episode.getDescription(), is(expectedEpisode.getDescription()));
+    assertThat(episode.getSummary(), is(expectedEpisode.getSummary()));
   }
 
   @Test
@@ -209,4 +394,13 @@ public class UserFeedsRepositoryTest {
 
     assertThat(feed.getImage().getUrl(), is(expectedFeed.getImage().getUrl()));
   }
-}
\ No newline at end of file
+
+  private Callable<Feed> getFeedStreamingTo(final EpisodeBatchListener listener) {
+    return new Callable<Feed>() {
+      @Override
+      public Feed call() {
+        return repository.getFeed(expectedId, listener);
+      }
+    };
+  }
+}
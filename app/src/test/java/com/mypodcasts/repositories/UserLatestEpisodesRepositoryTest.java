@@ -2,6 +2,7 @@ package com.mypodcasts.repositories;
 
 import android.content.res.Resources;
 
+import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import com.mypodcasts.R;
 import com.mypodcasts.repositories.models.Episode;
@@ -11,15 +12,26 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import de.greenrobot.event.EventBus;
 import retrofit.RestAdapter;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Arrays.asList;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.givenThat;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class UserLatestEpisodesRepositoryTest {
@@ -28,11 +40,17 @@ public class UserLatestEpisodesRepositoryTest {
   HttpClient httpClient;
 
   Resources resources = mock(Resources.class);
+  EpisodeStore episodeStore = mock(EpisodeStore.class);
+  Executor executor = mock(Executor.class);
+  EventBus eventBus = mock(EventBus.class);
+  SingleFlight singleFlight = new SingleFlight();
   int firstPosition = 0;
 
   @Rule
   public WireMockRule wireMockRule = new WireMockRule(1111);
-  final String latestEpisodesPath = "/api/user/johndoe/latest_episodes";
+  final String latestEpisodesPath = "/api/user/johndoe/latest_episodes?limit=20";
+  final String nextLatestEpisodesPath =
+      "/api/user/johndoe/latest_episodes?cursor=2015-05-15T15%3A00%3A00.000Z&limit=20";
 
   @Before
   public void setup() {
@@ -40,10 +58,50 @@ public class UserLatestEpisodesRepositoryTest {
         .willReturn(aResponse()
             .withStatus(200)
             .withBodyFile("latest_episodes.json")));
+    givenThat(get(urlEqualTo(nextLatestEpisodesPath))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withBodyFile("latest_episodes_page_2.json")));
     when(resources.getString(R.string.base_url)).thenReturn("http://localhost:1111");
 
+    when(episodeStore.getLatestEpisodes()).thenReturn(null);
+
     httpClient = new HttpClient(resources, new RestAdapter.Builder());
-    repository = new UserLatestEpisodesRepository(httpClient);
+    repository = new UserLatestEpisodesRepository(httpClient, episodeStore, executor, eventBus, singleFlight);
+  }
+
+  @Test
+  public void itReturnsNextPageAfterLastEpisode() {
+    List<Episode> firstPage = repository.getLatestEpisodes();
+    Episode lastEpisode = firstPage.get(firstPage.size() - 1);
+
+    List<Episode> nextPage = repository.getLatestEpisodesAfter(lastEpisode);
+
+    assertThat(nextPage.size(), is(1));
+    assertThat(nextPage.get(firstPosition).getTitle(), is("Older Episode"));
+    verify(episodeStore).saveDescriptions(nextPage);
+  }
+
+  @Test
+  public void itReturnsStoredEpisodesWithoutHittingTheNetwork() {
+    List<Episode> storedEpisodes = asList(new Episode());
+    when(episodeStore.getLatestEpisodes()).thenReturn(storedEpisodes);
+
+    List<Episode> episodes = repository.getLatestEpisodes();
+
+    assertThat(episodes, is(sameInstance(storedEpisodes)));
+    WireMock.verify(0, getRequestedFor(urlEqualTo(latestEpisodesPath)));
+  }
+
+  @Test
+  public void itPostsRefreshedEpisodesWhenStoreChanges() {
+    when(episodeStore.getLatestEpisodes()).thenReturn(asList(new Episode()));
+    when(episodeStore.saveLatestEpisodes(any(List.class))).thenReturn(true);
+    repository = new UserLatestEpisodesRepository(httpClient, episodeStore, directExecutor(), eventBus, singleFlight);
+
+    repository.getLatestEpisodes();
+
+    verify(eventBus).post(any(LatestEpisodesRefreshedEvent.class));
   }
 
   @Test
@@ -0,0 +1,71 @@
+package com.mypodcasts.repositories.models;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.mypodcasts.BuildConfig;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLog;
+
+import java.util.List;
+
+import static java.lang.String.format;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.joda.time.format.ISODateTimeFormat.dateTimeParser;
+import static org.junit.Assert.assertThat;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class)
+public class EpisodePublishedDateTest {
+
+  private static final int EPISODES = 100;
+
+  Gson gson = new Gson();
+
+  @Test
+  public void itParsesPublishedDateIntoEpochMillis() {
+    Episode episode = gson.fromJson("{\"publishedDate\": \"2015-09-23T15:00:00.000Z\"}", Episode.class);
+
+    assertThat(episode.getPublishedDate().getTime(), is(1443020400000L));
+  }
+
+  @Test
+  public void itWritesPublishedDateBackAsIsoString() {
+    Episode episode = gson.fromJson("{\"publishedDate\": \"2015-09-23T17:00:00.000+02:00\"}", Episode.class);
+
+    assertThat(gson.toJson(episode), containsString("\"publishedDate\":\"2015-09-23T15:00:00.000Z\""));
+  }
+
+  @Test
+  public void itIgnoresInvalidPublishedDate() {
+    Episode episode = gson.fromJson("{\"publishedDate\": \"yesterday\"}", Episode.class);
+
+    assertThat(episode.getPublishedDate(), is(nullValue()));
+  }
+
+  @Test
+  public void itWarnsAboutInvalidPublishedDate() {
+    gson.fromJson("{\"publishedDate\": \"yesterday\"}", Episode.class);
+
+    List<ShadowLog.LogItem> logs = ShadowLog.getLogsForTag("[mypodcasts]");
+    assertThat(logs.size(), is(1));
+    assertThat(logs.get(0).type, is(Log.WARN));
+    assertThat(logs.get(0).msg, containsString("yesterday"));
+  }
+
+  @Test
+  public void itReadsTheSameInstantAsParsingThePublishedDate() {
+    for (int i = 0; i < EPISODES; i++) {
+      String publishedDate = format("2015-09-%02dT15:%02d:00.000Z", 1 + i % 28, i % 60);
+      Episode episode = gson.fromJson("{\"publishedDate\": \"" + publishedDate + "\"}", Episode.class);
+
+      assertThat(episode.getPublishedDate(), is(dateTimeParser().parseDateTime(publishedDate).toDate()));
+    }
+  }
+}
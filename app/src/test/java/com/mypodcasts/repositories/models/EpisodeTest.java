@@ -1,5 +1,7 @@
 package com.mypodcasts.repositories.models;
 
+import com.google.gson.Gson;
+
 import org.junit.Test;
 
 import static java.lang.String.format;
@@ -116,14 +118,88 @@ public class EpisodeTest {
   }
 
   @Test
-  public void itReturnsEmptyDescriptionWhenItIsNull() {
+  public void itIdentifiesEpisodeByAudioUrl() {
+    Episode episode = new Gson().fromJson(
+        "{\"title\": \"Episode\", \"audio\": {\"url\": \"http://example.com/audio.mp3\"}}",
+        Episode.class
+    );
+
+    assertThat(episode.getId(), is("http://example.com/audio.mp3"));
+  }
+
+  @Test
+  public void itIdentifiesEpisodeWithoutAudioByPodcastTitleAndPublishedDate() {
+    Episode episode = new Gson().fromJson(
+        "{\"title\": \"Episode\", \"publishedDate\": \"2015-09-23T15:00:00.000Z\", \"podcast\": {\"id\": \"123\"}}",
+        Episode.class
+    );
+    Episode anotherEpisode = new Gson().fromJson(
+        "{\"title\": \"Another Episode\", \"publishedDate\": \"2015-09-23T15:00:00.000Z\", \"podcast\": {\"id\": \"123\"}}",
+        Episode.class
+    );
+
+    assertThat(episode.getId(), is("123/Episode@1443020400000"));
+    assertThat(anotherEpisode.getId().equals(episode.getId()), is(false));
+  }
+
+  @Test
+  public void itReturnsEmptySummaryWhenDescriptionIsNull() {
     Episode episode = new Episode();
 
-    assertThat(episode.getDescription(), is(""));
+    assertThat(episode.getSummary(), is(""));
+    assertNull(episode.releaseDescription());
   }
 
   @Test
   public void itReturnsNullDateByDefault() {
     assertNull(new Episode().getPublishedDate());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void itSummarizesDescriptionAsPlainText() {
+    Episode episode = new Gson().fromJson(
+        "{\"description\": \"<p>Tom &amp; Jerry&#39;s <b>show</b></p>\\n<p>notes</p>\"}",
+        Episode.class
+    );
+
+    assertThat(episode.getSummary(), is("Tom & Jerry's show notes"));
+    assertThat(episode.releaseDescription(), is("<p>Tom &amp; Jerry&#39;s <b>show</b></p>\n<p>notes</p>"));
+  }
+
+  @Test
+  public void itReleasesFullDescriptionOnlyOnce() {
+    Episode episode = new Gson().fromJson("{\"description\": \"<p>Show notes</p>\"}", Episode.class);
+
+    assertThat(episode.releaseDescription(), is("<p>Show notes</p>"));
+    assertNull(episode.releaseDescription());
+    assertThat(episode.getSummary(), is("Show notes"));
+  }
+
+  @Test
+  public void itTruncatesSummaryAtAWordBoundary() {
+    StringBuilder description = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      description.append("word ");
+    }
+
+    Episode episode = new Gson().fromJson(
+        "{\"description\": \"" + description + "\"}", Episode.class
+    );
+
+    assertThat(episode.getSummary().length(), is(200));
+    assertThat(episode.getSummary().endsWith("word…"), is(true));
+  }
+
+  @Test
+  public void itKeepsOnlySummaryWhenSerialized() {
+    Gson gson = new Gson();
+    Episode episode = gson.fromJson("{\"description\": \"<p>Tom &amp; Jerry</p>\"}", Episode.class);
+
+    String json = gson.toJson(episode);
+    Episode deserializedEpisode = gson.fromJson(json, Episode.class);
+
+    assertThat(json, is("{\"description\":{\"summary\":\"Tom \\u0026 Jerry\"}}"));
+    assertThat(deserializedEpisode.getSummary(), is("Tom & Jerry"));
+    assertNull(deserializedEpisode.releaseDescription());
+  }
+}
@@ -0,0 +1,355 @@
+package com.mypodcasts.support;
+
+import com.mypodcasts.util.FlakyHttpServer;
+import com.squareup.okhttp.OkHttpClient;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import de.greenrobot.event.EventBus;
+
+import static com.google.common.io.BaseEncoding.base16;
+import static com.google.common.io.BaseEncoding.base64;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class DownloadEngineTest {
+  private static final int FILE_SIZE = 256 * 1024;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  byte[] audio = new byte[FILE_SIZE];
+  FlakyHttpServer server;
+  DownloadEngine downloadEngine;
+  ExternalPublicFileLookup externalPublicFileLookupMock = mock(ExternalPublicFileLookup.class);
+  EventBus eventBusMock = mock(EventBus.class);
+  BlockingQueue<Download> finishedDownloads = new LinkedBlockingQueue<>();
+
+  @Before
+  public void setup() throws IOException {
+    new Random(42).nextBytes(audio);
+    server = new FlakyHttpServer(audio);
+
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) {
+        Object event = invocation.getArguments()[0];
+        if (event instanceof DownloadFinishedEvent) {
+          finishedDownloads.add(((DownloadFinishedEvent) event).getDownload());
+        }
+
+        return null;
+      }
+    }).when(eventBusMock).post(anyObject());
+
+    downloadEngine = new DownloadEngine(new OkHttpClient(), externalPublicFileLookupMock, eventBusMock, 1, 0, 16 * 1024);
+  }
+
+  @After
+  public void teardown() throws IOException {
+    server.stop();
+  }
+
+  @Test
+  public void itDownloadsFileToItsDestination() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "123/Episode.mp3");
+
+    Download download = downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH);
+
+    assertThat(nextFinishedDownload(), is(sameInstance(download)));
+    assertThat(download.isSuccessful(), is(true));
+    assertThat(Files.readAllBytes(file.toPath()), is(audio));
+    assertThat(download.getPartialFile().exists(), is(false));
+    verify(externalPublicFileLookupMock).add(file);
+  }
+
+  @Test
+  public void itFinishesDownloadsThatFailUnexpectedly() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+
+    Download download = downloadEngine.enqueue("episode", "not a url", file, Download.PRIORITY_HIGH);
+
+    assertThat(nextFinishedDownload(), is(sameInstance(download)));
+    assertThat(download.isSuccessful(), is(false));
+    assertThat(downloadEngine.isDownloading("episode"), is(false));
+  }
+
+  @Test
+  public void itResumesWithRangeRequestsWhenConnectionDrops() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    server.dropConnections(2, 100 * 1024);
+
+    Download download = downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH);
+
+    assertThat(nextFinishedDownload().isSuccessful(), is(true));
+    assertThat(Files.readAllBytes(file.toPath()), is(audio));
+    assertThat(download.getDownloadedBytes(), is((long) FILE_SIZE));
+    assertThat(server.getRequests(), is(asList(
+        "/episode.mp3", "/episode.mp3 from 102400", "/episode.mp3 from 204800"
+    )));
+  }
+
+  @Test
+  public void itStartsOverWhenServerIgnoresRanges() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    server.dropConnections(1, 100 * 1024);
+    server.ignoreRanges();
+
+    downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH);
+
+    assertThat(nextFinishedDownload().isSuccessful(), is(true));
+    assertThat(Files.readAllBytes(file.toPath()), is(audio));
+  }
+
+  @Test
+  public void itDoesNotEnqueueTheSameDownloadTwice() throws Exception {
+    CountDownLatch held = new CountDownLatch(1);
+    server.holdResponsesUntil(held);
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+
+    Download download = downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_LOW);
+    Download sameDownload = downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH);
+    assertThat(downloadEngine.isDownloading("episode"), is(true));
+    held.countDown();
+
+    assertThat(sameDownload, is(sameInstance(download)));
+    assertThat(nextFinishedDownload(), is(sameInstance(download)));
+    assertThat(server.getRequests(), is(asList("/episode.mp3")));
+    assertThat(downloadEngine.isDownloading("episode"), is(false));
+  }
+
+  @Test
+  public void itRunsQueuedDownloadsByPriority() throws Exception {
+    CountDownLatch held = new CountDownLatch(1);
+    server.holdResponsesUntil(held);
+    File directory = temporaryFolder.getRoot();
+
+    downloadEngine.enqueue("first", server.getUrl("/first.mp3"), new File(directory, "first.mp3"), Download.PRIORITY_LOW);
+    waitForRequests(1);
+    downloadEngine.enqueue("low", server.getUrl("/low.mp3"), new File(directory, "low.mp3"), Download.PRIORITY_LOW);
+    downloadEngine.enqueue("normal", server.getUrl("/normal.mp3"), new File(directory, "normal.mp3"), Download.PRIORITY_NORMAL);
+    downloadEngine.enqueue("high", server.getUrl("/high.mp3"), new File(directory, "high.mp3"), Download.PRIORITY_HIGH);
+    held.countDown();
+
+    for (int i = 0; i < 4; i++) {
+      nextFinishedDownload();
+    }
+
+    assertThat(server.getRequests(), is(asList("/first.mp3", "/high.mp3", "/normal.mp3", "/low.mp3")));
+  }
+
+  @Test
+  public void itCancelsQueuedDownloads() throws Exception {
+    CountDownLatch held = new CountDownLatch(1);
+    server.holdResponsesUntil(held);
+    File directory = temporaryFolder.getRoot();
+
+    downloadEngine.enqueue("first", server.getUrl("/first.mp3"), new File(directory, "first.mp3"), Download.PRIORITY_LOW);
+    waitForRequests(1);
+    Download queued = downloadEngine.enqueue("queued", server.getUrl("/queued.mp3"), new File(directory, "queued.mp3"), Download.PRIORITY_LOW);
+    downloadEngine.cancel("queued");
+
+    assertThat(nextFinishedDownload(), is(sameInstance(queued)));
+    assertThat(queued.isSuccessful(), is(false));
+    assertThat(queued.isCancelled(), is(true));
+    assertThat(downloadEngine.isDownloading("queued"), is(false));
+
+    held.countDown();
+    assertThat(nextFinishedDownload().isSuccessful(), is(true));
+    assertThat(server.getRequests(), is(asList("/first.mp3")));
+  }
+
+  @Test
+  public void itStopsRunningDownloadsWhenCancelledAndKeepsWhatWasDownloaded() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    server.throttle(4 * 1024, 10);
+
+    Download download = downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_LOW);
+    while (download.getDownloadedBytes() == 0) {
+      Thread.sleep(10);
+    }
+    downloadEngine.cancel("episode");
+
+    assertThat(nextFinishedDownload(), is(sameInstance(download)));
+    assertThat(download.isSuccessful(), is(false));
+    assertThat(file.exists(), is(false));
+    assertThat(download.getPartialFile().length() > 0, is(true));
+    assertThat(download.getPartialFile().length() < FILE_SIZE, is(true));
+    assertThat(server.getRequests(), is(asList("/episode.mp3")));
+  }
+
+  @Test
+  public void itGivesUpAfterRepeatedConnectionFailures() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    server.stop();
+
+    Download download = downloadEngine.enqueue("episode", "http://127.0.0.1:1/episode.mp3", file, Download.PRIORITY_HIGH);
+
+    assertThat(nextFinishedDownload(), is(sameInstance(download)));
+    assertThat(download.isSuccessful(), is(false));
+    assertThat(file.exists(), is(false));
+  }
+
+  @Test
+  public void itDownloadsLargeFilesInParallelSegments() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "123/Episode.mp3");
+
+    downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH, 4);
+
+    assertThat(nextFinishedDownload().isSuccessful(), is(true));
+    assertThat(Files.readAllBytes(file.toPath()), is(audio));
+    assertThat(new HashSet<>(server.getRequests()), is(new HashSet<>(asList(
+        "HEAD /episode.mp3",
+        "/episode.mp3 0-65535",
+        "/episode.mp3 65536-131071",
+        "/episode.mp3 131072-196607",
+        "/episode.mp3 196608-262143"
+    ))));
+  }
+
+  @Test
+  public void itResumesOnlyTheSegmentThatDropped() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    server.dropConnections(1, 10 * 1024);
+
+    Download download = downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH, 4);
+
+    assertThat(nextFinishedDownload().isSuccessful(), is(true));
+    assertThat(Files.readAllBytes(file.toPath()), is(audio));
+    assertThat(download.getDownloadedBytes(), is((long) FILE_SIZE));
+    assertThat(server.getRequests().size(), is(6));
+  }
+
+  @Test
+  public void itFallsBackToASingleStreamWhenServerIgnoresRanges() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    server.ignoreRanges();
+
+    downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH, 4);
+
+    assertThat(nextFinishedDownload().isSuccessful(), is(true));
+    assertThat(Files.readAllBytes(file.toPath()), is(audio));
+    assertThat(server.getRequests(), is(asList("HEAD /episode.mp3", "/episode.mp3")));
+  }
+
+  @Test
+  public void itStopsTheOtherSegmentsAsSoonAsOneFallsBackToASingleStream() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    server.ignoreRangesStartingAt(196608);
+    server.throttle(4 * 1024, 10);
+
+    downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH, 4);
+
+    assertThat(nextFinishedDownload().isSuccessful(), is(true));
+    assertThat(Files.readAllBytes(file.toPath()), is(audio));
+    assertThat(lastRequest().matches("/episode\\.mp3( from \\d+)?"), is(true));
+    assertThat(server.getBytesServed() < FILE_SIZE + 64 * 1024, is(true));
+  }
+
+  @Test
+  public void itKeepsSegmentsAboveTheMinimumSegmentSize() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+
+    downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH, 64);
+
+    assertThat(nextFinishedDownload().isSuccessful(), is(true));
+    assertThat(Files.readAllBytes(file.toPath()), is(audio));
+    assertThat(server.getRequests().size(), is(17));
+  }
+
+  @Test
+  public void itQuarantinesDownloadsShorterThanAnnouncedByTheFeed() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    server.omitContentLength();
+
+    downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH, 1, FILE_SIZE + 1);
+
+    assertThat(nextFinishedDownload().isSuccessful(), is(false));
+    assertThat(file.exists(), is(false));
+    assertThat(new File(file.getPath() + ".part.quarantine").length(), is((long) FILE_SIZE));
+    verify(externalPublicFileLookupMock, never()).add(file);
+  }
+
+  @Test
+  public void itTrustsTheServerContentLengthOverTheLengthAnnouncedByTheFeed() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+
+    downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH, 1, FILE_SIZE + 1);
+
+    assertThat(nextFinishedDownload().isSuccessful(), is(true));
+    assertThat(Files.readAllBytes(file.toPath()), is(audio));
+  }
+
+  @Test
+  public void itQuarantinesDownloadsThatDoNotMatchAnnouncedChecksum() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    server.announceContentMd5(base64().encode(md5(new byte[FILE_SIZE])));
+
+    downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH, 4);
+
+    assertThat(nextFinishedDownload().isSuccessful(), is(false));
+    assertThat(file.exists(), is(false));
+    assertThat(new File(file.getPath() + ".part.quarantine").exists(), is(true));
+  }
+
+  @Test
+  public void itAcceptsDownloadsThatMatchAnnouncedChecksum() throws Exception {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    server.announceContentMd5(base64().encode(md5(audio)));
+
+    downloadEngine.enqueue("episode", server.getUrl("/episode.mp3"), file, Download.PRIORITY_HIGH, 4);
+
+    Download download = nextFinishedDownload();
+    assertThat(download.isSuccessful(), is(true));
+    assertThat(download.getChecksum(), is(base16().lowerCase().encode(md5(audio))));
+  }
+
+  private byte[] md5(byte[] bytes) throws NoSuchAlgorithmException {
+    return MessageDigest.getInstance("MD5").digest(bytes);
+  }
+
+  private Download nextFinishedDownload() throws InterruptedException {
+    Download download = finishedDownloads.poll(10, SECONDS);
+    if (download == null) { throw new AssertionError("Download did not finish"); }
+
+    return download;
+  }
+
+  private void waitForRequests(int count) throws InterruptedException {
+    while (server.getRequests().size() < count) {
+      Thread.sleep(10);
+    }
+  }
+
+  private String lastRequest() {
+    List<String> requests = server.getRequests();
+
+    return requests.get(requests.size() - 1);
+  }
+}
@@ -0,0 +1,95 @@
+package com.mypodcasts.support;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.util.Collections;
+
+import de.greenrobot.event.EventBus;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DownloadProgressTrackerTest {
+
+  DownloadEngine downloadEngineMock = mock(DownloadEngine.class);
+  EventBus eventBusMock = mock(EventBus.class);
+  DownloadProgressTracker downloadProgressTracker;
+
+  Download firstDownload = aDownload("first");
+  Download secondDownload = aDownload("second");
+
+  @Before
+  public void setup() {
+    downloadProgressTracker = new DownloadProgressTracker(downloadEngineMock, eventBusMock, 60000);
+    when(downloadEngineMock.getDownloads()).thenReturn(asList(firstDownload, secondDownload));
+  }
+
+  @Test
+  public void itPostsProgressOfAllDownloadsInASingleEvent() {
+    firstDownload.setTotalBytes(200);
+    firstDownload.setDownloadedBytes(50);
+
+    downloadProgressTracker.sample();
+
+    DownloadProgressEvent event = postedEvent();
+    assertThat(event.size(), is(2));
+    assertThat(event.getProgress("first").getPercent(), is(25));
+    assertThat(event.getProgress("second").getPercent(), is(-1));
+  }
+
+  @Test
+  public void itOnlyReportsDownloadsThatMadeProgress() {
+    downloadProgressTracker.sample();
+    firstDownload.addDownloadedBytes(10);
+
+    downloadProgressTracker.sample();
+
+    ArgumentCaptor<DownloadProgressEvent> events = ArgumentCaptor.forClass(DownloadProgressEvent.class);
+    verify(eventBusMock, times(2)).post(events.capture());
+    DownloadProgressEvent event = events.getAllValues().get(1);
+    assertThat(event.size(), is(1));
+    assertThat(event.getProgress("first").getDownloadedBytes(), is(10L));
+    assertThat(event.getProgress("second"), is(nullValue()));
+  }
+
+  @Test
+  public void itDoesNotPostWhenNothingChanged() {
+    downloadProgressTracker.sample();
+    downloadProgressTracker.sample();
+
+    verify(eventBusMock, times(1)).post(anyObject());
+  }
+
+  @Test
+  public void itStopsTrackingWhenThereAreNoDownloads() {
+    downloadProgressTracker.track();
+    when(downloadEngineMock.getDownloads()).thenReturn(Collections.<Download>emptyList());
+
+    downloadProgressTracker.sample();
+
+    assertThat(downloadProgressTracker.isTracking(), is(false));
+    verify(eventBusMock, never()).post(anyObject());
+  }
+
+  private DownloadProgressEvent postedEvent() {
+    ArgumentCaptor<DownloadProgressEvent> event = ArgumentCaptor.forClass(DownloadProgressEvent.class);
+    verify(eventBusMock).post(event.capture());
+
+    return event.getValue();
+  }
+
+  private Download aDownload(String key) {
+    return new Download(null, key, "http://example.com/" + key + ".mp3", new File(key), Download.PRIORITY_NORMAL, 1, -1, 0);
+  }
+}
@@ -0,0 +1,111 @@
+package com.mypodcasts.support;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class DownloadVerifierTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  DownloadVerifier downloadVerifier = new DownloadVerifier();
+
+  @Test
+  public void itComputesMd5ChecksumOfFile() throws IOException {
+    File file = aFile("hello");
+
+    assertThat(downloadVerifier.checksum(file), is("5d41402abc4b2a76b9719d911017c592"));
+  }
+
+  @Test
+  public void itAcceptsFileMatchingAnnouncedSizes() throws IOException {
+    File file = aFile("hello");
+    Download download = aDownload(file, 5);
+    download.setTotalBytes(5);
+
+    assertThat(downloadVerifier.verify(download, file), is(true));
+    assertThat(download.getChecksum(), is(nullValue()));
+  }
+
+  @Test
+  public void itHashesFileOnlyWhenServerAnnouncedChecksum() throws IOException {
+    File file = aFile("hello");
+    Download download = aDownload(file, 5);
+    download.setExpectedChecksum("5d41402abc4b2a76b9719d911017c592");
+
+    assertThat(downloadVerifier.verify(download, file), is(true));
+    assertThat(download.getChecksum(), is("5d41402abc4b2a76b9719d911017c592"));
+  }
+
+  @Test
+  public void itRejectsFileNotMatchingAnnouncedChecksum() throws IOException {
+    File file = aFile("hello");
+    Download download = aDownload(file, 5);
+    download.setExpectedChecksum("00000000000000000000000000000000");
+
+    assertThat(downloadVerifier.verify(download, file), is(false));
+  }
+
+  @Test
+  public void itAcceptsFileLargerThanAnnouncedByTheFeed() throws IOException {
+    File file = aFile("hello");
+    Download download = aDownload(file, 3);
+
+    assertThat(downloadVerifier.verify(download, file), is(true));
+  }
+
+  @Test
+  public void itTrustsServerAnnouncedSizeOverTheFeed() throws IOException {
+    File file = aFile("hello");
+    Download download = aDownload(file, 10);
+    download.setTotalBytes(5);
+
+    assertThat(downloadVerifier.verify(download, file), is(true));
+  }
+
+  @Test
+  public void itRejectsFileShorterThanAnnouncedByTheFeedWhenServerDidNotAnnounceSize() throws IOException {
+    File file = aFile("hello");
+    Download download = aDownload(file, 10);
+
+    assertThat(downloadVerifier.verify(download, file), is(false));
+  }
+
+  @Test
+  public void itMovesQuarantinedFileAside() throws IOException {
+    File file = aFile("hello");
+
+    File quarantinedFile = downloadVerifier.quarantine(file);
+
+    assertThat(file.exists(), is(false));
+    assertThat(new String(Files.readAllBytes(quarantinedFile.toPath()), US_ASCII), is("hello"));
+  }
+
+  @Test
+  public void itHasNoExpectedChecksumWithoutAnnouncement() throws IOException {
+    Download download = aDownload(aFile("hello"), -1);
+
+    assertThat(download.getExpectedChecksum(), is(nullValue()));
+  }
+
+  private Download aDownload(File file, long expectedBytes) {
+    return new Download(null, "key", "http://example.com/hello", file, Download.PRIORITY_NORMAL, 1, expectedBytes, 0);
+  }
+
+  private File aFile(String content) throws IOException {
+    File file = temporaryFolder.newFile();
+    Files.write(file.toPath(), content.getBytes(US_ASCII));
+
+    return file;
+  }
+}
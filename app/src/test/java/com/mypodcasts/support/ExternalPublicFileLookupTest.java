@@ -0,0 +1,97 @@
+package com.mypodcasts.support;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ExternalPublicFileLookupTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  File podcastsDirectory;
+  ExternalPublicFileLookup externalPublicFileLookup;
+
+  @Before
+  public void setup() throws IOException {
+    podcastsDirectory = temporaryFolder.newFolder("Podcasts");
+    new File(podcastsDirectory, "123").mkdir();
+    new File(podcastsDirectory, "123/Episode 1.mp3").createNewFile();
+
+    externalPublicFileLookup = new ExternalPublicFileLookup(directExecutor());
+  }
+
+  @Test
+  public void itFindsFilesInNestedDirectories() {
+    assertThat(externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 1.mp3"), is(true));
+    assertThat(externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 2.mp3"), is(false));
+  }
+
+  @Test
+  public void itAnswersFromTheIndexOnceDirectoryWasScanned() {
+    externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 1.mp3");
+
+    new File(podcastsDirectory, "123/Episode 1.mp3").delete();
+
+    assertThat(externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 1.mp3"), is(true));
+  }
+
+  @Test
+  public void itScansEachDirectoryOnlyOnce() {
+    Executor executorMock = mock(Executor.class);
+    externalPublicFileLookup = new ExternalPublicFileLookup(executorMock);
+
+    externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 1.mp3");
+    externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 2.mp3");
+
+    verify(executorMock, times(1)).execute(any(Runnable.class));
+  }
+
+  @Test
+  public void itChecksFileSystemWhileDirectoryIsBeingScanned() {
+    externalPublicFileLookup = new ExternalPublicFileLookup(mock(Executor.class));
+
+    assertThat(externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 1.mp3"), is(true));
+    assertThat(externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 2.mp3"), is(false));
+  }
+
+  @Test
+  public void itIndexesCompletedDownloads() {
+    externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 2.mp3");
+
+    externalPublicFileLookup.add(new File(podcastsDirectory, "123/Episode 2.mp3"));
+
+    assertThat(externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 2.mp3"), is(true));
+  }
+
+  @Test
+  public void itForgetsRemovedFiles() {
+    externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 1.mp3");
+
+    externalPublicFileLookup.remove(new File(podcastsDirectory, "123/Episode 1.mp3"));
+
+    assertThat(externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 1.mp3"), is(false));
+  }
+
+  @Test
+  public void itIgnoresFilesOutsideIndexedDirectories() {
+    externalPublicFileLookup.exists(podcastsDirectory, "123/Episode 1.mp3");
+
+    externalPublicFileLookup.add(new File(temporaryFolder.getRoot(), "other.mp3"));
+
+    assertThat(externalPublicFileLookup.exists(podcastsDirectory, "../other.mp3"), is(false));
+  }
+}
@@ -0,0 +1,90 @@
+package com.mypodcasts.support;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class SparseFileCacheTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void itKnowsWhichRangesAreCached() throws IOException {
+    SparseFileCache cache = new SparseFileCache(new File(temporaryFolder.getRoot(), "stream"));
+
+    cache.write(100, bytes(50));
+
+    assertThat(cache.cachedBytesAt(0), is(0L));
+    assertThat(cache.cachedBytesAt(120), is(30L));
+    assertThat(cache.cachedBytesAt(150), is(0L));
+    assertThat(cache.nextCachedPositionAfter(0), is(100L));
+    assertThat(cache.nextCachedPositionAfter(100), is(-1L));
+  }
+
+  @Test
+  public void itMergesAdjacentAndOverlappingRanges() throws IOException {
+    SparseFileCache cache = new SparseFileCache(new File(temporaryFolder.getRoot(), "stream"));
+
+    cache.write(0, bytes(10));
+    cache.write(20, bytes(10));
+    cache.write(10, bytes(15));
+
+    assertThat(cache.cachedBytesAt(0), is(30L));
+    assertThat(cache.nextCachedPositionAfter(0), is(-1L));
+  }
+
+  @Test
+  public void itReadsBackCachedBytes() throws IOException {
+    SparseFileCache cache = new SparseFileCache(new File(temporaryFolder.getRoot(), "stream"));
+    cache.write(1000, ByteBuffer.wrap(new byte[]{1, 2, 3}));
+
+    ByteBuffer buffer = ByteBuffer.allocate(3);
+    cache.read(1000, buffer);
+
+    assertThat(buffer.array(), is(new byte[]{1, 2, 3}));
+  }
+
+  @Test
+  public void itRemembersCachedRangesWhenReopened() throws IOException {
+    File file = new File(temporaryFolder.getRoot(), "stream");
+    SparseFileCache cache = new SparseFileCache(file);
+    cache.setTotalBytes(500);
+    cache.setContentType("audio/mpeg");
+    cache.write(100, bytes(50));
+    cache.close();
+
+    SparseFileCache reopenedCache = new SparseFileCache(file);
+
+    assertThat(reopenedCache.getTotalBytes(), is(500L));
+    assertThat(reopenedCache.getContentType(), is("audio/mpeg"));
+    assertThat(reopenedCache.cachedBytesAt(100), is(50L));
+  }
+
+  @Test
+  public void itForgetsRangesThatAreNotBackedByData() throws IOException {
+    File file = new File(temporaryFolder.getRoot(), "stream");
+    SparseFileCache cache = new SparseFileCache(file);
+    cache.write(100, bytes(50));
+    cache.close();
+    file.delete();
+    file.createNewFile();
+
+    SparseFileCache reopenedCache = new SparseFileCache(file);
+
+    assertThat(reopenedCache.cachedBytesAt(100), is(0L));
+    assertThat(reopenedCache.getContentType(), is(nullValue()));
+  }
+
+  private ByteBuffer bytes(int length) {
+    return ByteBuffer.wrap(new byte[length]);
+  }
+}
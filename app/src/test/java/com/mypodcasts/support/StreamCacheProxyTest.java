@@ -0,0 +1,181 @@
+package com.mypodcasts.support;
+
+import com.mypodcasts.util.FlakyHttpServer;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StreamCacheProxyTest {
+  private static final int FILE_SIZE = 256 * 1024;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  byte[] audio = new byte[FILE_SIZE];
+  FlakyHttpServer server;
+  OkHttpClient okHttpClient = new OkHttpClient();
+  DownloadEngine downloadEngineMock = mock(DownloadEngine.class);
+  StreamCacheProxy streamCacheProxy;
+  String url;
+
+  @Before
+  public void setup() throws IOException {
+    new Random(42).nextBytes(audio);
+    server = new FlakyHttpServer(audio);
+    url = server.getUrl("/episode.mp3");
+
+    streamCacheProxy = new StreamCacheProxy(temporaryFolder.newFolder(), okHttpClient, downloadEngineMock);
+  }
+
+  @After
+  public void teardown() throws IOException {
+    streamCacheProxy.stop();
+    server.stop();
+  }
+
+  @Test
+  public void itStreamsAudioFromTheOrigin() throws IOException {
+    Response response = get(streamCacheProxy.proxy(url), null);
+
+    assertThat(response.code(), is(200));
+    assertThat(response.header("Content-Length"), is(String.valueOf(FILE_SIZE)));
+    assertThat(response.body().bytes(), is(audio));
+  }
+
+  @Test
+  public void itReplaysAudioFromCacheWithoutHittingTheOriginAgain() throws IOException {
+    String proxyUrl = streamCacheProxy.proxy(url);
+    get(proxyUrl, null).body().bytes();
+    int originRequests = server.getRequests().size();
+
+    assertThat(get(proxyUrl, null).body().bytes(), is(audio));
+    assertThat(server.getRequests().size(), is(originRequests));
+  }
+
+  @Test
+  public void itServesRangeRequests() throws IOException {
+    Response response = get(streamCacheProxy.proxy(url), "bytes=1000-1999");
+
+    assertThat(response.code(), is(206));
+    assertThat(response.header("Content-Range"), is("bytes 1000-1999/" + FILE_SIZE));
+    assertThat(response.body().bytes(), is(Arrays.copyOfRange(audio, 1000, 2000)));
+  }
+
+  @Test
+  public void itOnlyFetchesRangesThatAreNotCachedYet() throws IOException {
+    String proxyUrl = streamCacheProxy.proxy(url);
+    get(proxyUrl, "bytes=1000-1999").body().bytes();
+
+    assertThat(get(proxyUrl, null).body().bytes(), is(audio));
+    assertThat(server.getRequests(), is(asList(
+        "/episode.mp3 0-0",
+        "/episode.mp3 1000-1999",
+        "/episode.mp3 0-999",
+        "/episode.mp3 2000-" + (FILE_SIZE - 1)
+    )));
+  }
+
+  @Test
+  public void itServesPartiallyDownloadedFileAndFetchesTheRest() throws IOException {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    Download download = new Download(null, url, url, file, Download.PRIORITY_HIGH, 1, -1, 0);
+    FileOutputStream partialFile = new FileOutputStream(download.getPartialFile());
+    partialFile.write(audio, 0, 100000);
+    partialFile.close();
+    download.setDownloadedBytes(100000);
+    download.setStreaming(true);
+    when(downloadEngineMock.getDownload(url)).thenReturn(download);
+
+    assertThat(get(streamCacheProxy.proxy(url), null).body().bytes(), is(audio));
+    assertThat(server.getRequests(), is(asList(
+        "/episode.mp3 0-0",
+        "/episode.mp3 100000-" + (FILE_SIZE - 1)
+    )));
+  }
+
+  @Test
+  public void itServesDownloadedSegmentsAndFetchesTheGapsBetweenThem() throws IOException {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    Download download = new Download(null, url, url, file, Download.PRIORITY_HIGH, 2, -1, 0);
+    Download.Segment first = new Download.Segment(0, FILE_SIZE / 2 - 1);
+    Download.Segment second = new Download.Segment(FILE_SIZE / 2, FILE_SIZE - 1);
+    first.advance(1000);
+    second.advance(1000);
+    download.setSegments(asList(first, second));
+    FileOutputStream partialFile = new FileOutputStream(download.getPartialFile());
+    partialFile.write(audio);
+    partialFile.close();
+    when(downloadEngineMock.getDownload(url)).thenReturn(download);
+
+    assertThat(get(streamCacheProxy.proxy(url), null).body().bytes(), is(audio));
+    assertThat(server.getRequests(), is(asList(
+        "/episode.mp3 0-0",
+        "/episode.mp3 1000-" + (FILE_SIZE / 2 - 1),
+        "/episode.mp3 " + (FILE_SIZE / 2 + 1000) + "-" + (FILE_SIZE - 1)
+    )));
+  }
+
+  @Test
+  public void itDoesNotServePartialFileThatIsOnlyPreallocated() throws IOException {
+    File file = new File(temporaryFolder.getRoot(), "Episode.mp3");
+    Download download = new Download(null, url, url, file, Download.PRIORITY_HIGH, 2, -1, 0);
+    RandomAccessFile partialFile = new RandomAccessFile(download.getPartialFile(), "rw");
+    partialFile.setLength(FILE_SIZE);
+    partialFile.close();
+    when(downloadEngineMock.getDownload(url)).thenReturn(download);
+
+    assertThat(get(streamCacheProxy.proxy(url), null).body().bytes(), is(audio));
+  }
+
+  @Test
+  public void itFindsOutTheLengthFromARangedRequestWhenOriginDoesNotAnnounceContentLength() throws IOException {
+    server.omitContentLength();
+
+    Response response = get(streamCacheProxy.proxy(url), null);
+
+    assertThat(response.header("Content-Length"), is(String.valueOf(FILE_SIZE)));
+    assertThat(response.body().bytes(), is(audio));
+  }
+
+  @Test
+  public void itRedirectsToTheOriginWhenTheLengthCannotBeFoundOut() throws IOException {
+    server.ignoreRanges();
+    server.omitContentLength();
+
+    assertThat(get(streamCacheProxy.proxy(url), null).body().bytes(), is(audio));
+    assertThat(server.getRequests(), is(asList("/episode.mp3 0-0", "/episode.mp3")));
+  }
+
+  @Test
+  public void itRejectsUnknownStreams() throws IOException {
+    String proxyUrl = streamCacheProxy.proxy(url);
+
+    assertThat(get(proxyUrl.substring(0, proxyUrl.lastIndexOf('/')) + "/unknown", null).code(), is(404));
+  }
+
+  private Response get(String url, String range) throws IOException {
+    Request.Builder request = new Request.Builder().url(url);
+    if (range != null) { request.header("Range", range); }
+
+    return okHttpClient.newCall(request.build()).execute();
+  }
+}
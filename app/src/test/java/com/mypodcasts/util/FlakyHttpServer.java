@@ -0,0 +1,183 @@
+package com.mypodcasts.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+public class FlakyHttpServer {
+  private final ServerSocket serverSocket;
+  private final byte[] body;
+  private final List<String> requests = new ArrayList<>();
+
+  private volatile boolean supportsRanges = true;
+  private volatile boolean announcesContentLength = true;
+  private volatile String contentMd5;
+  private volatile int connectionsToDrop;
+  private volatile int dropAfterBytes;
+  private volatile CountDownLatch responsesHeld = new CountDownLatch(0);
+  private volatile int ignoredRangeStart = -1;
+  private volatile int throttleChunkBytes;
+  private volatile long throttleDelayInMillis;
+  private final AtomicLong bytesServed = new AtomicLong();
+
+  public FlakyHttpServer(byte[] body) throws IOException {
+    this.body = body;
+    this.serverSocket = new ServerSocket(0);
+
+    Thread acceptor = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        while (!serverSocket.isClosed()) {
+          try {
+            final Socket socket = serverSocket.accept();
+            new Thread(new Runnable() {
+              @Override
+              public void run() {
+                serve(socket);
+              }
+            }).start();
+          } catch (IOException e) {
+            return;
+          }
+        }
+      }
+    });
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  public String getUrl(String path) {
+    return "http://127.0.0.1:" + serverSocket.getLocalPort() + path;
+  }
+
+  public void dropConnections(int times, int afterBytes) {
+    this.connectionsToDrop = times;
+    this.dropAfterBytes = afterBytes;
+  }
+
+  public void ignoreRanges() {
+    this.supportsRanges = false;
+  }
+
+  public void ignoreRangesStartingAt(int start) {
+    this.ignoredRangeStart = start;
+  }
+
+  public void throttle(int chunkBytes, long delayInMillis) {
+    this.throttleChunkBytes = chunkBytes;
+    this.throttleDelayInMillis = delayInMillis;
+  }
+
+  public long getBytesServed() {
+    return bytesServed.get();
+  }
+
+  public void omitContentLength() {
+    this.announcesContentLength = false;
+  }
+
+  public void announceContentMd5(String contentMd5) {
+    this.contentMd5 = contentMd5;
+  }
+
+  public void holdResponsesUntil(CountDownLatch latch) {
+    this.responsesHeld = latch;
+  }
+
+  public List<String> getRequests() {
+    synchronized (requests) {
+      return new ArrayList<>(requests);
+    }
+  }
+
+  public void stop() throws IOException {
+    serverSocket.close();
+  }
+
+  private void serve(Socket socket) {
+    try {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
+      String[] requestLine = reader.readLine().split(" ");
+      String method = requestLine[0];
+      String path = requestLine[1];
+      String range = null;
+      for (String header = reader.readLine(); header != null && !header.isEmpty(); header = reader.readLine()) {
+        if (header.toLowerCase().startsWith("range: bytes=")) { range = header.substring("range: bytes=".length()); }
+      }
+
+      synchronized (requests) {
+        requests.add(describe(method, path, range));
+      }
+      responsesHeld.await();
+
+      int start = 0;
+      int end = body.length - 1;
+      boolean partial = supportsRanges && range != null && !range.startsWith(ignoredRangeStart + "-");
+      if (partial) {
+        String[] bounds = range.split("-", -1);
+        start = Integer.parseInt(bounds[0]);
+        if (!bounds[1].isEmpty()) { end = Math.min(end, Integer.parseInt(bounds[1])); }
+      }
+
+      OutputStream out = socket.getOutputStream();
+      String headers = partial
+          ? "HTTP/1.1 206 Partial Content\r\nContent-Range: bytes " + start + "-" + end + "/" + body.length + "\r\n"
+          : "HTTP/1.1 200 OK\r\n";
+      if (supportsRanges) { headers += "Accept-Ranges: bytes\r\n"; }
+      if (contentMd5 != null && !partial) { headers += "Content-MD5: " + contentMd5 + "\r\n"; }
+      if (announcesContentLength) { headers += "Content-Length: " + (end - start + 1) + "\r\n"; }
+      headers += "Connection: close\r\n\r\n";
+      out.write(headers.getBytes(US_ASCII));
+
+      if (!method.equals("HEAD")) {
+        int length = end - start + 1;
+        if (dropNextConnection()) { length = Math.min(length, dropAfterBytes); }
+        write(out, start, length);
+      }
+      out.flush();
+    } catch (IOException | InterruptedException e) {
+      // the client went away, nothing to serve
+    } finally {
+      try {
+        socket.close();
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  private void write(OutputStream out, int start, int length) throws IOException, InterruptedException {
+    int chunkBytes = throttleChunkBytes > 0 ? throttleChunkBytes : length;
+    for (int offset = 0; offset < length; offset += chunkBytes) {
+      int count = Math.min(chunkBytes, length - offset);
+      out.write(body, start + offset, count);
+      out.flush();
+      bytesServed.addAndGet(count);
+
+      if (throttleChunkBytes > 0) { Thread.sleep(throttleDelayInMillis); }
+    }
+  }
+
+  private String describe(String method, String path, String range) {
+    String request = method.equals("GET") ? path : method + " " + path;
+    if (range == null) { return request; }
+    if (range.endsWith("-")) { return request + " from " + range.substring(0, range.length() - 1); }
+
+    return request + " " + range;
+  }
+
+  private synchronized boolean dropNextConnection() {
+    if (connectionsToDrop == 0) { return false; }
+
+    connectionsToDrop--;
+    return true;
+  }
+}
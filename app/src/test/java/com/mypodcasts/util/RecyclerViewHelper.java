@@ -0,0 +1,21 @@
+package com.mypodcasts.util;
+
+import android.support.v7.widget.RecyclerView;
+
+public class RecyclerViewHelper {
+
+  @SuppressWarnings("unchecked")
+  public static void performItemClickAtPosition(RecyclerView recyclerView, int position) {
+    RecyclerView.Adapter adapter = recyclerView.getAdapter();
+    RecyclerView.ViewHolder viewHolder = adapter.createViewHolder(
+        recyclerView, adapter.getItemViewType(position)
+    );
+    adapter.bindViewHolder(viewHolder, position);
+
+    viewHolder.itemView.performClick();
+  }
+
+  public static int getItemCount(RecyclerView recyclerView) {
+    return recyclerView.getAdapter().getItemCount();
+  }
+}